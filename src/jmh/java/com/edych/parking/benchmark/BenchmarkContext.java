@@ -0,0 +1,90 @@
+package com.edych.parking.benchmark;
+
+import com.edych.parking.ParkingApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The application without its web layer, on a fresh H2 in-memory database filled by the data generator.
+ * Spots are spread over {@link #FLOORS} floors unless told otherwise, every tenth spot is handicapped, half of the
+ * spots are reserved and there is one customer per ten spots, so each customer holds about five reservations.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    static final int FLOORS = 10;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(final ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static BenchmarkContext start(final int parkingSpots) {
+        return start(parkingSpots, FLOORS);
+    }
+
+    /**
+     * @param properties further properties of the application, e.g. {@code parking.write-stripes.partition=FLOOR}
+     */
+    static BenchmarkContext start(final int parkingSpots, final int floors, final String... properties) {
+        final List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID(),
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "parking.generator.floors=" + floors,
+                "parking.generator.spots-per-floor=" + parkingSpots / floors,
+                "parking.generator.customers=" + customers(parkingSpots),
+                "parking.generator.occupancy=0.5",
+                "parking.generator.handicapped-ratio=0.1"));
+        all.addAll(List.of(properties));
+
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(ParkingApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("generator")
+                .properties(all.toArray(String[]::new))
+                .run();
+
+        return new BenchmarkContext(context);
+    }
+
+    /**
+     * The application on the {@code memory} profile with its prepared data, journaled to {@code journal} unless it is
+     * {@code null}.
+     */
+    static BenchmarkContext startMemory(final Path journal, final boolean fsync) {
+        final List<String> properties = new ArrayList<>(List.of(
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "parking.memory.fsync=" + fsync));
+        if (journal != null) {
+            properties.add("parking.memory.journal=" + journal);
+        }
+
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(ParkingApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("memory")
+                .properties(properties.toArray(String[]::new))
+                .run();
+
+        return new BenchmarkContext(context);
+    }
+
+    static int customers(final int parkingSpots) {
+        return Math.max(1, parkingSpots / 10);
+    }
+
+    <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
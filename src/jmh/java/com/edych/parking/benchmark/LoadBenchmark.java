@@ -0,0 +1,240 @@
+package com.edych.parking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running application, used to compare the servlet and the reactive stack under the
+ * same concurrency. {@code concurrency} requests are kept in flight for {@code duration} seconds after a
+ * {@code warmup}, and throughput and latency percentiles are written as JSON to {@code result}.
+ * <p>
+ * Scenarios:
+ * <ul>
+ *     <li>{@code available} - {@code GET /parking-spot/available} of a random floor</li>
+ *     <li>{@code reservations} - {@code GET /reservations} page of a random customer</li>
+ *     <li>{@code create} - {@code POST /reservation} of a random spot, deleted again when it was created</li>
+ * </ul>
+ * Arguments are {@code key=value} pairs, e.g. {@code url=http://localhost:8081 scenario=create concurrency=512}.
+ */
+public class LoadBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "url", "http://localhost:8080",
+            "scenario", "available",
+            "concurrency", "256",
+            "warmup", "10",
+            "duration", "30",
+            "floors", "2",
+            "customers", "1",
+            "parking-spots", "30",
+            "result", "target/load-result.json");
+
+    private static final int PAGE_SIZE = 20;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final URI baseUri;
+
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private long[] latencies = new long[1 << 16];
+    private int count;
+    private volatile boolean recording;
+
+    private LoadBenchmark(final Map<String, String> options) {
+        this.options = options;
+        this.baseUri = URI.create(options.get("url"));
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>(DEFAULTS);
+
+        for (final String arg : args) {
+            final String[] option = arg.split("=", 2);
+
+            if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException(String.format("unknown argument [%s], expected one of %s as key=value", arg, DEFAULTS.keySet()));
+            }
+
+            options.put(option[0], option[1]);
+        }
+
+        new LoadBenchmark(options).run();
+    }
+
+    private void run() throws InterruptedException, IOException {
+        final int concurrency = intOption("concurrency");
+
+        System.out.printf("%s %s with %s requests in flight, %ss warmup, %ss measurement%n",
+                options.get("scenario"), baseUri, concurrency, options.get("warmup"), options.get("duration"));
+
+        drive(concurrency, TimeUnit.SECONDS.toNanos(intOption("warmup")));
+
+        synchronized (this) {
+            count = 0;
+        }
+        errors.set(0);
+        conflicts.set(0);
+        recording = true;
+
+        final long start = System.nanoTime();
+        drive(concurrency, TimeUnit.SECONDS.toNanos(intOption("duration")));
+        final long elapsed = System.nanoTime() - start;
+
+        recording = false;
+
+        report(concurrency, elapsed);
+    }
+
+    /**
+     * Starts a new operation whenever one completes, until the time is up, and waits for the last ones to finish.
+     */
+    private void drive(final int concurrency, final long nanos) throws InterruptedException {
+        final Semaphore inFlight = new Semaphore(concurrency);
+        final long deadline = System.nanoTime() + nanos;
+
+        while (System.nanoTime() < deadline) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+
+            operation().whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+
+        inFlight.acquire(concurrency);
+    }
+
+    private CompletableFuture<?> operation() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        switch (options.get("scenario")) {
+            case "available":
+                return send(HttpRequest.newBuilder(uri("/parking-spot/available?floor=%s&limit=%s",
+                        random.nextInt(intOption("floors")) + 1, PAGE_SIZE)).GET());
+            case "reservations":
+                return send(HttpRequest.newBuilder(uri("/reservations?customerId=%s&after=0&limit=%s",
+                        random.nextInt(intOption("customers")) + 1, PAGE_SIZE)).GET());
+            case "create":
+                final String body = String.format("{\"customerId\":%s,\"parkingSpotId\":%s}",
+                        random.nextInt(intOption("customers")) + 1, random.nextInt(intOption("parking-spots")) + 1);
+
+                return send(HttpRequest.newBuilder(uri("/reservation"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)))
+                        .thenCompose(response -> response.statusCode() == 201
+                                ? send(HttpRequest.newBuilder(uri("/reservation/%s", id(response.body()))).DELETE())
+                                : CompletableFuture.completedFuture(response));
+            default:
+                throw new IllegalArgumentException(String.format("unknown scenario [%s]", options.get("scenario")));
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(final HttpRequest.Builder request) {
+        final long start = System.nanoTime();
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, throwable) -> {
+                    if (response != null && response.statusCode() == 409) {
+                        conflicts.incrementAndGet();
+                    } else if (response != null && response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    }
+                    record(System.nanoTime() - start);
+                });
+    }
+
+    private synchronized void record(final long nanos) {
+        if (!recording) {
+            return;
+        }
+
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+
+        latencies[count++] = nanos;
+    }
+
+    private void report(final int concurrency, final long elapsedNanos) throws IOException {
+        final long[] sorted;
+
+        synchronized (this) {
+            sorted = Arrays.copyOf(latencies, count);
+        }
+
+        Arrays.sort(sorted);
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("url", baseUri.toString());
+        result.put("scenario", options.get("scenario"));
+        result.put("concurrency", concurrency);
+        result.put("requests", sorted.length);
+        result.put("errors", errors.get());
+        result.put("conflicts", conflicts.get());
+        result.put("throughput", sorted.length / (elapsedNanos / 1e9));
+        result.put("p50Ms", percentile(sorted, 0.50));
+        result.put("p95Ms", percentile(sorted, 0.95));
+        result.put("p99Ms", percentile(sorted, 0.99));
+        result.put("maxMs", percentile(sorted, 1.0));
+
+        final ObjectMapper writer = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        final File file = new File(options.get("result"));
+
+        writer.writeValue(file, result);
+        System.out.println(writer.writeValueAsString(result));
+        System.out.printf("written to %s%n", file);
+    }
+
+    private URI uri(final String path, final Object... args) {
+        return baseUri.resolve(String.format(path, args));
+    }
+
+    private long id(final String reservation) {
+        try {
+            return objectMapper.readTree(reservation).get("id").asLong();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int intOption(final String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    private static double percentile(final long[] sorted, final double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
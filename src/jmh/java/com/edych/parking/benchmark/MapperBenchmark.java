@@ -0,0 +1,67 @@
+package com.edych.parking.benchmark;
+
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.mapper.ParkingSpotDtoMapper;
+import com.edych.parking.mapper.ParkingSpotDtoMapperImpl;
+import com.edych.parking.mapper.ReservationDtoMapper;
+import com.edych.parking.mapper.ReservationDtoMapperImpl;
+import com.edych.parking.model.Customer;
+import com.edych.parking.model.ParkingSpot;
+import com.edych.parking.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private final ReservationDtoMapper reservationDtoMapper = new ReservationDtoMapperImpl();
+    private final ParkingSpotDtoMapper parkingSpotDtoMapper = new ParkingSpotDtoMapperImpl();
+
+    private List<Reservation> reservations;
+    private List<ParkingSpot> parkingSpots;
+
+    @Setup
+    public void setUp() {
+        final Customer customer = Customer.builder().id(1L).name("edych").build();
+
+        parkingSpots = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> ParkingSpot.builder().id(id).number((int) id).floor(1).handicapped(id % 10 == 0).build())
+                .collect(Collectors.toList());
+        reservations = parkingSpots.stream()
+                .map(parkingSpot -> Reservation.builder().id(parkingSpot.getId()).customer(customer).parkingSpot(parkingSpot).build())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ReservationDto> reservationToDtos() {
+        return reservationDtoMapper.toDtos(reservations);
+    }
+
+    @Benchmark
+    public List<ParkingSpotDto> parkingSpotToDtos() {
+        return parkingSpotDtoMapper.toDtos(parkingSpots);
+    }
+}
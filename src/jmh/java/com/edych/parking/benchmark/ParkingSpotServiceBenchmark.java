@@ -0,0 +1,75 @@
+package com.edych.parking.benchmark;
+
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.model.ParkingSpot;
+import com.edych.parking.repository.ParkingSpotRepository;
+import com.edych.parking.service.ParkingSpotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability served by the in-memory index next to the repository queries it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParkingSpotServiceBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"10000", "1000000"})
+    private int parkingSpots;
+
+    private BenchmarkContext context;
+    private ParkingSpotService parkingSpotService;
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(parkingSpots);
+        parkingSpotService = context.getBean(ParkingSpotService.class);
+        parkingSpotRepository = context.getBean(ParkingSpotRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ParkingSpotDto> getAllAvailable() {
+        return parkingSpotService.getAllAvailable();
+    }
+
+    @Benchmark
+    public List<ParkingSpot> getAllAvailableQuery() {
+        return parkingSpotRepository.getAllAvailable();
+    }
+
+    @Benchmark
+    public List<ParkingSpotDto> getAvailableFiltered() {
+        return parkingSpotService.getAvailable(BenchmarkContext.FLOORS, true, LIMIT);
+    }
+
+    @Benchmark
+    public List<ParkingSpot> getAvailableFilteredQuery() {
+        return parkingSpotRepository.getAvailable(BenchmarkContext.FLOORS, true, PageRequest.of(0, LIMIT));
+    }
+}
@@ -0,0 +1,108 @@
+package com.edych.parking.benchmark;
+
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.service.ParkingSpotService;
+import com.edych.parking.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reservation created and deleted again on a spot of its own per thread, saved by JPA to H2 or kept in the memory
+ * store without a journal, with a journal forced in the background and with a journal forced before every change
+ * returns. With several threads the forced journal shares one fsync between the changes of a round.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservationJournalBenchmark {
+
+    private static final int THREADS = 8;
+
+    @Param({"jpa", "memory", "journal", "fsync"})
+    private String storage;
+
+    private Path journal;
+    private BenchmarkContext context;
+    private ReservationService reservationService;
+
+    private List<ParkingSpotDto> freeParkingSpots;
+    private final AtomicInteger nextFreeParkingSpot = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("jpa".equals(storage)) {
+            context = BenchmarkContext.start(1000);
+        } else {
+            journal = "memory".equals(storage) ? null : Files.createTempDirectory("parking-journal");
+            context = BenchmarkContext.startMemory(journal, "fsync".equals(storage));
+        }
+
+        reservationService = context.getBean(ReservationService.class);
+        freeParkingSpots = context.getBean(ParkingSpotService.class).getAvailable(null, null, THREADS + 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+
+        if (journal != null) {
+            FileSystemUtils.deleteRecursively(journal);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnParkingSpot {
+
+        private Long parkingSpotId;
+
+        @Setup
+        public void setUp(final ReservationJournalBenchmark benchmark) {
+            parkingSpotId = benchmark.freeParkingSpots.get(benchmark.nextFreeParkingSpot.getAndIncrement()).getId();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ReservationDto createAndDelete(final OwnParkingSpot own) {
+        return createAndDelete(own.parkingSpotId);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public ReservationDto createAndDeleteConcurrently(final OwnParkingSpot own) {
+        return createAndDelete(own.parkingSpotId);
+    }
+
+    private ReservationDto createAndDelete(final Long parkingSpotId) {
+        final ReservationDto created = reservationService.create(ReservationDto.builder()
+                .customerId(1L)
+                .parkingSpotId(parkingSpotId)
+                .build());
+        reservationService.deleteById(created.getId());
+
+        return created;
+    }
+}
@@ -0,0 +1,114 @@
+package com.edych.parking.benchmark;
+
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.exception.ConflictException;
+import com.edych.parking.service.ParkingSpotService;
+import com.edych.parking.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every create is followed by a delete of the same reservation, so the lot keeps its occupancy for the whole run
+ * and the scores include both calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservationServiceBenchmark {
+
+    private static final int CONTENDING_THREADS = 4;
+
+    @Param({"10000", "100000"})
+    private int parkingSpots;
+
+    private BenchmarkContext context;
+    private ReservationService reservationService;
+
+    /**
+     * Spots that are free after generation; every thread takes its own, the contended benchmark uses the first one.
+     */
+    private List<ParkingSpotDto> freeParkingSpots;
+    private final AtomicInteger nextFreeParkingSpot = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(parkingSpots);
+        reservationService = context.getBean(ReservationService.class);
+        freeParkingSpots = context.getBean(ParkingSpotService.class).getAvailable(null, null, CONTENDING_THREADS + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class OwnParkingSpot {
+
+        private Long parkingSpotId;
+
+        @Setup
+        public void setUp(final ReservationServiceBenchmark benchmark) {
+            parkingSpotId = benchmark.freeParkingSpots.get(benchmark.nextFreeParkingSpot.getAndIncrement()).getId();
+        }
+    }
+
+    /**
+     * One thread on its own spot, so claims never collide.
+     */
+    @Benchmark
+    @Threads(1)
+    public ReservationDto createUncontended(final OwnParkingSpot own) {
+        return createAndDelete(own.parkingSpotId);
+    }
+
+    /**
+     * All threads fight for the same spot; losers take the conflict path.
+     */
+    @Benchmark
+    @Threads(CONTENDING_THREADS)
+    public ReservationDto createContended() {
+        try {
+            return createAndDelete(freeParkingSpots.get(0).getId());
+        } catch (final ConflictException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public List<ReservationDto> getAllByCustomerId() {
+        final long customerId = ThreadLocalRandom.current().nextLong(BenchmarkContext.customers(parkingSpots)) + 1;
+
+        return reservationService.getAllByCustomerId(customerId);
+    }
+
+    private ReservationDto createAndDelete(final Long parkingSpotId) {
+        final ReservationDto created = reservationService.create(ReservationDto.builder()
+                .customerId(1L)
+                .parkingSpotId(parkingSpotId)
+                .build());
+        reservationService.deleteById(created.getId());
+
+        return created;
+    }
+}
@@ -0,0 +1,149 @@
+package com.edych.parking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request: starts the application {@code runs} times with {@code command} and measures from the start of
+ * the process until {@code GET /parking-spot/available} is answered with 200. The times are written as JSON to
+ * {@code result}.
+ * <p>
+ * Arguments are {@code key=value} pairs; {@code command} is split at spaces and started in {@code directory}, e.g.
+ * {@code command="java -jar target/parking-0.0.1-SNAPSHOT.jar"} before and
+ * {@code directory=target/faststart command="java -XX:SharedArchiveFile=parking.jsa -Dspring.profiles.active=faststart -cp parking-0.0.1-SNAPSHOT-faststart.jar com.edych.parking.ParkingApplication"}
+ * after.
+ */
+public class StartupBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "command", "java -jar target/parking-0.0.1-SNAPSHOT.jar",
+            "directory", ".",
+            "port", "8090",
+            "runs", "5",
+            "timeout", "120",
+            "result", "target/startup-result.json");
+
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, String> options;
+
+    private StartupBenchmark(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>(DEFAULTS);
+
+        for (final String arg : args) {
+            final String[] option = arg.split("=", 2);
+
+            if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException(String.format("unknown argument [%s], expected one of %s as key=value", arg, DEFAULTS.keySet()));
+            }
+
+            options.put(option[0], option[1]);
+        }
+
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        final int runs = Integer.parseInt(options.get("runs"));
+
+        if (runs < 1) {
+            throw new IllegalArgumentException("runs has to be greater than 0");
+        }
+
+        final long[] times = new long[runs];
+
+        for (int i = 0; i < runs; i++) {
+            times[i] = timeToFirstRequest();
+            System.out.printf("run %s: first request answered after %s ms%n", i + 1, TimeUnit.NANOSECONDS.toMillis(times[i]));
+        }
+
+        report(times);
+    }
+
+    private long timeToFirstRequest() throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>(Arrays.asList(options.get("command").trim().split(" +")));
+        command.add("--server.port=" + options.get("port"));
+
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + options.get("port") + "/parking-spot/available"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("timeout")));
+
+        final long start = System.nanoTime();
+        final Process process = new ProcessBuilder(command)
+                .directory(new File(options.get("directory")))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        try {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(String.format("application exited with %s before answering", process.exitValue()));
+                }
+
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return System.nanoTime() - start;
+                    }
+                } catch (final IOException e) {
+                    // not listening yet
+                }
+
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+
+            throw new IllegalStateException(String.format("no answer within %ss", options.get("timeout")));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void report(final long[] times) throws IOException {
+        final long[] sorted = times.clone();
+        Arrays.sort(sorted);
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("command", options.get("command"));
+        result.put("directory", options.get("directory"));
+        result.put("runs", sorted.length);
+        result.put("timesMs", Arrays.stream(times).map(TimeUnit.NANOSECONDS::toMillis).toArray());
+        result.put("minMs", TimeUnit.NANOSECONDS.toMillis(sorted[0]));
+        result.put("medianMs", TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length / 2]));
+        result.put("maxMs", TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length - 1]));
+
+        final ObjectMapper writer = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        final File file = new File(options.get("result"));
+
+        writer.writeValue(file, result);
+        System.out.println(writer.writeValueAsString(result));
+        System.out.printf("written to %s%n", file);
+    }
+}
@@ -0,0 +1,108 @@
+package com.edych.parking.benchmark;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.service.ParkingSpotService;
+import com.edych.parking.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates and deletes of reservations by a growing number of threads, spread round robin over the floors, each on a
+ * spot of its own. With the {@code FLOOR} partition the threads of one floor wait for each other, with
+ * {@code PARKING_SPOT} and {@code NONE} only the database and the connection pool are shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WriteStripesBenchmark {
+
+    private static final int PARKING_SPOTS = 10_000;
+    private static final int MAX_THREADS = 16;
+
+    @Param({"1", "4", "16"})
+    private int floors;
+
+    @Param({"NONE", "FLOOR", "PARKING_SPOT"})
+    private String partition;
+
+    private BenchmarkContext context;
+    private ReservationService reservationService;
+    private ParkingSpotService parkingSpotService;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(PARKING_SPOTS, floors, "parking.write-stripes.partition=" + partition);
+        reservationService = context.getBean(ReservationService.class);
+        parkingSpotService = context.getBean(ParkingSpotService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class OwnParkingSpot {
+
+        private Long parkingSpotId;
+
+        /**
+         * Thread {@code i} takes the {@code i / floors}-th free spot of floor {@code i % floors + 1}.
+         */
+        @Setup
+        public void setUp(final WriteStripesBenchmark benchmark) {
+            final int thread = benchmark.nextThread.getAndIncrement();
+            final int floor = thread % benchmark.floors + 1;
+
+            parkingSpotId = benchmark.parkingSpotService.getAvailable(floor, null, MAX_THREADS)
+                    .get(thread / benchmark.floors)
+                    .getId();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ReservationDto createAndDelete1Thread(final OwnParkingSpot own) {
+        return createAndDelete(own.parkingSpotId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ReservationDto createAndDelete4Threads(final OwnParkingSpot own) {
+        return createAndDelete(own.parkingSpotId);
+    }
+
+    @Benchmark
+    @Threads(MAX_THREADS)
+    public ReservationDto createAndDelete16Threads(final OwnParkingSpot own) {
+        return createAndDelete(own.parkingSpotId);
+    }
+
+    private ReservationDto createAndDelete(final Long parkingSpotId) {
+        final ReservationDto created = reservationService.create(ReservationDto.builder()
+                .customerId(1L)
+                .parkingSpotId(parkingSpotId)
+                .build());
+        reservationService.deleteById(created.getId());
+
+        return created;
+    }
+}
@@ -0,0 +1,263 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ParkingSpotsFreedEvent;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import com.edych.parking.mapper.ParkingSpotDtoMapper;
+import com.edych.parking.model.ParkingSpot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of which parking spots are free, so that availability reads never touch the database.
+ * A spot is free when it has no current or future reservation.
+ * Free spots are kept as one bitset keyed by parking spot id per {@link Segment}, so a filtered read only
+ * walks the bitsets of the requested segments.
+ * The index is filled by {@link AvailabilityLoader} at startup and then follows committed reservation changes and
+ * the spots {@link ParkingSpotClaims} announces as freed. The events of one spot can arrive out of order, e.g. a create
+ * that claimed a just freed spot can announce it taken before the free is announced, so an event only tells which
+ * spots changed; whether they are free is read from {@link ParkingSpotClaims} under the write lock, and the event
+ * applied last always leaves the latest state.
+ * Every change bumps a version of the lot and of the floor it happened on.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+
+    private final ParkingSpotDtoMapper parkingSpotDtoMapper;
+    private final ParkingSpotClaims parkingSpotClaims;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ParkingSpotDto[] spots = new ParkingSpotDto[0];
+    private final Map<Segment, BitSet> free = new HashMap<>();
+    private final Map<Segment, BitSet> all = new HashMap<>();
+
+    /**
+     * Tells apart versions of different application runs, which all start counting from zero.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private long version;
+    private final Map<Integer, Long> floorVersions = new HashMap<>();
+
+    public void load(final List<ParkingSpot> parkingSpots, final List<Long> takenParkingSpotIds) {
+        lock.writeLock().lock();
+        try {
+            free.clear();
+            all.clear();
+            spots = new ParkingSpotDto[maxIndex(parkingSpots) + 1];
+
+            for (final ParkingSpot parkingSpot : parkingSpots) {
+                final int index = toIndex(parkingSpot.getId());
+                spots[index] = parkingSpotDtoMapper.toDto(parkingSpot);
+                free.computeIfAbsent(segmentOf(spots[index]), segment -> new BitSet()).set(index);
+                all.computeIfAbsent(segmentOf(spots[index]), segment -> new BitSet()).set(index);
+            }
+
+            takenParkingSpotIds.forEach(id -> setFree(id, false));
+
+            version++;
+            floorVersions.clear();
+            free.keySet().forEach(segment -> floorVersions.put(segment.getFloor(), version));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ParkingSpotDto> getAllAvailable() {
+        return getAvailable(null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param floor       only spots on this floor, or any floor when {@code null}
+     * @param handicapped only spots with this handicapped flag, or both when {@code null}
+     * @param limit       maximum number of spots returned, lowest ids first
+     */
+    public List<ParkingSpotDto> getAvailable(final Integer floor, final Boolean handicapped, final int limit) {
+        lock.readLock().lock();
+        try {
+            return collect(matching(free, floor, handicapped), limit, id -> true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #getAvailable(Integer, Boolean, int)}, but over every spot of the matching segments that
+     * {@code isFree} accepts, e.g. the ones free in a reservation window.
+     */
+    public List<ParkingSpotDto> getAvailable(final Integer floor, final Boolean handicapped, final int limit,
+                                             final Predicate<Long> isFree) {
+        lock.readLock().lock();
+        try {
+            return collect(matching(all, floor, handicapped), limit, isFree);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Opaque version of the availability of a floor, or of the whole lot when {@code floor} is {@code null}.
+     * It changes with every committed change there and never repeats across restarts; read it before the data it
+     * describes, so that it is never newer than that data.
+     */
+    public String getVersion(final Integer floor) {
+        lock.readLock().lock();
+        try {
+            final long current = floor == null ? version : floorVersions.getOrDefault(floor, version);
+
+            return epoch + "-" + current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SortedSet<Integer> getFloors() {
+        lock.readLock().lock();
+        try {
+            return free.keySet().stream()
+                    .map(Segment::getFloor)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countAvailable(final Integer floor) {
+        lock.readLock().lock();
+        try {
+            return free.entrySet().stream()
+                    .filter(entry -> entry.getKey().matches(floor, null))
+                    .mapToInt(entry -> entry.getValue().cardinality())
+                    .sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsCreated(final ReservationsCreatedEvent event) {
+        refresh(event.getReservations().stream()
+                .map(ReservationDto::getParkingSpotId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * A deleted reservation only frees its spot when it was the spot's last one, which {@link ParkingSpotsFreedEvent}
+     * tells; the windows of the spot changed either way.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsDeleted(final ReservationsDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            event.getReservations().forEach(reservation -> touch(reservation.getParkingSpotId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onParkingSpotsFreed(final ParkingSpotsFreedEvent event) {
+        refresh(event.getParkingSpotIds());
+    }
+
+    private void refresh(final Iterable<Long> parkingSpotIds) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            parkingSpotIds.forEach(id -> setFree(id, parkingSpotClaims.isFree(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setFree(final Long parkingSpotId, final boolean isFree) {
+        final int index = toIndex(parkingSpotId);
+
+        if (index < spots.length && spots[index] != null) {
+            free.get(segmentOf(spots[index])).set(index, isFree);
+            floorVersions.put(spots[index].getFloor(), version);
+        }
+    }
+
+    private void touch(final Long parkingSpotId) {
+        final int index = toIndex(parkingSpotId);
+
+        if (index < spots.length && spots[index] != null) {
+            floorVersions.put(spots[index].getFloor(), version);
+        }
+    }
+
+    private List<ParkingSpotDto> collect(final BitSet matching, final int limit, final Predicate<Long> isFree) {
+        final List<ParkingSpotDto> result = new ArrayList<>(Math.min(limit, matching.cardinality()));
+
+        for (int i = matching.nextSetBit(0); i >= 0 && result.size() < limit; i = matching.nextSetBit(i + 1)) {
+            if (isFree.test(spots[i].getId())) {
+                result.add(spots[i]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * A single matching segment is returned as is, which is why the result must only be read under the read lock.
+     */
+    private static BitSet matching(final Map<Segment, BitSet> bitsets, final Integer floor, final Boolean handicapped) {
+        BitSet single = null;
+        BitSet union = null;
+
+        for (final Map.Entry<Segment, BitSet> entry : bitsets.entrySet()) {
+            if (!entry.getKey().matches(floor, handicapped)) {
+                continue;
+            }
+
+            if (single == null) {
+                single = entry.getValue();
+            } else {
+                if (union == null) {
+                    union = (BitSet) single.clone();
+                }
+                union.or(entry.getValue());
+            }
+        }
+
+        if (union != null) {
+            return union;
+        }
+
+        return single != null ? single : new BitSet();
+    }
+
+    private static Segment segmentOf(final ParkingSpotDto parkingSpot) {
+        return new Segment(parkingSpot.getFloor(), parkingSpot.getHandicapped());
+    }
+
+    private static int maxIndex(final List<ParkingSpot> parkingSpots) {
+        return parkingSpots.stream()
+                .mapToInt(parkingSpot -> toIndex(parkingSpot.getId()))
+                .max()
+                .orElse(-1);
+    }
+
+    private static int toIndex(final Long id) {
+        return Math.toIntExact(id);
+    }
+}
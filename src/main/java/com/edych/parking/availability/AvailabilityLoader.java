@@ -0,0 +1,44 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.ParkingSpot;
+import com.edych.parking.repository.ParkingSpotRepository;
+import com.edych.parking.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the lot and its reservations that have not ended once and hands them to every in-memory availability structure.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityLoader {
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final ReservationRepository reservationRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ParkingSpotClaims parkingSpotClaims;
+    private final ParkingSpotFreeLists parkingSpotFreeLists;
+
+    @PostConstruct
+    public void load() {
+        final List<ParkingSpot> parkingSpots = parkingSpotRepository.findAll();
+        final List<ReservationDto> reservations = reservationRepository.findAllDtoNotEndedAt(Instant.now());
+        final List<Long> takenParkingSpotIds = reservations.stream()
+                .map(ReservationDto::getParkingSpotId)
+                .distinct()
+                .collect(Collectors.toList());
+        final List<Long> parkingSpotIds = parkingSpots.stream()
+                .map(ParkingSpot::getId)
+                .collect(Collectors.toList());
+
+        availabilityIndex.load(parkingSpots, takenParkingSpotIds);
+        parkingSpotClaims.load(parkingSpotIds, reservations);
+        parkingSpotFreeLists.load(parkingSpots, takenParkingSpotIds);
+    }
+}
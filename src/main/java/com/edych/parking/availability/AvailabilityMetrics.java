@@ -0,0 +1,38 @@
+package com.edych.parking.availability;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Free spots per floor, read from {@link AvailabilityIndex} on every scrape, and open availability streams.
+ * Registered once the application is ready, so floors of a generated lot are included.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityMetrics {
+
+    static final String FREE_SPOTS = "parking.spots.free";
+    static final String STREAM_SUBSCRIBERS = "parking.availability.subscribers";
+
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityStream availabilityStream;
+    private final MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        availabilityIndex.getFloors().forEach(floor -> Gauge
+                .builder(FREE_SPOTS, availabilityIndex, index -> index.countAvailable(floor))
+                .description("Parking spots without a reservation")
+                .tag("floor", String.valueOf(floor))
+                .strongReference(true)
+                .register(meterRegistry));
+
+        Gauge.builder(STREAM_SUBSCRIBERS, availabilityStream, AvailabilityStream::getSubscriberCount)
+                .description("Open availability streams")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,226 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.AvailabilityDeltaDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ParkingSpotsFreedEvent;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Server-sent events of availability: a {@code snapshot} of all free spots, then one {@code delta} event with the
+ * spots taken or freed since the previous one. Like {@link AvailabilityIndex}, a delta carries the state the spot has
+ * in {@link ParkingSpotClaims} when it is published, not the one its event implies, and deltas are published one at a
+ * time, so the last delta of a spot is its latest state even when the events of the spot arrive out of order.
+ * <p>
+ * Committed changes are only put into each subscriber's bounded buffer and a pool of threads writes them out, at most
+ * one thread per subscriber. {@link SseEmitter#send} blocks while the client does not read, so a write stuck on a slow
+ * client holds a thread of its own: the pool grows beyond {@code parking.availability-stream.threads} instead of
+ * making the other subscribers wait. A subscriber whose buffer is full, or whose write has been stuck for
+ * {@code parking.availability-stream.send-timeout}, is dropped and its emitter completed by its own writer, since
+ * completing it from elsewhere waits for the stuck write; it gets a fresh snapshot when it reconnects.
+ */
+@Component
+@EnableConfigurationProperties(AvailabilityStreamProperties.class)
+public class AvailabilityStream {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String DELTA = "delta";
+
+    private final AvailabilityIndex availabilityIndex;
+    private final ParkingSpotClaims parkingSpotClaims;
+    private final AvailabilityStreamProperties properties;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService watchdog;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public AvailabilityStream(final AvailabilityIndex availabilityIndex, final ParkingSpotClaims parkingSpotClaims,
+                              final AvailabilityStreamProperties properties) {
+        this.availabilityIndex = availabilityIndex;
+        this.parkingSpotClaims = parkingSpotClaims;
+        this.properties = properties;
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("availability-stream-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory);
+
+        final CustomizableThreadFactory watchdogThreadFactory = new CustomizableThreadFactory("availability-stream-watchdog-");
+        watchdogThreadFactory.setDaemon(true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(watchdogThreadFactory);
+
+        final long interval = Math.max(properties.getSendTimeout().toMillis() / 2, 1);
+        watchdog.scheduleWithFixedDelay(this::dropStalled, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(final SseEmitter emitter) {
+        final Subscriber subscriber = new Subscriber(emitter, properties.getBufferSize());
+
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+
+        // registered before the snapshot is taken, so no change committed in between is missed
+        subscribers.add(subscriber);
+        schedule(subscriber);
+
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsCreated(final ReservationsCreatedEvent event) {
+        publish(event.getReservations().stream()
+                .map(ReservationDto::getParkingSpotId)
+                .collect(Collectors.toList()));
+    }
+
+    @EventListener
+    public void onParkingSpotsFreed(final ParkingSpotsFreedEvent event) {
+        publish(event.getParkingSpotIds());
+    }
+
+    @PreDestroy
+    public void close() {
+        watchdog.shutdownNow();
+        subscribers.forEach(subscriber -> {
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        executor.shutdownNow();
+    }
+
+    private synchronized void publish(final List<Long> parkingSpotIds) {
+        if (subscribers.isEmpty() || parkingSpotIds.isEmpty()) {
+            return;
+        }
+
+        final List<AvailabilityDeltaDto> deltas = parkingSpotIds.stream()
+                .map(parkingSpotId -> new AvailabilityDeltaDto(parkingSpotClaims.isFree(parkingSpotId)
+                        ? AvailabilityDeltaDto.Type.FREED
+                        : AvailabilityDeltaDto.Type.TAKEN, parkingSpotId))
+                .collect(Collectors.toList());
+
+        for (final Subscriber subscriber : subscribers) {
+            if (subscriber.pending.offer(deltas)) {
+                schedule(subscriber);
+            } else {
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void schedule(final Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(final Subscriber subscriber) {
+        try {
+            if (!subscribers.contains(subscriber)) {
+                subscriber.emitter.complete();
+                return;
+            }
+
+            if (!subscriber.snapshotSent) {
+                send(subscriber, SseEmitter.event().name(SNAPSHOT).data(availabilityIndex.getAllAvailable()));
+                subscriber.snapshotSent = true;
+            }
+
+            final List<AvailabilityDeltaDto> deltas = new ArrayList<>();
+            List<AvailabilityDeltaDto> next;
+            while ((next = subscriber.pending.poll()) != null) {
+                deltas.addAll(next);
+            }
+
+            if (!deltas.isEmpty()) {
+                send(subscriber, SseEmitter.event().name(DELTA).data(deltas));
+            }
+        } catch (final IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+
+        // a change offered, or a drop, after the last poll found the drain still scheduled
+        if (!subscriber.pending.isEmpty() || !subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private static void send(final Subscriber subscriber, final SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendingSince = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendingSince = 0;
+        }
+    }
+
+    /**
+     * The writer of the subscriber completes the emitter once it is done with the current write.
+     */
+    private void drop(final Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void dropStalled() {
+        final long now = System.nanoTime();
+
+        for (final Subscriber subscriber : subscribers) {
+            final long since = subscriber.sendingSince;
+
+            if (since != 0 && now - since > properties.getSendTimeout().toNanos()) {
+                drop(subscriber);
+            }
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<List<AvailabilityDeltaDto>> pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean snapshotSent;
+        private volatile long sendingSince;
+
+        private Subscriber(final SseEmitter emitter, final int bufferSize) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
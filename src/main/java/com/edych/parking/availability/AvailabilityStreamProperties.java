@@ -0,0 +1,32 @@
+package com.edych.parking.availability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "parking.availability-stream")
+public class AvailabilityStreamProperties {
+
+    /**
+     * Committed changes a subscriber may fall behind by before it is disconnected.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * After this time the stream is closed and the client is expected to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Threads kept for writing to subscribers; writers of reservations never do. A write stuck on a slow client takes
+     * an extra thread for as long as it is stuck.
+     */
+    private int threads = 2;
+
+    /**
+     * A subscriber whose client has not taken an event for this long is dropped.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
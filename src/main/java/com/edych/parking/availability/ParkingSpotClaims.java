@@ -0,0 +1,265 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ParkingSpotsFreedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Per-spot index of reserved windows deciding which concurrent request gets a parking spot before any SQL runs.
+ * The windows of a spot never overlap and are kept sorted by start, so whether a new window fits is decided by its
+ * two neighbours in O(log n), under a lock of that spot only.
+ * A spot whose windows are all gone, by a delete, a rollback or because the last one ended, is announced with a
+ * {@link ParkingSpotsFreedEvent}. The announcement can reach listeners after a later claim of the spot was announced,
+ * so listeners read whether the spot is free from {@link #isFree(Long)} instead of relying on the order of events.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParkingSpotClaims {
+
+    public enum Result {
+        CLAIMED, TAKEN, NOT_FOUND
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final List<Consumer<Long>> releaseListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<Long, Windows> claims = Map.of();
+
+    /**
+     * @param reservations reservations that have not ended yet
+     */
+    public void load(final Collection<Long> parkingSpotIds, final Collection<ReservationDto> reservations) {
+        final Map<Long, Windows> loaded = new HashMap<>(parkingSpotIds.size() * 2);
+
+        parkingSpotIds.forEach(id -> loaded.put(id, new Windows()));
+        reservations.forEach(reservation -> loaded.computeIfAbsent(reservation.getParkingSpotId(), key -> new Windows())
+                .put(ReservationWindow.of(reservation)));
+
+        claims = loaded;
+    }
+
+    /**
+     * Claims the window of the spot for the current transaction. When the transaction does not commit, the claim
+     * is released.
+     */
+    public Result claim(final Long parkingSpotId, final ReservationWindow window) {
+        final Windows windows = claims.get(parkingSpotId);
+
+        if (windows == null) {
+            return Result.NOT_FOUND;
+        }
+
+        if (!windows.add(window)) {
+            return Result.TAKEN;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new Claim(parkingSpotId, window, windows));
+        }
+
+        return Result.CLAIMED;
+    }
+
+    /**
+     * Releases a window the current transaction claimed but will not insert, e.g. because the database already has
+     * an overlapping reservation made by another instance, while the rest of the transaction still commits.
+     */
+    public void release(final Long parkingSpotId, final ReservationWindow window) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(Claim.class::isInstance)
+                .map(Claim.class::cast)
+                .filter(claim -> claim.isOf(parkingSpotId, window))
+                .findFirst()
+                .ifPresent(Claim::release);
+    }
+
+    public boolean isFree(final Long parkingSpotId, final ReservationWindow window) {
+        final Windows windows = claims.get(parkingSpotId);
+        return windows != null && windows.isFree(window);
+    }
+
+    /**
+     * @return whether the spot exists and has no current or future reservation
+     */
+    public boolean isFree(final Long parkingSpotId) {
+        final Windows windows = claims.get(parkingSpotId);
+        return windows != null && windows.isEmpty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsDeleted(final ReservationsDeletedEvent event) {
+        final List<Long> freed = new ArrayList<>();
+
+        for (final ReservationDto reservation : event.getReservations()) {
+            final Windows windows = claims.get(reservation.getParkingSpotId());
+
+            if (windows != null && windows.remove(ReservationWindow.of(reservation))) {
+                freed.add(reservation.getParkingSpotId());
+            }
+        }
+
+        free(freed);
+    }
+
+    /**
+     * Drops the windows that have ended. Windows end on whole hours, so this runs at the top of every hour.
+     */
+    @Scheduled(cron = "${parking.reservation-windows.expiry-cron:0 0 * * * *}")
+    public void releaseEnded() {
+        releaseEnded(Instant.now());
+    }
+
+    void releaseEnded(final Instant now) {
+        final List<Long> freed = new ArrayList<>();
+
+        claims.forEach((parkingSpotId, windows) -> {
+            if (windows.removeEndedBy(now.toEpochMilli())) {
+                freed.add(parkingSpotId);
+            }
+        });
+
+        free(freed);
+    }
+
+    /**
+     * The listener is called with the parking spot id every time a spot loses its last window, by a rollback,
+     * a delete or because the window ended.
+     */
+    public void addReleaseListener(final Consumer<Long> listener) {
+        releaseListeners.add(listener);
+    }
+
+    private void free(final List<Long> parkingSpotIds) {
+        if (parkingSpotIds.isEmpty()) {
+            return;
+        }
+
+        parkingSpotIds.forEach(parkingSpotId -> releaseListeners.forEach(listener -> listener.accept(parkingSpotId)));
+        eventPublisher.publishEvent(new ParkingSpotsFreedEvent(parkingSpotIds));
+    }
+
+    /**
+     * A window claimed by the current transaction, released when the transaction does not commit or by
+     * {@link #release(Long, ReservationWindow)}, but only once: the window may be claimed again by then.
+     */
+    @RequiredArgsConstructor
+    private final class Claim implements TransactionSynchronization {
+
+        private final Long parkingSpotId;
+        private final ReservationWindow window;
+        private final Windows windows;
+
+        private boolean released;
+
+        boolean isOf(final Long parkingSpotId, final ReservationWindow window) {
+            return !released && this.parkingSpotId.equals(parkingSpotId) && this.window.equals(window);
+        }
+
+        void release() {
+            released = true;
+
+            if (windows.remove(window)) {
+                free(List.of(parkingSpotId));
+            }
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            // listeners may have seen the claim already, see the class comment
+            if (status != STATUS_COMMITTED && !released) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Windows of one spot as end by start, both in epoch milliseconds.
+     */
+    private static final class Windows {
+
+        private final NavigableMap<Long, Long> endByStart = new TreeMap<>();
+
+        synchronized void put(final ReservationWindow window) {
+            endByStart.put(window.startMillis(), window.endMillis());
+        }
+
+        synchronized boolean add(final ReservationWindow window) {
+            if (overlaps(window.startMillis(), window.endMillis())) {
+                return false;
+            }
+
+            endByStart.put(window.startMillis(), window.endMillis());
+            return true;
+        }
+
+        synchronized boolean isFree(final ReservationWindow window) {
+            return !overlaps(window.startMillis(), window.endMillis());
+        }
+
+        synchronized boolean isEmpty() {
+            return endByStart.isEmpty();
+        }
+
+        /**
+         * @return whether this removed the last window
+         */
+        synchronized boolean remove(final ReservationWindow window) {
+            return endByStart.remove(window.startMillis(), window.endMillis()) && endByStart.isEmpty();
+        }
+
+        /**
+         * Windows do not overlap, so the ended ones are the first ones.
+         *
+         * @return whether this removed the last window
+         */
+        synchronized boolean removeEndedBy(final long now) {
+            if (endByStart.isEmpty()) {
+                return false;
+            }
+
+            while (!endByStart.isEmpty() && endByStart.firstEntry().getValue() <= now) {
+                endByStart.pollFirstEntry();
+            }
+
+            return endByStart.isEmpty();
+        }
+
+        /**
+         * Only the last window starting at or before {@code start} and the first one starting after it can overlap.
+         */
+        private boolean overlaps(final long start, final long end) {
+            final Map.Entry<Long, Long> before = endByStart.floorEntry(start);
+
+            if (before != null && before.getValue() > start) {
+                return true;
+            }
+
+            final Long after = endByStart.higherKey(start);
+
+            return after != null && after < end;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.model.ParkingSpot;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Lock-free queue of free parking spot ids per {@link Segment}, used to hand out a spot without a search.
+ * Spots taken by a regular create stay in their queue until they are polled; {@link ParkingSpotClaims}
+ * rejects them then and they are dropped. A spot that loses its last reservation, by a rollback, a committed
+ * delete or because the reservation ended, is put back into its queue.
+ * The queues only serve reservations from now on without an end; a spot is free for those only when it has no
+ * reservation at all. A reservation window is fitted by walking the spots of a segment instead.
+ */
+@Component
+public class ParkingSpotFreeLists {
+
+    private static final Comparator<Segment> SEGMENT_ORDER = Comparator
+            .comparing(Segment::getFloor)
+            .thenComparing(Segment::getHandicapped);
+
+    private final ParkingSpotClaims parkingSpotClaims;
+
+    private volatile Map<Segment, Queue<Long>> freeLists = Map.of();
+    private volatile Map<Long, Segment> segments = Map.of();
+    private volatile Map<Segment, List<Long>> spotsBySegment = Map.of();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public ParkingSpotFreeLists(final ParkingSpotClaims parkingSpotClaims) {
+        this.parkingSpotClaims = parkingSpotClaims;
+        parkingSpotClaims.addReleaseListener(this::requeue);
+    }
+
+    public void load(final List<ParkingSpot> parkingSpots, final List<Long> takenParkingSpotIds) {
+        final Set<Long> taken = new HashSet<>(takenParkingSpotIds);
+        final Map<Segment, Queue<Long>> loadedFreeLists = new HashMap<>();
+        final Map<Long, Segment> loadedSegments = new HashMap<>(parkingSpots.size() * 2);
+        final Map<Segment, List<Long>> loadedSpotsBySegment = new HashMap<>();
+
+        queued.clear();
+
+        for (final ParkingSpot parkingSpot : parkingSpots) {
+            final Segment segment = new Segment(parkingSpot.getFloor(), parkingSpot.getHandicapped());
+            final Queue<Long> freeList = loadedFreeLists.computeIfAbsent(segment, key -> new ConcurrentLinkedQueue<>());
+            loadedSegments.put(parkingSpot.getId(), segment);
+            loadedSpotsBySegment.computeIfAbsent(segment, key -> new ArrayList<>()).add(parkingSpot.getId());
+
+            if (!taken.contains(parkingSpot.getId())) {
+                freeList.add(parkingSpot.getId());
+                queued.add(parkingSpot.getId());
+            }
+        }
+
+        loadedSpotsBySegment.values().forEach(ids -> ids.sort(Comparator.naturalOrder()));
+
+        segments = loadedSegments;
+        spotsBySegment = loadedSpotsBySegment;
+        freeLists = loadedFreeLists;
+    }
+
+    /**
+     * @return the floor of the spot, or {@code null} when there is no such spot
+     */
+    public Integer floorOf(final Long parkingSpotId) {
+        final Segment segment = segments.get(parkingSpotId);
+        return segment == null ? null : segment.getFloor();
+    }
+
+    /**
+     * Segments matching the preference, lowest floor first and regular spots before handicapped ones.
+     */
+    public List<Segment> segmentsMatching(final Integer floor, final Boolean handicapped) {
+        return freeLists.keySet().stream()
+                .filter(segment -> segment.matches(floor, handicapped))
+                .sorted(SEGMENT_ORDER)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Claims the window of the first spot free in it, from the first segment that has one.
+     *
+     * @return the claimed parking spot id, or {@code null} when none of the segments has a spot free in the window
+     */
+    public Long claimFirstFree(final List<Segment> preferredSegments, final ReservationWindow window) {
+        for (final Segment segment : preferredSegments) {
+            final Long parkingSpotId = window.getEnd() == null
+                    ? claimQueued(segment, window)
+                    : claimAny(segment, window);
+
+            if (parkingSpotId != null) {
+                return parkingSpotId;
+            }
+        }
+
+        return null;
+    }
+
+    private Long claimQueued(final Segment segment, final ReservationWindow window) {
+        final Queue<Long> freeList = freeLists.get(segment);
+
+        if (freeList == null) {
+            return null;
+        }
+
+        Long parkingSpotId;
+        while ((parkingSpotId = freeList.poll()) != null) {
+            queued.remove(parkingSpotId);
+
+            if (parkingSpotClaims.claim(parkingSpotId, window) == ParkingSpotClaims.Result.CLAIMED) {
+                return parkingSpotId;
+            }
+        }
+
+        return null;
+    }
+
+    private Long claimAny(final Segment segment, final ReservationWindow window) {
+        for (final Long parkingSpotId : spotsBySegment.getOrDefault(segment, List.of())) {
+            if (parkingSpotClaims.claim(parkingSpotId, window) == ParkingSpotClaims.Result.CLAIMED) {
+                return parkingSpotId;
+            }
+        }
+
+        return null;
+    }
+
+    private void requeue(final Long parkingSpotId) {
+        final Segment segment = segments.get(parkingSpotId);
+        final Queue<Long> freeList = segment == null ? null : freeLists.get(segment);
+
+        // a spot that only had windows was never polled, so it may still be queued
+        if (freeList != null && queued.add(parkingSpotId)) {
+            freeList.add(parkingSpotId);
+        }
+    }
+}
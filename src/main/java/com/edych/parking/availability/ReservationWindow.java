@@ -0,0 +1,65 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.exception.BadRequestException;
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Half-open time window {@code [start, end)} a parking spot is reserved for, or from {@code start} on without an end
+ * when {@code end} is {@code null}.
+ */
+@Value
+public class ReservationWindow {
+
+    Instant start;
+    Instant end;
+
+    /**
+     * The window a client asked for: whole hours, e.g. an hourly or a daily booking, that have not ended yet.
+     * Without a window the spot is reserved from now on without an end.
+     *
+     * @throws BadRequestException when the window is incomplete, not on whole hours, empty or over
+     */
+    public static ReservationWindow requested(final Instant start, final Instant end) {
+        if (start == null && end == null) {
+            return new ReservationWindow(Instant.now().truncatedTo(ChronoUnit.MILLIS), null);
+        }
+
+        if (start == null || end == null) {
+            throw new BadRequestException("a reservation window needs both a startTime and an endTime");
+        }
+
+        if (!start.truncatedTo(ChronoUnit.HOURS).equals(start) || !end.truncatedTo(ChronoUnit.HOURS).equals(end)) {
+            throw new BadRequestException("a reservation window has to start and end on a full hour");
+        }
+
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("a reservation window has to end after it starts");
+        }
+
+        if (!end.isAfter(Instant.now())) {
+            throw new BadRequestException("a reservation window cannot end in the past");
+        }
+
+        return new ReservationWindow(start, end);
+    }
+
+    public static ReservationWindow of(final ReservationDto reservation) {
+        return new ReservationWindow(reservation.getStartTime(), reservation.getEndTime());
+    }
+
+    public boolean overlaps(final ReservationWindow other) {
+        return startMillis() < other.endMillis() && other.startMillis() < endMillis();
+    }
+
+    long startMillis() {
+        return start.toEpochMilli();
+    }
+
+    long endMillis() {
+        return end == null ? Long.MAX_VALUE : end.toEpochMilli();
+    }
+}
@@ -0,0 +1,22 @@
+package com.edych.parking.availability;
+
+import lombok.Value;
+
+/**
+ * Part of the lot that clients ask for as a whole: one floor, either handicapped or regular spots.
+ */
+@Value
+public class Segment {
+
+    Integer floor;
+    Boolean handicapped;
+
+    /**
+     * @param floor       required floor, or {@code null} for any floor
+     * @param handicapped required handicapped flag, or {@code null} for both
+     */
+    public boolean matches(final Integer floor, final Boolean handicapped) {
+        return (floor == null || floor.equals(this.floor))
+                && (handicapped == null || handicapped.equals(this.handicapped));
+    }
+}
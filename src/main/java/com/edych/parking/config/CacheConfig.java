@@ -0,0 +1,35 @@
+package com.edych.parking.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
+public class CacheConfig {
+
+    public static final String CUSTOMERS = "customers";
+
+    /**
+     * One bounded Caffeine cache per configured spec. Statistics are recorded so that hits, misses and
+     * evictions show up as cache metrics.
+     */
+    @Bean
+    public CacheManager cacheManager(final CacheSpecProperties properties) {
+        final SimpleCacheManager cacheManager = new SimpleCacheManager();
+
+        cacheManager.setCaches(properties.getSpecs().entrySet().stream()
+                .map(spec -> new CaffeineCache(spec.getKey(), Caffeine.from(spec.getValue()).recordStats().build()))
+                .collect(Collectors.toList()));
+
+        return cacheManager;
+    }
+}
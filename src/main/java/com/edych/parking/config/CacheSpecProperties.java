@@ -0,0 +1,17 @@
+package com.edych.parking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caffeine spec per cache name, e.g. {@code parking.cache.specs.customers=maximumSize=10000,expireAfterWrite=10m}.
+ */
+@Data
+@ConfigurationProperties(prefix = "parking.cache")
+public class CacheSpecProperties {
+
+    private Map<String, String> specs = new LinkedHashMap<>();
+}
@@ -0,0 +1,76 @@
+package com.edych.parking.config;
+
+import liquibase.change.custom.CustomSqlChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.DropUniqueConstraintStatement;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changelog change dropping the unique constraints on a single column under whatever name they have, for constraints
+ * created without a name, which H2 names itself ({@code CONSTRAINT_2} and the like).
+ */
+@Getter
+@Setter
+public class DropUniqueConstraintOfColumn implements CustomSqlChange {
+
+    private static final String CONSTRAINTS = "SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.CONSTRAINTS "
+            + "WHERE TABLE_NAME = ? AND COLUMN_LIST = ? AND CONSTRAINT_TYPE = 'UNIQUE'";
+
+    private String tableName;
+    private String columnName;
+
+    @Override
+    public SqlStatement[] generateStatements(final Database database) throws CustomChangeException {
+        final List<SqlStatement> statements = new ArrayList<>();
+
+        try (final PreparedStatement query = ((JdbcConnection) database.getConnection()).prepareStatement(CONSTRAINTS)) {
+            query.setString(1, tableName.toUpperCase());
+            query.setString(2, columnName.toUpperCase());
+
+            try (final ResultSet constraints = query.executeQuery()) {
+                while (constraints.next()) {
+                    statements.add(new DropUniqueConstraintStatement(null, null, tableName, constraints.getString(1)));
+                }
+            }
+        } catch (final DatabaseException | SQLException e) {
+            throw new CustomChangeException("Looking up the unique constraint of " + tableName + "." + columnName + " failed", e);
+        }
+
+        return statements.toArray(new SqlStatement[0]);
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Unique constraint of " + tableName + "." + columnName + " dropped";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(final ResourceAccessor resourceAccessor) {
+        // reads no files
+    }
+
+    @Override
+    public ValidationErrors validate(final Database database) {
+        return new ValidationErrors()
+                .checkRequiredField("tableName", tableName)
+                .checkRequiredField("columnName", columnName);
+    }
+}
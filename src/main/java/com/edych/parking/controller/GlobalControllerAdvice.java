@@ -4,6 +4,9 @@ import com.edych.parking.dto.ExceptionDto;
 import com.edych.parking.exception.BadRequestException;
 import com.edych.parking.exception.ConflictException;
 import com.edych.parking.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,8 +15,14 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalControllerAdvice extends ResponseEntityExceptionHandler {
 
+    static final String CONFLICTS = "parking.conflicts";
+    static final String NOT_FOUNDS = "parking.not.founds";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ExceptionDto> handleBadRequestException(final BadRequestException exception, final WebRequest request) {
         final HttpStatus status = HttpStatus.BAD_REQUEST;
@@ -27,15 +36,30 @@ public class GlobalControllerAdvice extends ResponseEntityExceptionHandler {
     public ResponseEntity<ExceptionDto> handleConflictException(final ConflictException exception, final WebRequest request) {
         final HttpStatus status = HttpStatus.CONFLICT;
 
+        meterRegistry.counter(CONFLICTS, "exception", exception.getClass().getSimpleName()).increment();
+
         final ExceptionDto dto = getDto(status, exception.getMessage());
 
         return new ResponseEntity<>(dto, status);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ExceptionDto> handleDataIntegrityViolationException(final DataIntegrityViolationException exception, final WebRequest request) {
+        final HttpStatus status = HttpStatus.CONFLICT;
+
+        meterRegistry.counter(CONFLICTS, "exception", exception.getClass().getSimpleName()).increment();
+
+        final ExceptionDto dto = getDto(status, "request conflicts with the current state of the resource");
+
+        return new ResponseEntity<>(dto, status);
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ExceptionDto> handleNotFoundException(final NotFoundException exception, final WebRequest request) {
         final HttpStatus status = HttpStatus.NOT_FOUND;
 
+        meterRegistry.counter(NOT_FOUNDS, "resource", exception.getResourceName()).increment();
+
         final ExceptionDto dto = getDto(status, exception.getMessage());
 
         return new ResponseEntity<>(dto, status);
@@ -1,11 +1,19 @@
 package com.edych.parking.controller;
 
+import com.edych.parking.availability.ReservationWindow;
 import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.exception.BadRequestException;
 import com.edych.parking.service.ParkingSpotService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -14,8 +22,46 @@ public class ParkingSpotController {
 
     private final ParkingSpotService parkingSpotService;
 
+    /**
+     * The ETag is the availability version of the requested floor or of the whole lot. It is read before the spots,
+     * and a matching {@code If-None-Match} is answered with 304 without reading them at all.
+     * With {@code startTime} and {@code endTime} only the spots free in that window are returned, otherwise the
+     * spots without any current or future reservation.
+     */
     @GetMapping("/parking-spot/available")
-    public List<ParkingSpotDto> getAllAvailable() {
-        return parkingSpotService.getAllAvailable();
+    public List<ParkingSpotDto> getAllAvailable(@RequestParam(required = false) final Integer floor,
+                                                @RequestParam(required = false) final Boolean handicapped,
+                                                @RequestParam(required = false) final Integer limit,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant startTime,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant endTime,
+                                                final WebRequest request) {
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("limit has to be greater than 0");
+        }
+
+        final ReservationWindow window = startTime == null && endTime == null
+                ? null
+                : ReservationWindow.requested(startTime, endTime);
+
+        if (request.checkNotModified("\"" + parkingSpotService.getAvailabilityVersion(floor) + "\"")) {
+            return null;
+        }
+
+        final int max = limit == null ? Integer.MAX_VALUE : limit;
+
+        if (window != null) {
+            return parkingSpotService.getAvailable(floor, handicapped, max, window);
+        }
+
+        if (floor == null && handicapped == null && limit == null) {
+            return parkingSpotService.getAllAvailable();
+        }
+
+        return parkingSpotService.getAvailable(floor, handicapped, max);
+    }
+
+    @GetMapping(value = "/parking-spot/available/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailable() {
+        return parkingSpotService.streamAvailable();
     }
 }
@@ -1,28 +1,99 @@
 package com.edych.parking.controller;
 
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationBatchResultDto;
+import com.edych.parking.dto.ReservationDeleteResultDto;
 import com.edych.parking.dto.ReservationDto;
 import com.edych.parking.exception.BadRequestException;
+import com.edych.parking.hold.HoldService;
+import com.edych.parking.idempotency.IdempotencyService;
 import com.edych.parking.service.ReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class ReservationController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final ReservationService reservationService;
+    private final IdempotencyService idempotencyService;
+    private final HoldService holdService;
+    private final ObjectMapper objectMapper;
 
-    @ResponseStatus(HttpStatus.CREATED)
+    /**
+     * With an {@code Idempotency-Key} a retried request gets the response of the first one, marked with
+     * {@code Idempotent-Replayed: true}, instead of creating or conflicting again.
+     */
     @PostMapping("/reservation")
-    public ReservationDto create(@RequestBody final ReservationDto dto) {
+    public ResponseEntity<ReservationDto> create(@RequestBody final ReservationDto dto,
+                                                 @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final String idempotencyKey) {
         if (dto.getId() != null) {
             throw new BadRequestException("a request to create a new Reservation cannot have an id");
         }
 
-        return reservationService.create(dto);
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.create(dto));
+        }
+
+        final IdempotencyService.Result<ReservationDto> result = idempotencyService.execute(idempotencyKey, dto,
+                ReservationDto.class, () -> reservationService.create(dto));
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.isReplayed()))
+                .body(result.getResponse());
+    }
+
+    /**
+     * Holds the spot for {@code parking.holds.ttl}; the hold is released on its own unless it is confirmed by then.
+     */
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/reservation/hold")
+    public ReservationDto hold(@RequestBody final ReservationDto dto) {
+        if (dto.getId() != null) {
+            throw new BadRequestException("a request to create a new Reservation cannot have an id");
+        }
+
+        return holdService.hold(dto);
+    }
+
+    @PostMapping("/reservation/{id}/confirm")
+    public ReservationDto confirm(@PathVariable final Long id) {
+        return holdService.confirm(id);
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/reservation/auto")
+    public ReservationDto createAuto(@RequestBody final AutoReservationDto dto) {
+        if (dto.getCustomerId() == null) {
+            throw new BadRequestException("a request to reserve any parking spot needs a customerId");
+        }
+
+        return reservationService.createAuto(dto);
+    }
+
+    @PostMapping("/reservations/batch")
+    public List<ReservationBatchResultDto> createAll(@RequestBody final List<ReservationDto> dtos) {
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException(String.format("a batch cannot contain more than %s reservations", MAX_BATCH_SIZE));
+        }
+
+        return reservationService.createAll(dtos);
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -31,8 +102,57 @@ public class ReservationController {
         reservationService.deleteById(id);
     }
 
+    /**
+     * Releases all reservations of a customer or of a floor at once.
+     */
+    @DeleteMapping("/reservations")
+    public ReservationDeleteResultDto deleteAll(@RequestParam(required = false) final Long customerId,
+                                                @RequestParam(required = false) final Integer floor) {
+        if ((customerId == null) == (floor == null)) {
+            throw new BadRequestException("either a customerId or a floor has to be given");
+        }
+
+        final int deleted = customerId != null
+                ? reservationService.deleteAllByCustomerId(customerId)
+                : reservationService.deleteAllByFloor(floor);
+
+        return ReservationDeleteResultDto.builder()
+                .deleted(deleted)
+                .build();
+    }
+
     @GetMapping("/reservations")
-    public List<ReservationDto> getAllByCustomerId(@RequestParam final Long customerId) {
-        return reservationService.getAllByCustomerId(customerId);
+    public List<ReservationDto> getAllByCustomerId(@RequestParam final Long customerId,
+                                                   @RequestParam(required = false) final Long after,
+                                                   @RequestParam(required = false) final Integer limit) {
+        if (after == null && limit == null) {
+            return reservationService.getAllByCustomerId(customerId);
+        }
+
+        final int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("limit has to be between 1 and %s", MAX_PAGE_SIZE));
+        }
+
+        return reservationService.getPageByCustomerId(customerId, after == null ? 0L : after, pageSize);
+    }
+
+    @GetMapping(value = "/reservations/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllByCustomerId(@RequestParam final Long customerId) {
+        reservationService.verifyCustomerExists(customerId);
+
+        final StreamingResponseBody body = outputStream -> reservationService.streamAllByCustomerId(customerId, dto -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(dto));
+                outputStream.write('\n');
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
@@ -0,0 +1,21 @@
+package com.edych.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoReservationDto {
+
+    private Long customerId;
+    private List<SpotPreferenceDto> preferences;
+    private Instant startTime;
+    private Instant endTime;
+}
@@ -0,0 +1,21 @@
+package com.edych.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDeltaDto {
+
+    public enum Type {
+        TAKEN,
+        FREED
+    }
+
+    private Type type;
+    private Long parkingSpotId;
+}
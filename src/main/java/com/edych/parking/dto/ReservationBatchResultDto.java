@@ -0,0 +1,21 @@
+package com.edych.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchResultDto {
+
+    public enum Status {
+        CREATED, CONFLICT, NOT_FOUND, BAD_REQUEST
+    }
+
+    private Status status;
+    private String message;
+    private ReservationDto reservation;
+}
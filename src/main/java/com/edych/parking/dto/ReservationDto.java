@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,4 +16,7 @@ public class ReservationDto {
     private Long id;
     private Long customerId;
     private Long parkingSpotId;
+    private Instant startTime;
+    private Instant endTime;
+    private Instant holdExpiresAt;
 }
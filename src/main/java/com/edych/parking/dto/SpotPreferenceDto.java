@@ -0,0 +1,16 @@
+package com.edych.parking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotPreferenceDto {
+
+    private Integer floor;
+    private Boolean handicapped;
+}
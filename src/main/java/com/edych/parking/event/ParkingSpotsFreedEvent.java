@@ -0,0 +1,14 @@
+package com.edych.parking.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Parking spots that have no current or future reservation any more, after a delete or once their last window ended.
+ */
+@Value
+public class ParkingSpotsFreedEvent {
+
+    List<Long> parkingSpotIds;
+}
@@ -0,0 +1,12 @@
+package com.edych.parking.event;
+
+import com.edych.parking.dto.ReservationDto;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ReservationsDeletedEvent {
+
+    List<ReservationDto> reservations;
+}
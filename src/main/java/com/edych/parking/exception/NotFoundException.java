@@ -1,8 +1,14 @@
 package com.edych.parking.exception;
 
+import lombok.Getter;
+
+@Getter
 public class NotFoundException extends RuntimeException {
 
+    private final String resourceName;
+
     public NotFoundException(final String resourceName, final Long id) {
         super(String.format("Resource [%s] with id [%s] does not exist.", resourceName, id));
+        this.resourceName = resourceName;
     }
 }
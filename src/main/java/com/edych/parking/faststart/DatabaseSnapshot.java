@@ -0,0 +1,121 @@
+package com.edych.parking.faststart;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Image of the database right after the changelog has run: an H2 {@code SCRIPT} of the schema and the seed data,
+ * including Liquibase's own tables, and a manifest with the SHA-256 of the script and of the changelog files it was
+ * built from.
+ */
+public final class DatabaseSnapshot {
+
+    public static final String SCRIPT = "parking.sql";
+    public static final String MANIFEST = "parking.properties";
+
+    static final String SCRIPT_CHECKSUM = "script.sha256";
+    static final String CHANGELOG_CHECKSUM = "changelog.sha256";
+
+    private static final String CHANGELOG_DIRECTORY = "db/changelog/";
+    private static final String CHANGELOG_FILES = "classpath*:" + CHANGELOG_DIRECTORY + "**/*";
+
+    private DatabaseSnapshot() {
+    }
+
+    /**
+     * Runs the changelog against the data source and writes the script and its manifest to the directory.
+     */
+    public static void write(final DataSource dataSource, final ResourcePatternResolver resolver, final String changeLog,
+                             final Path directory) throws IOException, LiquibaseException {
+        runChangeLog(dataSource, resolver, changeLog);
+
+        Files.createDirectories(directory);
+        final Path script = directory.resolve(SCRIPT);
+        new JdbcTemplate(dataSource).execute("SCRIPT TO '" + script.toAbsolutePath().toString().replace("'", "''") + "'");
+
+        final Properties manifest = new Properties();
+        manifest.setProperty(SCRIPT_CHECKSUM, sha256(Files.readAllBytes(script)));
+        manifest.setProperty(CHANGELOG_CHECKSUM, changelogChecksum(resolver));
+
+        try (final OutputStream outputStream = Files.newOutputStream(directory.resolve(MANIFEST))) {
+            manifest.store(outputStream, "Database snapshot built from " + changeLog);
+        }
+    }
+
+    /**
+     * Runs the changelog like the Liquibase auto-configuration does; changesets that already ran are skipped.
+     */
+    public static void runChangeLog(final DataSource dataSource, final ResourcePatternResolver resolver,
+                                    final String changeLog) throws LiquibaseException {
+        final SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(resolver);
+        liquibase.setChangeLog(changeLog);
+        liquibase.afterPropertiesSet();
+    }
+
+    /**
+     * Covers the path below {@code db/changelog/} and the content of every changelog file, so the checksum is the same
+     * whether the files are read from a directory or from a jar.
+     */
+    static String changelogChecksum(final ResourcePatternResolver resolver) throws IOException {
+        final Map<String, Resource> filesByPath = new TreeMap<>();
+
+        for (final Resource resource : resolver.getResources(CHANGELOG_FILES)) {
+            if (resource.isReadable()) {
+                final String url = resource.getURL().toString();
+                filesByPath.put(url.substring(url.lastIndexOf(CHANGELOG_DIRECTORY)), resource);
+            }
+        }
+
+        final MessageDigest digest = sha256();
+
+        for (final Map.Entry<String, Resource> file : filesByPath.entrySet()) {
+            digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+
+            try (final InputStream inputStream = file.getValue().getInputStream()) {
+                digest.update(inputStream.readAllBytes());
+            }
+        }
+
+        return hex(digest.digest());
+    }
+
+    static String sha256(final byte[] content) {
+        return hex(sha256().digest(content));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+        for (final byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.edych.parking.faststart;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * With the {@code faststart} profile the database is restored from the snapshot instead of running the changelog,
+ * see {@code application-faststart.properties}, and beans that no request needs at once, like the OpenAPI UI, are
+ * created on first use.
+ */
+@Configuration
+@Profile("faststart")
+@EnableConfigurationProperties(FastStartProperties.class)
+public class FastStartConfig {
+
+    @Bean
+    public SnapshotRestorer snapshotRestorer(final DataSource dataSource, final ResourceLoader resourceLoader,
+                                             final FastStartProperties properties, final Environment environment) {
+        return new SnapshotRestorer(dataSource, ResourcePatternUtils.getResourcePatternResolver(resourceLoader), properties,
+                environment.getRequiredProperty("spring.liquibase.change-log"));
+    }
+
+    /**
+     * Runs before any configuration properties are bound, so its packages are bound here.
+     */
+    @Bean
+    public static LazyPackagesPostProcessor lazyPackagesPostProcessor(final Environment environment) {
+        return new LazyPackagesPostProcessor(Binder.get(environment)
+                .bind("parking.fast-start", FastStartProperties.class)
+                .orElseGet(FastStartProperties::new)
+                .getLazyPackages());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "parking.fast-start", name = "training-run", havingValue = "true")
+    public TrainingRun trainingRun() {
+        return new TrainingRun();
+    }
+}
@@ -0,0 +1,31 @@
+package com.edych.parking.faststart;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "parking.fast-start")
+public class FastStartProperties {
+
+    /**
+     * H2 script restored instead of running the changelog, built by the {@code faststart} Maven profile.
+     */
+    private String snapshot = "classpath:db/snapshot/" + DatabaseSnapshot.SCRIPT;
+
+    /**
+     * Checksums of the snapshot and of the changelog it was built from; the changelog runs when either does not match.
+     */
+    private String manifest = "classpath:db/snapshot/" + DatabaseSnapshot.MANIFEST;
+
+    /**
+     * Beans declared by classes of these packages are created on first use instead of at startup.
+     */
+    private List<String> lazyPackages = List.of("org.springdoc");
+
+    /**
+     * Serves one request to the application itself and exits, to record the classes for the class data sharing archive.
+     */
+    private boolean trainingRun;
+}
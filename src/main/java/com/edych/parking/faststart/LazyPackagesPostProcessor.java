@@ -0,0 +1,44 @@
+package com.edych.parking.faststart;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * Marks the beans declared by classes of the given packages lazy, whether they are components or {@code @Bean}
+ * methods, so they are created on first use. Controllers among them are still mapped at startup.
+ */
+@RequiredArgsConstructor
+public class LazyPackagesPostProcessor implements BeanFactoryPostProcessor {
+
+    private final List<String> packages;
+
+    @Override
+    public void postProcessBeanFactory(final ConfigurableListableBeanFactory beanFactory) {
+        for (final String name : beanFactory.getBeanDefinitionNames()) {
+            final BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            final String declaringClassName = declaringClassName(definition);
+
+            if (declaringClassName != null && packages.stream().anyMatch(lazyPackage -> declaringClassName.startsWith(lazyPackage + "."))) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private static String declaringClassName(final BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition) {
+            final MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+
+        return definition.getBeanClassName();
+    }
+}
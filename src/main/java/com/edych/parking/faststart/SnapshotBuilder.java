@@ -0,0 +1,28 @@
+package com.edych.parking.faststart;
+
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Builds the {@link DatabaseSnapshot} into the classes of the {@code faststart} Maven profile:
+ * {@code SnapshotBuilder <output directory> <changelog>}. The changelog has to be given as
+ * {@code spring.liquibase.change-log} is, because Liquibase records the changesets by that path.
+ */
+public class SnapshotBuilder {
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("expected the output directory and the changelog as arguments");
+        }
+
+        final Path directory = Paths.get(args[0]);
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1", "sa", "");
+
+        DatabaseSnapshot.write(dataSource, new PathMatchingResourcePatternResolver(), args[1], directory);
+
+        System.out.printf("Database snapshot written to %s%n", directory.toAbsolutePath());
+    }
+}
@@ -0,0 +1,105 @@
+package com.edych.parking.faststart;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Initializes an empty database from the {@link DatabaseSnapshot} instead of running the changelog. The script is
+ * only restored when it matches the checksum in its manifest and was built from the changelog on the classpath;
+ * otherwise, or when the database already has a schema, the changelog runs as it would without the snapshot.
+ * Registered as a database initializer, so JPA and the JDBC template are only created after it.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SnapshotRestorer implements InitializingBean {
+
+    private final DataSource dataSource;
+    private final ResourcePatternResolver resolver;
+    private final FastStartProperties properties;
+    private final String changeLog;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        final long start = System.nanoTime();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        if (hasSchema(jdbcTemplate)) {
+            log.info("Database already has a schema, running the changelog instead of restoring the snapshot");
+            DatabaseSnapshot.runChangeLog(dataSource, resolver, changeLog);
+            return;
+        }
+
+        final Optional<byte[]> script = readValidScript();
+
+        if (script.isEmpty()) {
+            DatabaseSnapshot.runChangeLog(dataSource, resolver, changeLog);
+            return;
+        }
+
+        restore(jdbcTemplate, script.get());
+        log.info("Restored database snapshot {} in {} ms", properties.getSnapshot(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Optional<byte[]> readValidScript() throws IOException {
+        final Resource scriptResource = resolver.getResource(properties.getSnapshot());
+        final Resource manifestResource = resolver.getResource(properties.getManifest());
+
+        if (!scriptResource.exists() || !manifestResource.exists()) {
+            log.warn("No database snapshot at {}, running the changelog", properties.getSnapshot());
+            return Optional.empty();
+        }
+
+        final Properties manifest = PropertiesLoaderUtils.loadProperties(manifestResource);
+        final byte[] script;
+
+        try (final InputStream inputStream = scriptResource.getInputStream()) {
+            script = inputStream.readAllBytes();
+        }
+
+        if (!DatabaseSnapshot.sha256(script).equals(manifest.getProperty(DatabaseSnapshot.SCRIPT_CHECKSUM))) {
+            log.warn("Database snapshot {} does not match the checksum of its manifest, running the changelog", properties.getSnapshot());
+            return Optional.empty();
+        }
+
+        if (!DatabaseSnapshot.changelogChecksum(resolver).equals(manifest.getProperty(DatabaseSnapshot.CHANGELOG_CHECKSUM))) {
+            log.warn("Database snapshot {} was built from a different changelog, running the changelog", properties.getSnapshot());
+            return Optional.empty();
+        }
+
+        return Optional.of(script);
+    }
+
+    /**
+     * The verified bytes are run from a file of their own, so the script cannot change between the check and the restore.
+     */
+    private static void restore(final JdbcTemplate jdbcTemplate, final byte[] script) throws IOException {
+        final Path file = Files.createTempFile("parking-snapshot", ".sql");
+
+        try {
+            Files.write(file, script);
+            jdbcTemplate.execute("RUNSCRIPT FROM '" + file.toAbsolutePath().toString().replace("'", "''") + "'");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static boolean hasSchema(final JdbcTemplate jdbcTemplate) {
+        final Long tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = 'DATABASECHANGELOG'", Long.class);
+
+        return tables != null && tables > 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.edych.parking.faststart;
+
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+
+import java.util.Set;
+
+/**
+ * Makes the beans that use the database, such as the entity manager factory, wait for the {@link SnapshotRestorer}
+ * like they wait for Liquibase.
+ */
+class SnapshotRestorerDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(SnapshotRestorer.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.edych.parking.faststart;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Run of the application that records the classes for the class data sharing archive: once it is ready it serves
+ * one request to itself, so the classes of the first request are archived too, and exits.
+ */
+@Slf4j
+class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String PATH = "/parking-spot/available";
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        final int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+
+        try {
+            final HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            log.info("Training run got {} for {}, exiting", response.statusCode(), PATH);
+        } catch (final IOException e) {
+            log.warn("Training run request failed, exiting", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
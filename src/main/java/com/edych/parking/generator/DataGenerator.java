@@ -0,0 +1,93 @@
+package com.edych.parking.generator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Replaces all customers, parking spots and reservations with a synthetic lot.
+ * Rows are produced by {@code INSERT ... SELECT} over H2's {@code SYSTEM_RANGE}, so none of them travel over JDBC.
+ * Each statement covers {@link #CHUNK_SIZE} rows, because H2 slows down on very large single statements, and ids are
+ * left to the identity columns, because H2 also slows down on explicit values for them.
+ * There is no database to generate into with the {@code memory} profile.
+ */
+@Component
+@Profile("!memory")
+@RequiredArgsConstructor
+public class DataGenerator {
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    /**
+     * Has to match the allocationSize of Reservation.id; the pooled optimizer hands out the ids below a sequence value.
+     */
+    private static final int RESERVATION_ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public Result generate(final DataGeneratorProperties properties) {
+        validate(properties);
+
+        final long parkingSpots = (long) properties.getFloors() * properties.getSpotsPerFloor();
+        final long handicappedPerFloor = Math.round(properties.getSpotsPerFloor() * properties.getHandicappedRatio());
+
+        for (final String table : List.of("reservation", "parking_spot", "customer")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH 1");
+        }
+
+        // ids are handed out in SYSTEM_RANGE order, so the id of every generated row equals its X
+        for (long from = 1; from <= properties.getCustomers(); from += CHUNK_SIZE) {
+            jdbcTemplate.update("INSERT INTO customer (name) SELECT CONCAT('customer-', X) FROM SYSTEM_RANGE(?, ?)",
+                    from, Math.min(from + CHUNK_SIZE - 1, properties.getCustomers()));
+        }
+
+        for (long from = 1; from <= parkingSpots; from += CHUNK_SIZE) {
+            jdbcTemplate.update("INSERT INTO parking_spot (number, floor, handicapped) "
+                            + "SELECT MOD(X - 1, ?) + 1, (X - 1) / ? + 1, MOD(X - 1, ?) < ? FROM SYSTEM_RANGE(?, ?)",
+                    properties.getSpotsPerFloor(), properties.getSpotsPerFloor(), properties.getSpotsPerFloor(),
+                    handicappedPerFloor, from, Math.min(from + CHUNK_SIZE - 1, parkingSpots));
+        }
+
+        long reservations = 0;
+        if (properties.getCustomers() > 0) {
+            // RAND(seed) seeds the session generator, later RAND() calls in this transaction follow it
+            jdbcTemplate.queryForObject("SELECT RAND(?)", Double.class, properties.getSeed());
+
+            for (long from = 1; from <= parkingSpots; from += CHUNK_SIZE) {
+                reservations += jdbcTemplate.update("INSERT INTO reservation (customer_id, parking_spot_id) "
+                                + "SELECT CAST(FLOOR(RAND() * ?) AS BIGINT) + 1, id FROM parking_spot "
+                                + "WHERE id BETWEEN ? AND ? AND RAND() < ? ORDER BY id",
+                        properties.getCustomers(), from, from + CHUNK_SIZE - 1, properties.getOccupancy());
+            }
+        }
+
+        jdbcTemplate.execute("ALTER SEQUENCE reservation_seq RESTART WITH " + (reservations + RESERVATION_ID_ALLOCATION_SIZE));
+
+        return new Result(properties.getCustomers(), parkingSpots, handicappedPerFloor * properties.getFloors(), reservations);
+    }
+
+    private static void validate(final DataGeneratorProperties properties) {
+        if (properties.getFloors() < 0 || properties.getSpotsPerFloor() < 0 || properties.getCustomers() < 0) {
+            throw new IllegalArgumentException("floors, spotsPerFloor and customers must not be negative");
+        }
+        if (properties.getOccupancy() < 0 || properties.getOccupancy() > 1
+                || properties.getHandicappedRatio() < 0 || properties.getHandicappedRatio() > 1) {
+            throw new IllegalArgumentException("occupancy and handicappedRatio must be between 0 and 1");
+        }
+    }
+
+    @Value
+    public static class Result {
+        long customers;
+        long parkingSpots;
+        long handicappedParkingSpots;
+        long reservations;
+    }
+}
@@ -0,0 +1,30 @@
+package com.edych.parking.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Shape of the lot created by {@link DataGenerator}.
+ */
+@Data
+@ConfigurationProperties(prefix = "parking.generator")
+public class DataGeneratorProperties {
+
+    private int floors = 10;
+
+    private int spotsPerFloor = 1000;
+
+    private int customers = 10000;
+
+    /**
+     * Share of parking spots that already have a reservation.
+     */
+    private double occupancy = 0.6;
+
+    /**
+     * Share of parking spots on each floor that are handicapped; those are the lowest numbers on the floor.
+     */
+    private double handicappedRatio = 0.05;
+
+    private long seed = 42;
+}
@@ -0,0 +1,44 @@
+package com.edych.parking.generator;
+
+import com.edych.parking.availability.AvailabilityLoader;
+import com.edych.parking.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * With the {@code generator} profile the seed data is replaced by a generated lot before the application reports
+ * readiness, e.g. {@code --spring.profiles.active=generator --parking.generator.floors=100}.
+ */
+@Slf4j
+@Component
+@Profile("generator")
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private final DataGenerator dataGenerator;
+    private final DataGeneratorProperties properties;
+    private final AvailabilityLoader availabilityLoader;
+    private final CacheManager cacheManager;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        final long start = System.nanoTime();
+        final DataGenerator.Result result = dataGenerator.generate(properties);
+        log.info("Generated {} in {} ms", result, (System.nanoTime() - start) / 1_000_000);
+
+        final long reloadStart = System.nanoTime();
+        availabilityLoader.load();
+        Optional.ofNullable(cacheManager.getCache(CacheConfig.CUSTOMERS)).ifPresent(Cache::clear);
+        log.info("Reloaded availability in {} ms", (System.nanoTime() - reloadStart) / 1_000_000);
+    }
+}
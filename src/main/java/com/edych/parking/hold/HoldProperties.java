@@ -0,0 +1,32 @@
+package com.edych.parking.hold;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "parking.holds")
+public class HoldProperties {
+
+    /**
+     * How long a spot is held until the hold is confirmed or released.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Resolution of the expiry: a hold is released at most one tick after it expired.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Buckets of the timing wheel, rounded up to a power of two. Holds that expire further ahead than a revolution
+     * of the wheel are visited once per revolution until they are due.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Expired holds deleted by a single statement.
+     */
+    private int batchSize = 1000;
+}
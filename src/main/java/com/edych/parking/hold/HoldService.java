@@ -0,0 +1,88 @@
+package com.edych.parking.hold;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.repository.ReservationRepository;
+import com.edych.parking.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Short-lived reservations that hold a spot, e.g. while the customer pays, and are released on their own unless they
+ * are confirmed in time. Deadlines are kept in a {@link HoldTimingWheel}; every tick the due holds are deleted in
+ * batches of single statements, and the deletes free their spots in the availability structures right away.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(HoldProperties.class)
+public class HoldService {
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final HoldProperties properties;
+    private final HoldTimingWheel timingWheel;
+
+    public HoldService(final ReservationService reservationService, final ReservationRepository reservationRepository,
+                       final HoldProperties properties) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.properties = properties;
+        this.timingWheel = new HoldTimingWheel(properties.getTick().toMillis(), properties.getWheelSize(), System.currentTimeMillis());
+    }
+
+    /**
+     * Picks up the holds still pending from before a restart; the ones that expired meanwhile go with the first tick.
+     */
+    @PostConstruct
+    public void load() {
+        reservationRepository.findAllDtoHeld()
+                .forEach(hold -> timingWheel.schedule(hold.getId(), hold.getHoldExpiresAt().toEpochMilli()));
+    }
+
+    public ReservationDto hold(final ReservationDto dto) {
+        final Instant expiresAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).plus(properties.getTtl());
+        final ReservationDto held = reservationService.createHold(dto, expiresAt);
+
+        timingWheel.schedule(held.getId(), expiresAt.toEpochMilli());
+
+        return held;
+    }
+
+    public ReservationDto confirm(final Long id) {
+        final ReservationDto confirmed = reservationService.confirmHold(id);
+
+        timingWheel.cancel(id);
+
+        return confirmed;
+    }
+
+    public int getPendingCount() {
+        return timingWheel.size();
+    }
+
+    @Scheduled(fixedDelayString = "${parking.holds.tick:PT1S}")
+    public void releaseExpired() {
+        releaseExpired(Instant.now());
+    }
+
+    void releaseExpired(final Instant now) {
+        final List<Long> due = timingWheel.advance(now.toEpochMilli());
+
+        for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+            final List<Long> batch = due.subList(from, Math.min(from + properties.getBatchSize(), due.size()));
+
+            try {
+                reservationService.deleteExpiredHolds(batch, now);
+            } catch (final RuntimeException e) {
+                log.warn("Releasing {} expired holds failed, retrying with the next tick", batch.size(), e);
+                batch.forEach(id -> timingWheel.schedule(id, now.toEpochMilli()));
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.edych.parking.hold;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of hold deadlines. Time is cut into ticks and a hold goes into the bucket of its deadline tick
+ * modulo the wheel size, so scheduling and cancelling are O(1) and each tick only visits the holds in one bucket,
+ * however many holds are pending. A bucket can hold deadlines of several revolutions; the ones not due yet stay in it.
+ */
+class HoldTimingWheel {
+
+    private final long tickMillis;
+    private final ArrayDeque<Long>[] buckets;
+    private final int mask;
+
+    /**
+     * Deadline tick by hold id; a hold missing here was cancelled and is dropped from its bucket when visited.
+     */
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    private long currentTick;
+
+    /**
+     * @param wheelSize buckets of the wheel, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    HoldTimingWheel(final long tickMillis, final int wheelSize, final long nowMillis) {
+        final int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayDeque[size];
+        this.mask = size - 1;
+        this.currentTick = nowMillis / tickMillis;
+
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * A deadline that has already passed expires with the next tick.
+     */
+    synchronized void schedule(final Long holdId, final long deadlineMillis) {
+        final long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+
+        if (deadlines.put(holdId, deadlineTick) == null) {
+            buckets[(int) (deadlineTick & mask)].add(holdId);
+        }
+    }
+
+    synchronized void cancel(final Long holdId) {
+        deadlines.remove(holdId);
+    }
+
+    synchronized int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}. When it fell behind by a revolution or more, every bucket is visited once.
+     *
+     * @return ids of the holds that are due, in no particular order
+     */
+    synchronized List<Long> advance(final long nowMillis) {
+        final long nowTick = nowMillis / tickMillis;
+        final List<Long> due = new ArrayList<>();
+
+        for (long tick = Math.max(currentTick + 1, nowTick - mask); tick <= nowTick; tick++) {
+            final ArrayDeque<Long> bucket = buckets[(int) (tick & mask)];
+
+            for (int remaining = bucket.size(); remaining > 0; remaining--) {
+                final Long holdId = bucket.poll();
+                final Long deadlineTick = deadlines.get(holdId);
+
+                if (deadlineTick == null) {
+                    continue;
+                }
+
+                if (deadlineTick <= nowTick) {
+                    deadlines.remove(holdId);
+                    due.add(holdId);
+                } else {
+                    bucket.add(holdId);
+                }
+            }
+        }
+
+        currentTick = Math.max(currentTick, nowTick);
+
+        return due;
+    }
+}
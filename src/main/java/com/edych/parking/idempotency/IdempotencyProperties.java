@@ -0,0 +1,37 @@
+package com.edych.parking.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "parking.idempotency")
+public class IdempotencyProperties {
+
+    public enum Store {
+        MEMORY,
+        JDBC
+    }
+
+    /**
+     * {@code memory} keeps keys in this instance only, {@code jdbc} shares them between instances through the database.
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * How long a key is remembered after its first use.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a key stays claimed by a request that has not completed yet. Once it is over, a retry runs the request
+     * again, so a request that died without freeing its key blocks its retries for this long instead of the whole ttl.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * Keys kept by the {@code memory} store before the least recently used are evicted.
+     */
+    private long maximumSize = 100_000;
+}
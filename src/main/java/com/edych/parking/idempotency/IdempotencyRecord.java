@@ -0,0 +1,21 @@
+package com.edych.parking.idempotency;
+
+import lombok.Value;
+
+/**
+ * A request seen under an idempotency key, as JSON, and its response once it has completed.
+ */
+@Value
+public class IdempotencyRecord {
+
+    String request;
+
+    /**
+     * {@code null} while the first request with the key is still running.
+     */
+    String response;
+
+    public boolean isCompleted() {
+        return response != null;
+    }
+}
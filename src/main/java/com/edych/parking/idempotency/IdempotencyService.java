@@ -0,0 +1,84 @@
+package com.edych.parking.idempotency;
+
+import com.edych.parking.exception.BadRequestException;
+import com.edych.parking.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request once per idempotency key. A repeated request gets the stored response without running again;
+ * only successful responses are stored, a failed request frees its key for the retry.
+ */
+@Service
+@RequiredArgsConstructor
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    public <T> Result<T> execute(final String key, final Object request, final Class<T> responseType, final Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(String.format("Idempotency-Key has to have between 1 and %s characters", MAX_KEY_LENGTH));
+        }
+
+        final String requestJson = toJson(request);
+        final Optional<IdempotencyRecord> existing = idempotencyStore.reserve(key, requestJson);
+
+        if (existing.isPresent()) {
+            return replay(key, requestJson, existing.get(), responseType);
+        }
+
+        final T response;
+        try {
+            response = action.get();
+        } catch (final RuntimeException e) {
+            idempotencyStore.release(key);
+            throw e;
+        }
+
+        idempotencyStore.complete(key, requestJson, toJson(response));
+
+        return new Result<>(response, false);
+    }
+
+    private <T> Result<T> replay(final String key, final String requestJson, final IdempotencyRecord record, final Class<T> responseType) {
+        if (!record.getRequest().equals(requestJson)) {
+            throw new ConflictException(String.format("Idempotency-Key [%s] was already used for a different request", key));
+        }
+
+        if (!record.isCompleted()) {
+            throw new ConflictException(String.format("A request with Idempotency-Key [%s] is still in progress", key));
+        }
+
+        try {
+            return new Result<>(objectMapper.readValue(record.getResponse(), responseType), true);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(final Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    public static class Result<T> {
+        T response;
+        boolean replayed;
+    }
+}
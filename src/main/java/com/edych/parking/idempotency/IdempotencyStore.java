@@ -0,0 +1,20 @@
+package com.edych.parking.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    /**
+     * Atomically claims the key for the request.
+     *
+     * @return empty when the key was free and is now claimed, otherwise the record already held under the key
+     */
+    Optional<IdempotencyRecord> reserve(String key, String request);
+
+    void complete(String key, String request, String response);
+
+    /**
+     * Frees a claimed key, so that a retry runs the request again.
+     */
+    void release(String key);
+}
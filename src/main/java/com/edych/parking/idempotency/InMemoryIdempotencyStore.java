@@ -0,0 +1,67 @@
+package com.edych.parking.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(prefix = "parking.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(final IdempotencyProperties properties) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(expiry(properties))
+                .build();
+    }
+
+    /**
+     * In-progress records expire after the lease, completed ones after the ttl counted from their completion.
+     */
+    private static Expiry<String, IdempotencyRecord> expiry(final IdempotencyProperties properties) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(final String key, final IdempotencyRecord record, final long currentTime) {
+                return lifetime(record).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(final String key, final IdempotencyRecord record, final long currentTime,
+                                          final long currentDuration) {
+                return lifetime(record).toNanos();
+            }
+
+            @Override
+            public long expireAfterRead(final String key, final IdempotencyRecord record, final long currentTime,
+                                        final long currentDuration) {
+                return currentDuration;
+            }
+
+            private Duration lifetime(final IdempotencyRecord record) {
+                return record.isCompleted() ? properties.getTtl() : properties.getLease();
+            }
+        };
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(final String key, final String request) {
+        return Optional.ofNullable(records.asMap().putIfAbsent(key, new IdempotencyRecord(request, null)));
+    }
+
+    @Override
+    public void complete(final String key, final String request, final String response) {
+        records.put(key, new IdempotencyRecord(request, response));
+    }
+
+    @Override
+    public void release(final String key) {
+        records.invalidate(key);
+    }
+}
@@ -0,0 +1,76 @@
+package com.edych.parking.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Keys in the {@code idempotency_key} table, so that a retry landing on another instance is recognised too.
+ * Statements run outside of any reservation transaction, so a claim is visible to other instances at once.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "parking.idempotency", name = "store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    /**
+     * Completed keys past the ttl and in-progress ones past the lease.
+     */
+    private static final String EXPIRED = "(created_at < ? OR (response IS NULL AND created_at < ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(final String key, final String request) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE id = ? AND " + EXPIRED, key, expiredBefore(), leaseExpiredBefore());
+
+        while (true) {
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_key (id, request, created_at) VALUES (?, ?, ?)",
+                        key, request, Timestamp.from(Instant.now()));
+                return Optional.empty();
+            } catch (final DuplicateKeyException e) {
+                final Optional<IdempotencyRecord> existing = jdbcTemplate.query(
+                        "SELECT request, response FROM idempotency_key WHERE id = ?",
+                        (rs, rowNum) -> new IdempotencyRecord(rs.getString("request"), rs.getString("response")),
+                        key).stream().findFirst();
+
+                // released in between, so try to claim it again
+                if (existing.isPresent()) {
+                    return existing;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void complete(final String key, final String request, final String response) {
+        jdbcTemplate.update("UPDATE idempotency_key SET response = ? WHERE id = ?", response, key);
+    }
+
+    @Override
+    public void release(final String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE id = ?", key);
+    }
+
+    @Scheduled(fixedDelayString = "${parking.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE " + EXPIRED, expiredBefore(), leaseExpiredBefore());
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.from(Instant.now().minus(properties.getTtl()));
+    }
+
+    private Timestamp leaseExpiredBefore() {
+        return Timestamp.from(Instant.now().minus(properties.getLease()));
+    }
+}
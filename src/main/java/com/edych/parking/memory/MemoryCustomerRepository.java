@@ -0,0 +1,66 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.model.Customer;
+import com.edych.parking.repository.CustomerRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CustomerRepository} of the {@code memory} profile; the caching declared by the interface applies here too.
+ */
+@Repository
+@Profile("memory")
+public class MemoryCustomerRepository extends MemoryRepository<Customer> implements CustomerRepository {
+
+    private final MemoryStore store;
+
+    public MemoryCustomerRepository(final MemoryStore store) {
+        super(Customer.class);
+        this.store = store;
+    }
+
+    @Override
+    public boolean existsById(final Long id) {
+        return store.existsCustomer(id);
+    }
+
+    @Override
+    public Optional<Customer> findById(final Long id) {
+        return store.findCustomer(id);
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return store.findAllCustomers();
+    }
+
+    @Override
+    public <S extends Customer> S save(final S customer) {
+        store.saveCustomer(customer);
+        return customer;
+    }
+
+    // declared here, where the cache annotations of CustomerRepository are found for it
+    @Override
+    public void deleteById(final Long id) {
+        super.deleteById(id);
+    }
+
+    @Override
+    public Set<Long> findExistingIds(final Collection<Long> ids) {
+        return ids.stream()
+                .filter(store::existsCustomer)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    boolean deleteIfExists(final long id) {
+        return store.deleteCustomer(id);
+    }
+}
@@ -0,0 +1,757 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.Customer;
+import com.edych.parking.model.ParkingSpot;
+import lombok.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the changes to a {@link MemoryStore}, replayed when the application starts again.
+ * <p>
+ * The changes of a transaction are written together when it commits, framed by a begin and a commit record, and a
+ * change made outside a transaction is written as a transaction of its own. Records are copied into memory-mapped
+ * segment files of a fixed size, {@code journal-<n>.log}, so an append costs no system call and survives a crash of
+ * the process. Surviving a crash of the machine takes an fsync: a flusher thread forces all segments written since its
+ * last round in one go, and with {@code fsync} a commit only returns once a round has covered its records. Commits
+ * that arrive during a round are covered together by the next one, so under load many transactions share one fsync.
+ * <p>
+ * Every change is stamped with a sequence number when it is applied to the store. Transactions may commit in another
+ * order than their changes were applied, so the replay applies the changes of all committed transactions by their
+ * sequence numbers; a transaction whose commit record is missing, e.g. after a crash during the commit, is left out.
+ * <p>
+ * A snapshot, {@code snapshot-<n>.snap}, holds the whole store as of the start of segment {@code n}; the segments
+ * before it are deleted once it is written. A start replays the latest snapshot and the segments from {@code n} on, so
+ * the replay is bounded by the state plus the journal written since the last snapshot.
+ * <p>
+ * Every record is {@code length, CRC32, type, fields}, and the fields of a change start with its sequence number. A
+ * record that was cut short or does not match its checksum, e.g. after a crash in the middle of a write, ends its
+ * segment together with the transaction it belongs to, and a segment ends at a record length of 0.
+ */
+class MemoryJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = 1 << 17;
+
+    private static final Pattern SEGMENT = Pattern.compile("journal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.snap");
+
+    private enum Type {
+        CUSTOMER_SAVED, CUSTOMER_DELETED, PARKING_SPOT_SAVED, PARKING_SPOT_DELETED, RESERVATION_SAVED, RESERVATION_DELETED,
+        SEQUENCES, TRANSACTION_BEGIN, TRANSACTION_COMMIT
+    }
+
+    /**
+     * Receives the replayed records in the order they were written.
+     */
+    interface Visitor {
+
+        void customerSaved(Customer customer);
+
+        void customerDeleted(long id);
+
+        void parkingSpotSaved(ParkingSpot parkingSpot);
+
+        void parkingSpotDeleted(long id);
+
+        void reservationSaved(ReservationDto reservation);
+
+        void reservationDeleted(long id);
+
+        /**
+         * The last ids handed out, so that ids of deleted entities are not handed out again.
+         */
+        void sequences(long customerId, long parkingSpotId, long reservationId);
+    }
+
+    /**
+     * The whole store at the start of segment {@code segment}.
+     */
+    @Value
+    static class Snapshot {
+        long segment;
+        long customerId;
+        long parkingSpotId;
+        long reservationId;
+        List<Customer> customers;
+        List<ParkingSpot> parkingSpots;
+        List<ReservationDto> reservations;
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A record read back: a change, or one of the records framing a transaction.
+     */
+    @Value
+    private static class Entry {
+        Type type;
+        long sequence;
+        Consumer<Visitor> change;
+    }
+
+    /**
+     * Collects the changes of the transactions read from the segments, one after the other; a transaction can go on
+     * in the next segment.
+     */
+    private static final class Transactions {
+
+        private final List<Entry> committed = new ArrayList<>();
+
+        private List<Entry> current;
+
+        void add(final Entry entry) {
+            switch (entry.getType()) {
+                case TRANSACTION_BEGIN:
+                    // a transaction without its commit record before it is the one a crash cut short
+                    current = new ArrayList<>();
+                    break;
+                case TRANSACTION_COMMIT:
+                    if (current != null) {
+                        committed.addAll(current);
+                    }
+                    current = null;
+                    break;
+                default:
+                    if (current != null) {
+                        current.add(entry);
+                    }
+            }
+        }
+
+        /**
+         * Drops the transaction being read, which a broken record has cut short.
+         */
+        void abort() {
+            current = null;
+        }
+
+        /**
+         * @return the changes of the committed transactions in the order they were applied
+         */
+        List<Entry> committed() {
+            committed.sort(Comparator.comparingLong(Entry::getSequence));
+            return committed;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final Duration flushInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appendedCondition = lock.newCondition();
+    private final Condition forcedCondition = lock.newCondition();
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+    private final AtomicLong changes = new AtomicLong();
+
+    private long segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final List<MappedByteBuffer> unforced = new ArrayList<>();
+
+    /**
+     * Bytes appended and forced since the journal was opened; positions of records are counted the same way.
+     */
+    private long appended;
+    private long forced;
+    private long appendedSinceSnapshot;
+    private boolean closed;
+
+    private Thread flusher;
+
+    private MemoryJournal(final Path directory, final int segmentSize, final boolean fsync, final Duration flushInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * @param fsync         whether a change returns only once its records are forced to the disk
+     * @param flushInterval how often the segments are forced without {@code fsync}
+     */
+    static MemoryJournal open(final Path directory, final int segmentSize, final boolean fsync, final Duration flushInterval) throws IOException {
+        if (segmentSize < HEADER_SIZE + MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("the segment size has to be at least " + (HEADER_SIZE + MAX_RECORD_SIZE) + " bytes");
+        }
+
+        Files.createDirectories(directory);
+
+        return new MemoryJournal(directory, segmentSize, fsync, flushInterval);
+    }
+
+    /**
+     * Hands the latest snapshot and the changes of every transaction committed after it to the visitor, then starts a
+     * new segment for the records to come.
+     *
+     * @return the number of records replayed
+     */
+    long replay(final Visitor visitor) throws IOException {
+        final OptionalLong snapshot = numbers(SNAPSHOT).stream().mapToLong(Long::longValue).max();
+        final long from = snapshot.orElse(0);
+        final long[] records = new long[1];
+
+        if (snapshot.isPresent()) {
+            try (final FileChannel in = FileChannel.open(snapshotPath(from), StandardOpenOption.READ)) {
+                read(in, entry -> {
+                    entry.getChange().accept(visitor);
+                    records[0]++;
+                });
+            }
+        }
+
+        final List<Long> segments = numbers(SEGMENT).stream()
+                .filter(number -> number >= from)
+                .sorted()
+                .collect(Collectors.toList());
+
+        final Transactions transactions = new Transactions();
+
+        for (final Long number : segments) {
+            try (final FileChannel in = FileChannel.open(segmentPath(number), StandardOpenOption.READ)) {
+                if (!read(in, transactions::add)) {
+                    transactions.abort();
+                }
+                appendedSinceSnapshot += in.position();
+            }
+        }
+
+        final List<Entry> committed = transactions.committed();
+        committed.forEach(entry -> entry.getChange().accept(visitor));
+        records[0] += committed.size();
+        changes.set(committed.stream().mapToLong(Entry::getSequence).max().orElse(0));
+
+        deleteBefore(from);
+
+        lock.lock();
+        try {
+            segment = segments.isEmpty() ? from : segments.get(segments.size() - 1) + 1;
+            map();
+        } finally {
+            lock.unlock();
+        }
+
+        flusher = new Thread(this::flush, "memory-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        return records[0];
+    }
+
+    /**
+     * The change records are stamped with the next sequence number, so they have to be made in the order the changes
+     * are applied to the store, and are written by {@link #commit(List)}.
+     */
+    byte[] customerSaved(final Customer customer) {
+        return change(changes.incrementAndGet(), Type.CUSTOMER_SAVED, out -> writeCustomer(out, customer));
+    }
+
+    byte[] customerDeleted(final long id) {
+        return change(changes.incrementAndGet(), Type.CUSTOMER_DELETED, out -> out.writeLong(id));
+    }
+
+    byte[] parkingSpotSaved(final ParkingSpot parkingSpot) {
+        return change(changes.incrementAndGet(), Type.PARKING_SPOT_SAVED, out -> writeParkingSpot(out, parkingSpot));
+    }
+
+    byte[] parkingSpotDeleted(final long id) {
+        return change(changes.incrementAndGet(), Type.PARKING_SPOT_DELETED, out -> out.writeLong(id));
+    }
+
+    byte[] reservationSaved(final ReservationDto reservation) {
+        return change(changes.incrementAndGet(), Type.RESERVATION_SAVED, out -> writeReservation(out, reservation));
+    }
+
+    byte[] reservationDeleted(final long id) {
+        return change(changes.incrementAndGet(), Type.RESERVATION_DELETED, out -> out.writeLong(id));
+    }
+
+    /**
+     * Appends the changes of a transaction between a begin and a commit record, in one go, so that no other
+     * transaction's records come in between. {@link #awaitForced()} then waits for all of them at once.
+     */
+    void commit(final List<byte[]> changes) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new DataAccessResourceFailureException("The journal is closed");
+            }
+
+            append(record(Type.TRANSACTION_BEGIN, out -> out.writeInt(changes.size())));
+            for (final byte[] change : changes) {
+                append(change);
+            }
+            append(record(Type.TRANSACTION_COMMIT, out -> {
+            }));
+            lastAppended.get()[0] = appended;
+
+            if (fsync) {
+                appendedCondition.signal();
+            }
+        } catch (final IOException e) {
+            throw new DataAccessResourceFailureException("Appending to the journal failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the records the calling thread appended are on the disk; returns at once without {@code fsync}.
+     */
+    void awaitForced() {
+        if (!fsync) {
+            return;
+        }
+
+        final long position = lastAppended.get()[0];
+
+        lock.lock();
+        try {
+            while (forced < position) {
+                if (closed) {
+                    throw new DataAccessResourceFailureException("The journal was closed before the change was forced to the disk");
+                }
+                forcedCondition.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bytes appended since the last snapshot, including the segments replayed on start.
+     */
+    long getAppendedSinceSnapshot() {
+        lock.lock();
+        try {
+            return appendedSinceSnapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment; a snapshot of the store taken before any other append goes into the returned segment's
+     * snapshot, which therefore has to be taken under the same exclusive lock of the store as this call.
+     *
+     * @return the segment the snapshot is taken at
+     */
+    long cut() {
+        lock.lock();
+        try {
+            roll();
+            appendedSinceSnapshot = 0;
+            return segment;
+        } catch (final IOException e) {
+            throw new DataAccessResourceFailureException("Starting a new journal segment failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the snapshot under a temporary name, forces it to the disk and renames it, so a snapshot is either
+     * complete or missing; then deletes the segments and snapshots it replaces.
+     */
+    void write(final Snapshot snapshot) throws IOException {
+        final Path temporary = directory.resolve(snapshotPath(snapshot.getSegment()).getFileName() + ".tmp");
+
+        try (final FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16);
+
+            stream.write(record(Type.SEQUENCES, data -> {
+                data.writeLong(snapshot.getCustomerId());
+                data.writeLong(snapshot.getParkingSpotId());
+                data.writeLong(snapshot.getReservationId());
+            }));
+            for (final Customer customer : snapshot.getCustomers()) {
+                stream.write(change(0, Type.CUSTOMER_SAVED, data -> writeCustomer(data, customer)));
+            }
+            for (final ParkingSpot parkingSpot : snapshot.getParkingSpots()) {
+                stream.write(change(0, Type.PARKING_SPOT_SAVED, data -> writeParkingSpot(data, parkingSpot)));
+            }
+            for (final ReservationDto reservation : snapshot.getReservations()) {
+                stream.write(change(0, Type.RESERVATION_SAVED, data -> writeReservation(data, reservation)));
+            }
+
+            stream.flush();
+            out.force(true);
+        }
+
+        Files.move(temporary, snapshotPath(snapshot.getSegment()), StandardCopyOption.ATOMIC_MOVE);
+        deleteBefore(snapshot.getSegment());
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appendedCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        lock.lock();
+        try {
+            forcedCondition.signalAll();
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called under the lock.
+     */
+    private void append(final byte[] record) throws IOException {
+        if (buffer.remaining() < record.length) {
+            roll();
+        }
+
+        buffer.put(record);
+        appended += record.length;
+        appendedSinceSnapshot += record.length;
+    }
+
+    /**
+     * Forces the segments written since the last round, one round after the other until the journal is closed.
+     */
+    private void flush() {
+        while (true) {
+            final long target;
+            final List<MappedByteBuffer> buffers;
+
+            lock.lock();
+            try {
+                if (fsync) {
+                    while (forced == appended && !closed) {
+                        appendedCondition.awaitUninterruptibly();
+                    }
+                } else if (!closed) {
+                    appendedCondition.await(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                }
+
+                if (forced == appended) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+
+                target = appended;
+                buffers = new ArrayList<>(unforced);
+                buffers.add(buffer);
+                unforced.clear();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            buffers.forEach(MappedByteBuffer::force);
+
+            lock.lock();
+            try {
+                forced = target;
+                forcedCondition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Called under the lock.
+     */
+    private void roll() throws IOException {
+        unforced.add(buffer);
+        channel.close();
+        segment++;
+        map();
+    }
+
+    /**
+     * Called under the lock.
+     */
+    private void map() throws IOException {
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void deleteBefore(final long from) throws IOException {
+        for (final Long number : numbers(SEGMENT)) {
+            if (number < from) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+
+        for (final Long number : numbers(SNAPSHOT)) {
+            if (number < from) {
+                Files.deleteIfExists(snapshotPath(number));
+            }
+        }
+    }
+
+    private List<Long> numbers(final Pattern pattern) throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> pattern.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(final long number) {
+        return directory.resolve(String.format("journal-%016d.log", number));
+    }
+
+    private Path snapshotPath(final long number) {
+        return directory.resolve(String.format("snapshot-%016d.snap", number));
+    }
+
+    /**
+     * Reads records up to the end of the file, an empty or a broken one.
+     *
+     * @return whether the file ended without a broken record; the channel is left behind the last complete one
+     */
+    private static boolean read(final FileChannel in, final Consumer<Entry> entries) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long end = 0;
+        boolean complete = true;
+
+        while (readFully(in, header)) {
+            final int length = header.getInt(0);
+            final int checksum = header.getInt(Integer.BYTES);
+
+            if (length == 0) {
+                break;
+            }
+
+            final ByteBuffer body = length < 0 || length > MAX_RECORD_SIZE ? null : ByteBuffer.allocate(length);
+
+            if (body == null || !readFully(in, body) || checksum(body.array()) != checksum) {
+                complete = false;
+                break;
+            }
+
+            entries.accept(read(new DataInputStream(new ByteArrayInputStream(body.array()))));
+            end = in.position();
+        }
+
+        in.position(end);
+
+        return complete;
+    }
+
+    private static Entry read(final DataInputStream in) throws IOException {
+        final Type type = Type.values()[in.readUnsignedByte()];
+
+        switch (type) {
+            case TRANSACTION_BEGIN:
+            case TRANSACTION_COMMIT:
+                return new Entry(type, 0, visitor -> {
+                });
+            case SEQUENCES:
+                final long customerId = in.readLong();
+                final long parkingSpotId = in.readLong();
+                final long reservationId = in.readLong();
+                return new Entry(type, 0, visitor -> visitor.sequences(customerId, parkingSpotId, reservationId));
+            default:
+                return new Entry(type, in.readLong(), readChange(type, in));
+        }
+    }
+
+    private static Consumer<Visitor> readChange(final Type type, final DataInputStream in) throws IOException {
+        switch (type) {
+            case CUSTOMER_SAVED:
+                final Customer customer = Customer.builder()
+                        .id(in.readLong())
+                        .name(in.readUTF())
+                        .build();
+                return visitor -> visitor.customerSaved(customer);
+            case CUSTOMER_DELETED:
+                final long customerId = in.readLong();
+                return visitor -> visitor.customerDeleted(customerId);
+            case PARKING_SPOT_SAVED:
+                final ParkingSpot parkingSpot = ParkingSpot.builder()
+                        .id(in.readLong())
+                        .number(readInteger(in))
+                        .floor(readInteger(in))
+                        .handicapped(readBoolean(in))
+                        .build();
+                return visitor -> visitor.parkingSpotSaved(parkingSpot);
+            case PARKING_SPOT_DELETED:
+                final long parkingSpotId = in.readLong();
+                return visitor -> visitor.parkingSpotDeleted(parkingSpotId);
+            case RESERVATION_SAVED:
+                final ReservationDto reservation = ReservationDto.builder()
+                        .id(in.readLong())
+                        .customerId(in.readLong())
+                        .parkingSpotId(in.readLong())
+                        .startTime(readInstant(in))
+                        .endTime(readInstant(in))
+                        .holdExpiresAt(readInstant(in))
+                        .build();
+                return visitor -> visitor.reservationSaved(reservation);
+            case RESERVATION_DELETED:
+                final long reservationId = in.readLong();
+                return visitor -> visitor.reservationDeleted(reservationId);
+            default:
+                throw new IllegalStateException("not a change: " + type);
+        }
+    }
+
+    private static byte[] change(final long sequence, final Type type, final Fields fields) {
+        return record(type, out -> {
+            out.writeLong(sequence);
+            fields.write(out);
+        });
+    }
+
+    private static byte[] record(final Type type, final Fields fields) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(type.ordinal());
+            fields.write(out);
+
+            final byte[] record = bytes.toByteArray();
+            final ByteBuffer header = ByteBuffer.wrap(record);
+            header.putInt(0, record.length - HEADER_SIZE);
+            header.putInt(Integer.BYTES, checksum(record, HEADER_SIZE, record.length - HEADER_SIZE));
+
+            return record;
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeCustomer(final DataOutputStream out, final Customer customer) throws IOException {
+        out.writeLong(customer.getId());
+        out.writeUTF(customer.getName());
+    }
+
+    private static void writeParkingSpot(final DataOutputStream out, final ParkingSpot parkingSpot) throws IOException {
+        out.writeLong(parkingSpot.getId());
+        writeInteger(out, parkingSpot.getNumber());
+        writeInteger(out, parkingSpot.getFloor());
+        writeBoolean(out, parkingSpot.getHandicapped());
+    }
+
+    private static void writeReservation(final DataOutputStream out, final ReservationDto reservation) throws IOException {
+        out.writeLong(reservation.getId());
+        out.writeLong(reservation.getCustomerId());
+        out.writeLong(reservation.getParkingSpotId());
+        writeInstant(out, reservation.getStartTime());
+        writeInstant(out, reservation.getEndTime());
+        writeInstant(out, reservation.getHoldExpiresAt());
+    }
+
+    private static boolean readFully(final FileChannel in, final ByteBuffer buffer) throws IOException {
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int checksum(final byte[] body) {
+        return checksum(body, 0, body.length);
+    }
+
+    private static int checksum(final byte[] bytes, final int offset, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeInteger(final DataOutputStream out, final Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeBoolean(final DataOutputStream out, final Boolean value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeBoolean(value);
+        }
+    }
+
+    private static Boolean readBoolean(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readBoolean() : null;
+    }
+
+    private static void writeInstant(final DataOutputStream out, final Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.model.ParkingSpot;
+import com.edych.parking.repository.ParkingSpotRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ParkingSpotRepository} of the {@code memory} profile. Available spots are read from the store's index of
+ * spots without any reservation instead of an anti-join.
+ */
+@Repository
+@Profile("memory")
+public class MemoryParkingSpotRepository extends MemoryRepository<ParkingSpot> implements ParkingSpotRepository {
+
+    private final MemoryStore store;
+
+    public MemoryParkingSpotRepository(final MemoryStore store) {
+        super(ParkingSpot.class);
+        this.store = store;
+    }
+
+    @Override
+    public boolean existsById(final Long id) {
+        return store.existsParkingSpot(id);
+    }
+
+    @Override
+    public Optional<ParkingSpot> findById(final Long id) {
+        return store.findParkingSpot(id);
+    }
+
+    @Override
+    public List<ParkingSpot> findAll() {
+        return store.findAllParkingSpots();
+    }
+
+    @Override
+    public <S extends ParkingSpot> S save(final S parkingSpot) {
+        store.saveParkingSpot(parkingSpot);
+        return parkingSpot;
+    }
+
+    @Override
+    public List<ParkingSpot> getAllAvailable() {
+        return store.findFreeParkingSpots(null, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<ParkingSpot> getAvailable(final Integer floor, final Boolean handicapped, final Pageable pageable) {
+        if (floor == null || handicapped == null) {
+            // the query compares with = and matches nothing for null
+            return List.of();
+        }
+
+        return pageable.isPaged()
+                ? store.findFreeParkingSpots(floor, handicapped, pageable.getOffset(), pageable.getPageSize())
+                : store.findFreeParkingSpots(floor, handicapped, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Nothing to lock: the store belongs to this instance only, so the claims of {@code ParkingSpotClaims} already
+     * decide between concurrent inserts.
+     */
+    @Override
+    public List<Long> lockAllById(final Collection<Long> ids) {
+        return ids.stream()
+                .filter(store::existsParkingSpot)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    boolean deleteIfExists(final long id) {
+        return store.deleteParkingSpot(id);
+    }
+}
@@ -0,0 +1,55 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.repository.EntityRepository;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.orm.ObjectRetrievalFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of {@link EntityRepository} that follow from finding, saving and deleting by id, with the semantics of
+ * {@code SimpleJpaRepository}: {@link #deleteById(Long)} fails for a missing entity.
+ */
+abstract class MemoryRepository<T> implements EntityRepository<T> {
+
+    private final Class<T> type;
+
+    MemoryRepository(final Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * @return whether there was such an entity
+     */
+    abstract boolean deleteIfExists(long id);
+
+    @Override
+    public boolean existsById(final Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(final Iterable<S> entities) {
+        final List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public void deleteById(final Long id) {
+        if (!deleteIfExists(id)) {
+            throw new EmptyResultDataAccessException(String.format("No %s entity with id %s exists!", type, id), 1);
+        }
+    }
+
+    /**
+     * Unlike the lazy reference of JPA, the entity is read at once.
+     *
+     * @throws ObjectRetrievalFailureException when there is no such entity, where JPA fails on first access
+     */
+    @Override
+    public T getById(final Long id) {
+        return findById(id).orElseThrow(() -> new ObjectRetrievalFailureException(type, id));
+    }
+}
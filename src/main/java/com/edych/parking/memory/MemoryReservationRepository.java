@@ -0,0 +1,194 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.Reservation;
+import com.edych.parking.repository.ReservationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ReservationRepository} of the {@code memory} profile. Reservations of a customer are read from the store's
+ * index by customer in id order, and the bulk deletes return what they deleted like the JPA ones do.
+ */
+@Repository
+@Profile("memory")
+public class MemoryReservationRepository extends MemoryRepository<Reservation> implements ReservationRepository {
+
+    private final MemoryStore store;
+
+    public MemoryReservationRepository(final MemoryStore store) {
+        super(Reservation.class);
+        this.store = store;
+    }
+
+    @Override
+    public boolean existsById(final Long id) {
+        return store.existsReservation(id);
+    }
+
+    @Override
+    public Optional<Reservation> findById(final Long id) {
+        return store.findReservation(id).map(this::toEntity);
+    }
+
+    @Override
+    public List<Reservation> findAll() {
+        return store.findAllReservations(reservation -> true).stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public <S extends Reservation> S save(final S reservation) {
+        saveAll(List.of(reservation));
+        return reservation;
+    }
+
+    /**
+     * All or none of the reservations are saved.
+     */
+    @Override
+    public <S extends Reservation> List<S> saveAll(final Iterable<S> reservations) {
+        final List<S> entities = new ArrayList<>();
+        reservations.forEach(entities::add);
+
+        final List<ReservationDto> saved = store.saveReservations(entities.stream()
+                .map(MemoryReservationRepository::toDto)
+                .collect(Collectors.toList()));
+
+        for (int i = 0; i < entities.size(); i++) {
+            entities.get(i).setId(saved.get(i).getId());
+        }
+
+        return entities;
+    }
+
+    @Override
+    public boolean existsByParkingSpotId(final Long parkingSpotId) {
+        return store.existsReservationByParkingSpotId(parkingSpotId);
+    }
+
+    @Override
+    public boolean existsByParkingSpotIdNotEndedAt(final Long parkingSpotId, final Instant start) {
+        return !store.findReservationsByParkingSpotId(parkingSpotId, reservation -> isNotEndedAt(reservation, start)).isEmpty();
+    }
+
+    @Override
+    public boolean existsByParkingSpotIdOverlapping(final Long parkingSpotId, final Instant start, final Instant end) {
+        return !store.findReservationsByParkingSpotId(parkingSpotId,
+                reservation -> reservation.getStartTime().isBefore(end) && isNotEndedAt(reservation, start)).isEmpty();
+    }
+
+    @Override
+    public List<ReservationDto> findAllDtoByParkingSpotIdInNotEndedAt(final Collection<Long> parkingSpotIds, final Instant start) {
+        return parkingSpotIds.stream()
+                .flatMap(parkingSpotId -> store.findReservationsByParkingSpotId(parkingSpotId, reservation -> isNotEndedAt(reservation, start)).stream())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReservationDto> findAllDtoByCustomerId(final Long customerId) {
+        return store.findReservationsByCustomerId(customerId, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public List<ReservationDto> findPageDtoByCustomerId(final Long customerId, final Long after, final Pageable pageable) {
+        final List<ReservationDto> page = store.findReservationsByCustomerId(customerId, after,
+                pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE);
+
+        return pageable.isPaged() ? page.stream().skip(pageable.getOffset()).collect(Collectors.toList()) : page;
+    }
+
+    @Override
+    public Stream<ReservationDto> streamAllDtoByCustomerId(final Long customerId) {
+        return findAllDtoByCustomerId(customerId).stream();
+    }
+
+    @Override
+    public List<ReservationDto> findAllDtoNotEndedAt(final Instant now) {
+        return store.findAllReservations(reservation -> reservation.getEndTime() == null || reservation.getEndTime().isAfter(now));
+    }
+
+    @Override
+    public List<ReservationDto> findAllDtoHeld() {
+        return store.findAllReservations(reservation -> reservation.getHoldExpiresAt() != null);
+    }
+
+    @Override
+    public List<ReservationDto> deleteAllDtoHeldByIdInExpiredAt(final Collection<Long> ids, final Instant now) {
+        return store.deleteReservations(ids, reservation -> isExpiredHold(reservation, now));
+    }
+
+    @Override
+    public int confirmHold(final Long id, final Instant now) {
+        return store.updateReservation(id, reservation -> {
+            if (reservation.getHoldExpiresAt() == null || !reservation.getHoldExpiresAt().isAfter(now)) {
+                return null;
+            }
+
+            reservation.setHoldExpiresAt(null);
+            return reservation;
+        }).isPresent() ? 1 : 0;
+    }
+
+    @Override
+    public List<ReservationDto> deleteDtoById(final Long id) {
+        return store.deleteReservation(id, reservation -> true)
+                .map(List::of)
+                .orElse(List.of());
+    }
+
+    @Override
+    public List<ReservationDto> deleteAllDtoByCustomerId(final Long customerId) {
+        return store.deleteReservationsByCustomerId(customerId);
+    }
+
+    @Override
+    public List<ReservationDto> deleteAllDtoByFloor(final Integer floor) {
+        return store.deleteReservationsByFloor(floor);
+    }
+
+    @Override
+    boolean deleteIfExists(final long id) {
+        return store.deleteReservation(id, reservation -> true).isPresent();
+    }
+
+    private static boolean isNotEndedAt(final ReservationDto reservation, final Instant instant) {
+        return reservation.getEndTime() == null || reservation.getEndTime().isAfter(instant);
+    }
+
+    private static boolean isExpiredHold(final ReservationDto reservation, final Instant now) {
+        return reservation.getHoldExpiresAt() != null && !reservation.getHoldExpiresAt().isAfter(now);
+    }
+
+    private Reservation toEntity(final ReservationDto reservation) {
+        return Reservation.builder()
+                .id(reservation.getId())
+                .customer(store.findCustomer(reservation.getCustomerId()).orElse(null))
+                .parkingSpot(store.findParkingSpot(reservation.getParkingSpotId()).orElse(null))
+                .startTime(reservation.getStartTime())
+                .endTime(reservation.getEndTime())
+                .holdExpiresAt(reservation.getHoldExpiresAt())
+                .build();
+    }
+
+    private static ReservationDto toDto(final Reservation reservation) {
+        return ReservationDto.builder()
+                .id(reservation.getId())
+                .customerId(reservation.getCustomer() == null ? null : reservation.getCustomer().getId())
+                .parkingSpotId(reservation.getParkingSpot() == null ? null : reservation.getParkingSpot().getId())
+                .startTime(reservation.getStartTime())
+                .endTime(reservation.getEndTime())
+                .holdExpiresAt(reservation.getHoldExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.edych.parking.memory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Takes a snapshot of the {@link MemoryStore} once {@code parking.memory.snapshot-threshold} of journal has been
+ * written since the last one.
+ */
+@Slf4j
+@Component
+@Profile("memory")
+@RequiredArgsConstructor
+public class MemorySnapshotScheduler {
+
+    private final MemoryStore store;
+    private final MemoryStorageProperties properties;
+
+    @Scheduled(fixedDelayString = "${parking.memory.snapshot-check:PT10S}")
+    public void snapshotIfDue() {
+        final long journalSize = store.getJournalSizeSinceSnapshot();
+
+        if (journalSize == 0 || journalSize < properties.getSnapshotThreshold().toBytes()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            store.snapshot();
+            log.info("Took a snapshot after {} bytes of journal in {} ms", journalSize, (System.nanoTime() - start) / 1_000_000);
+        } catch (final IOException e) {
+            log.warn("Taking a snapshot failed, the journal is kept and replayed in full", e);
+        }
+    }
+}
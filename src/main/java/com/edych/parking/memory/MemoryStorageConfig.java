@@ -0,0 +1,77 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.model.Customer;
+import com.edych.parking.model.ParkingSpot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * With the {@code memory} profile customers, parking spots and reservations live in a {@link MemoryStore} instead of
+ * H2; {@code application-memory.properties} leaves out the datasource, JPA and Liquibase. The store starts with the
+ * prepared data, or with the state replayed from the journal in {@code parking.memory.journal} when there is one.
+ */
+@Slf4j
+@Configuration
+@Profile("memory")
+@EnableConfigurationProperties(MemoryStorageProperties.class)
+public class MemoryStorageConfig {
+
+    private static final Pattern PARKING_SPOT = Pattern.compile("\\(\\s*(\\d+)\\s*,\\s*(\\d+)\\s*,\\s*(true|false)\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    @Bean(destroyMethod = "close")
+    public MemoryStore memoryStore(final MemoryStorageProperties properties, final ResourceLoader resourceLoader) throws IOException {
+        final MemoryStore store = new MemoryStore();
+
+        if (properties.getJournal() != null) {
+            final long start = System.nanoTime();
+            final long records = store.open(MemoryJournal.open(Paths.get(properties.getJournal()),
+                    (int) properties.getSegmentSize().toBytes(), properties.isFsync(), properties.getFlushInterval()));
+
+            if (records > 0) {
+                log.info("Replayed {} records of the journal {} in {} ms", records, properties.getJournal(), (System.nanoTime() - start) / 1_000_000);
+                return store;
+            }
+        }
+
+        seed(store, properties, resourceLoader.getResource(properties.getSeedParkingSpots()));
+
+        return store;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(final MemoryStore memoryStore) {
+        return new MemoryTransactionManager(memoryStore);
+    }
+
+    private static void seed(final MemoryStore store, final MemoryStorageProperties properties, final Resource parkingSpots) throws IOException {
+        properties.getSeedCustomers().forEach(name -> store.saveCustomer(Customer.builder()
+                .name(name)
+                .build()));
+
+        try (final InputStream in = parkingSpots.getInputStream()) {
+            final Matcher values = PARKING_SPOT.matcher(StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+
+            while (values.find()) {
+                store.saveParkingSpot(ParkingSpot.builder()
+                        .number(Integer.parseInt(values.group(1)))
+                        .floor(Integer.parseInt(values.group(2)))
+                        .handicapped(Boolean.parseBoolean(values.group(3)))
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.edych.parking.memory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "parking.memory")
+public class MemoryStorageProperties {
+
+    /**
+     * Directory of the journal and its snapshots, replayed on the next start; without it nothing survives a restart.
+     */
+    private String journal;
+
+    /**
+     * Whether a transaction commits only once its journal records are forced to the disk. Transactions committing
+     * concurrently share one fsync.
+     */
+    private boolean fsync;
+
+    /**
+     * How often the journal is forced to the disk without {@code fsync}; a crash of the machine loses at most this much.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Size of a memory-mapped journal segment file.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Journal written since the last snapshot after which a new snapshot is taken, which bounds the replay on start.
+     */
+    private DataSize snapshotThreshold = DataSize.ofMegabytes(16);
+
+    /**
+     * How often the journal is checked against the {@code snapshotThreshold}.
+     */
+    private Duration snapshotCheck = Duration.ofSeconds(10);
+
+    /**
+     * Customers created when the store starts empty.
+     */
+    private List<String> seedCustomers = List.of("edych");
+
+    /**
+     * Parking spots created when the store starts empty, read from the {@code values (number, floor, handicapped)}
+     * of the changelog's inserts.
+     */
+    private String seedParkingSpots = "classpath:db/changelog/data/parkingSpots.sql";
+}
@@ -0,0 +1,773 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.Customer;
+import com.edych.parking.model.ParkingSpot;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Customers, parking spots and reservations of the {@code memory} profile in concurrent maps keyed by id, with the
+ * indexes the repositories read by: reservations by customer and by parking spot, parking spots by floor, and the
+ * parking spots without any reservation.
+ * <p>
+ * The guarantees of the database schema are kept: ids are unique, customer names are unique and not null, and a
+ * reservation refers to an existing customer and parking spot. Reservations are written under a shared lock and only
+ * wait for changes of the same reservation id or index entry; customers and parking spots, which reservations refer
+ * to, are written under an exclusive lock. Every change is applied at once, and outside a transaction it is also
+ * written to the {@link MemoryJournal}, when there is one, like an auto-committed statement. Stored objects are never
+ * changed, only replaced, and never handed out, only copies.
+ * <p>
+ * Inside a transaction of the {@link MemoryTransactionManager} every change records its inverse and its journal record
+ * in the transaction's {@link UndoLog}. A commit writes the records to the journal in one go and waits for one fsync;
+ * a rollback drops them and applies the inverses in reverse order. The isolation is therefore read uncommitted, weaker
+ * than the database's read committed: other transactions see the changes before the commit, and see them disappear on
+ * a rollback. Sequences are not rolled back, as with the database's sequences. A snapshot waits for the transactions
+ * that have changed something to complete, so that it holds committed changes only.
+ */
+public class MemoryStore implements Closeable {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Held shared by every transaction from its first change until it completes, and exclusively by a snapshot.
+     */
+    private final ReadWriteLock transactions = new ReentrantReadWriteLock();
+
+    private final Map<Long, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<String, Long> customerIdsByName = new ConcurrentHashMap<>();
+    private final Map<Long, ParkingSpot> parkingSpots = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableSet<Long>> parkingSpotIdsByFloor = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> freeParkingSpotIds = new ConcurrentSkipListSet<>();
+    private final Map<Long, ReservationDto> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> reservationIdsByCustomerId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> reservationIdsByParkingSpotId = new ConcurrentHashMap<>();
+
+    private final AtomicLong customerIds = new AtomicLong();
+    private final AtomicLong parkingSpotIds = new AtomicLong();
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    private MemoryJournal journal;
+
+    /**
+     * Replays the journal into the empty store and appends every later change to it.
+     *
+     * @return the number of records replayed
+     */
+    public long open(final MemoryJournal journal) throws IOException {
+        final long records = journal.replay(new MemoryJournal.Visitor() {
+            @Override
+            public void customerSaved(final Customer customer) {
+                saveCustomer(customer);
+            }
+
+            @Override
+            public void customerDeleted(final long id) {
+                deleteCustomer(id);
+            }
+
+            @Override
+            public void parkingSpotSaved(final ParkingSpot parkingSpot) {
+                saveParkingSpot(parkingSpot);
+            }
+
+            @Override
+            public void parkingSpotDeleted(final long id) {
+                deleteParkingSpot(id);
+            }
+
+            @Override
+            public void reservationSaved(final ReservationDto reservation) {
+                saveReservations(List.of(reservation));
+            }
+
+            @Override
+            public void reservationDeleted(final long id) {
+                deleteReservation(id, reservation -> true);
+            }
+
+            @Override
+            public void sequences(final long customerId, final long parkingSpotId, final long reservationId) {
+                customerIds.accumulateAndGet(customerId, Math::max);
+                parkingSpotIds.accumulateAndGet(parkingSpotId, Math::max);
+                reservationIds.accumulateAndGet(reservationId, Math::max);
+            }
+        });
+
+        this.journal = journal;
+
+        return records;
+    }
+
+    /**
+     * Bytes appended to the journal since the last snapshot, 0 without a journal.
+     */
+    public long getJournalSizeSinceSnapshot() {
+        return journal == null ? 0 : journal.getAppendedSinceSnapshot();
+    }
+
+    /**
+     * Writes a snapshot of the whole store, after which the journal written so far is no longer needed. It waits for
+     * the running transactions that have changed something to complete; changes wait only while the journal is cut and
+     * the maps are copied, not while the snapshot is written. Not to be called inside a transaction.
+     */
+    public void snapshot() throws IOException {
+        if (journal == null) {
+            return;
+        }
+
+        final MemoryJournal.Snapshot snapshot;
+
+        transactions.writeLock().lock();
+        try {
+            snapshot = exclusively(() -> new MemoryJournal.Snapshot(
+                    journal.cut(),
+                    customerIds.get(),
+                    parkingSpotIds.get(),
+                    reservationIds.get(),
+                    List.copyOf(customers.values()),
+                    List.copyOf(parkingSpots.values()),
+                    List.copyOf(reservations.values())));
+        } finally {
+            transactions.writeLock().unlock();
+        }
+
+        journal.write(snapshot);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public Optional<Customer> findCustomer(final long id) {
+        return Optional.ofNullable(customers.get(id)).map(MemoryStore::copy);
+    }
+
+    public boolean existsCustomer(final long id) {
+        return customers.containsKey(id);
+    }
+
+    public List<Customer> findAllCustomers() {
+        return customers.values().stream()
+                .map(MemoryStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    public long countCustomers() {
+        return customers.size();
+    }
+
+    /**
+     * Inserts the customer with the next id when it has none, otherwise inserts or replaces it under its id; the id is
+     * set on the given customer.
+     *
+     * @throws DataIntegrityViolationException when the name is missing or taken by another customer
+     */
+    public Customer saveCustomer(final Customer customer) {
+        if (customer.getName() == null) {
+            throw new DataIntegrityViolationException("customer.name must not be null");
+        }
+
+        return exclusively(() -> {
+            final long id = nextId(customerIds, customer.getId());
+            final Long namedId = customerIdsByName.get(customer.getName());
+
+            if (namedId != null && namedId != id) {
+                throw new DataIntegrityViolationException(String.format("customer.name [%s] is not unique", customer.getName()));
+            }
+
+            final Customer stored = Customer.builder()
+                    .id(id)
+                    .name(customer.getName())
+                    .build();
+
+            append(journal -> journal.customerSaved(stored));
+
+            final Customer previous = customers.put(id, stored);
+            if (previous != null) {
+                customerIdsByName.remove(previous.getName());
+                undo(() -> saveCustomer(copy(previous)));
+            } else {
+                undo(() -> deleteCustomer(id));
+            }
+            customerIdsByName.put(stored.getName(), id);
+
+            customer.setId(id);
+            return customer;
+        });
+    }
+
+    /**
+     * Deletes the customer together with its reservations, as the cascade of {@link Customer#getReservations()} does.
+     *
+     * @return whether there was such a customer
+     */
+    public boolean deleteCustomer(final long id) {
+        return exclusively(() -> {
+            if (!customers.containsKey(id)) {
+                return false;
+            }
+
+            // the reservations are undone after the customer they refer to is back
+            deleteReservations(reservationIdsByCustomerId.get(id), reservation -> true);
+            append(journal -> journal.customerDeleted(id));
+            final Customer deleted = customers.remove(id);
+            customerIdsByName.remove(deleted.getName());
+            undo(() -> saveCustomer(copy(deleted)));
+
+            return true;
+        });
+    }
+
+    public Optional<ParkingSpot> findParkingSpot(final long id) {
+        return Optional.ofNullable(parkingSpots.get(id)).map(MemoryStore::copy);
+    }
+
+    public boolean existsParkingSpot(final long id) {
+        return parkingSpots.containsKey(id);
+    }
+
+    public List<ParkingSpot> findAllParkingSpots() {
+        return parkingSpots.values().stream()
+                .map(MemoryStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    public long countParkingSpots() {
+        return parkingSpots.size();
+    }
+
+    /**
+     * @param floor       {@code null} for all floors
+     * @param handicapped {@code null} for both kinds
+     * @return up to {@code limit} parking spots without any reservation ordered by id, skipping the first {@code offset}
+     */
+    public List<ParkingSpot> findFreeParkingSpots(final Integer floor, final Boolean handicapped, final long offset, final int limit) {
+        final Collection<Long> ids = floor == null ? freeParkingSpotIds : parkingSpotIdsByFloor.getOrDefault(floor, new ConcurrentSkipListSet<>());
+
+        return ids.stream()
+                .filter(id -> floor == null || freeParkingSpotIds.contains(id))
+                .map(parkingSpots::get)
+                .filter(Objects::nonNull)
+                .filter(parkingSpot -> handicapped == null || handicapped.equals(parkingSpot.getHandicapped()))
+                .skip(offset)
+                .limit(limit)
+                .map(MemoryStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Inserts the parking spot with the next id when it has none, otherwise inserts or replaces it under its id; the
+     * id is set on the given parking spot.
+     */
+    public ParkingSpot saveParkingSpot(final ParkingSpot parkingSpot) {
+        return exclusively(() -> {
+            final long id = nextId(parkingSpotIds, parkingSpot.getId());
+            final ParkingSpot stored = ParkingSpot.builder()
+                    .id(id)
+                    .number(parkingSpot.getNumber())
+                    .floor(parkingSpot.getFloor())
+                    .handicapped(parkingSpot.getHandicapped())
+                    .build();
+
+            append(journal -> journal.parkingSpotSaved(stored));
+
+            final ParkingSpot previous = parkingSpots.put(id, stored);
+            if (previous != null) {
+                removeFromFloor(previous);
+                undo(() -> saveParkingSpot(copy(previous)));
+            } else {
+                undo(() -> deleteParkingSpot(id));
+            }
+            parkingSpotIdsByFloor.computeIfAbsent(stored.getFloor(), floor -> new ConcurrentSkipListSet<>()).add(id);
+            if (!reservationIdsByParkingSpotId.containsKey(id)) {
+                freeParkingSpotIds.add(id);
+            }
+
+            parkingSpot.setId(id);
+            return parkingSpot;
+        });
+    }
+
+    /**
+     * @return whether there was such a parking spot
+     * @throws DataIntegrityViolationException when the parking spot is still reserved
+     */
+    public boolean deleteParkingSpot(final long id) {
+        return exclusively(() -> {
+            if (!parkingSpots.containsKey(id)) {
+                return false;
+            }
+
+            if (reservationIdsByParkingSpotId.containsKey(id)) {
+                throw new DataIntegrityViolationException(String.format("parking spot [%s] is still referenced by a reservation", id));
+            }
+
+            append(journal -> journal.parkingSpotDeleted(id));
+            final ParkingSpot deleted = parkingSpots.remove(id);
+            removeFromFloor(deleted);
+            freeParkingSpotIds.remove(id);
+            undo(() -> saveParkingSpot(copy(deleted)));
+
+            return true;
+        });
+    }
+
+    public Optional<ReservationDto> findReservation(final long id) {
+        return Optional.ofNullable(reservations.get(id)).map(MemoryStore::copy);
+    }
+
+    public boolean existsReservation(final long id) {
+        return reservations.containsKey(id);
+    }
+
+    public List<ReservationDto> findAllReservations(final Predicate<ReservationDto> condition) {
+        return reservations.values().stream()
+                .filter(condition)
+                .map(MemoryStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    public long countReservations() {
+        return reservations.size();
+    }
+
+    /**
+     * @return up to {@code limit} reservations of the customer with an id greater than {@code after}, ordered by id
+     */
+    public List<ReservationDto> findReservationsByCustomerId(final long customerId, final long after, final long limit) {
+        final NavigableSet<Long> ids = reservationIdsByCustomerId.get(customerId);
+
+        if (ids == null) {
+            return List.of();
+        }
+
+        return ids.tailSet(after, false).stream()
+                .map(reservations::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .map(MemoryStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    public boolean existsReservationByParkingSpotId(final long parkingSpotId) {
+        return reservationIdsByParkingSpotId.containsKey(parkingSpotId);
+    }
+
+    /**
+     * @return the reservations of the parking spot that meet the condition, read from the store's index by spot
+     */
+    public List<ReservationDto> findReservationsByParkingSpotId(final long parkingSpotId, final Predicate<ReservationDto> condition) {
+        final Set<Long> ids = reservationIdsByParkingSpotId.get(parkingSpotId);
+
+        if (ids == null) {
+            return List.of();
+        }
+
+        return ids.stream()
+                .map(reservations::get)
+                .filter(reservation -> reservation != null && condition.test(reservation))
+                .map(MemoryStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Inserts the reservations without an id with the next ids, and inserts or replaces the others under their ids.
+     * Either all of them are saved or, when one of them refers to a missing customer or parking spot, none.
+     *
+     * @return the saved reservations with their ids
+     * @throws DataIntegrityViolationException when a customer, parking spot or start time is missing
+     */
+    public List<ReservationDto> saveReservations(final List<ReservationDto> dtos) {
+        return shared(() -> {
+            dtos.forEach(this::verifyReferences);
+
+            final List<ReservationDto> saved = new ArrayList<>(dtos.size());
+
+            for (final ReservationDto reservation : dtos) {
+                final ReservationDto stored = copy(reservation);
+                stored.setId(nextId(reservationIds, reservation.getId()));
+
+                reservations.compute(stored.getId(), (id, previous) -> {
+                    append(journal -> journal.reservationSaved(stored));
+
+                    if (previous != null) {
+                        unindex(previous);
+                        undo(() -> saveReservations(List.of(previous)));
+                    } else {
+                        undo(() -> deleteReservation(id, any -> true));
+                    }
+                    index(stored);
+
+                    return stored;
+                });
+
+                saved.add(copy(stored));
+            }
+
+            return saved;
+        });
+    }
+
+    /**
+     * Replaces the reservation with the result of {@code update}, unless the reservation is missing or the update
+     * returns {@code null}. The customer and the parking spot of a reservation are not changed this way.
+     *
+     * @return the updated reservation
+     */
+    public Optional<ReservationDto> updateReservation(final long id, final UnaryOperator<ReservationDto> update) {
+        return shared(() -> {
+            final ReservationDto[] updated = new ReservationDto[1];
+
+            reservations.computeIfPresent(id, (key, current) -> {
+                final ReservationDto candidate = update.apply(copy(current));
+
+                if (candidate == null) {
+                    return current;
+                }
+
+                final ReservationDto stored = copy(candidate);
+                stored.setId(id);
+                stored.setCustomerId(current.getCustomerId());
+                stored.setParkingSpotId(current.getParkingSpotId());
+
+                append(journal -> journal.reservationSaved(stored));
+                undo(() -> saveReservations(List.of(current)));
+                updated[0] = stored;
+
+                return stored;
+            });
+
+            return Optional.ofNullable(updated[0]).map(MemoryStore::copy);
+        });
+    }
+
+    /**
+     * @return the deleted reservation, unless it is missing or does not meet the condition
+     */
+    public Optional<ReservationDto> deleteReservation(final long id, final Predicate<ReservationDto> condition) {
+        return shared(() -> Optional.ofNullable(delete(id, condition)));
+    }
+
+    public List<ReservationDto> deleteReservations(final Collection<Long> ids, final Predicate<ReservationDto> condition) {
+        return shared(() -> {
+            if (ids == null) {
+                return List.of();
+            }
+
+            // a copy, the indexes change with every delete
+            return List.copyOf(ids).stream()
+                    .distinct()
+                    .map(id -> delete(id, condition))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    public List<ReservationDto> deleteReservationsByCustomerId(final long customerId) {
+        return deleteReservations(reservationIdsByCustomerId.get(customerId), reservation -> true);
+    }
+
+    public List<ReservationDto> deleteReservationsByFloor(final int floor) {
+        final NavigableSet<Long> parkingSpotIds = parkingSpotIdsByFloor.getOrDefault(floor, new ConcurrentSkipListSet<>());
+
+        return deleteReservations(parkingSpotIds.stream()
+                .map(reservationIdsByParkingSpotId::get)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList()), reservation -> true);
+    }
+
+    private ReservationDto delete(final long id, final Predicate<ReservationDto> condition) {
+        final ReservationDto[] deleted = new ReservationDto[1];
+
+        reservations.computeIfPresent(id, (key, current) -> {
+            if (!condition.test(current)) {
+                return current;
+            }
+
+            append(journal -> journal.reservationDeleted(id));
+            unindex(current);
+            undo(() -> saveReservations(List.of(current)));
+            deleted[0] = current;
+
+            return null;
+        });
+
+        return deleted[0] == null ? null : copy(deleted[0]);
+    }
+
+    private void verifyReferences(final ReservationDto reservation) {
+        if (reservation.getCustomerId() == null || !customers.containsKey(reservation.getCustomerId())) {
+            throw new DataIntegrityViolationException(String.format("reservation.customer_id [%s] does not refer to a customer", reservation.getCustomerId()));
+        }
+
+        if (reservation.getParkingSpotId() == null || !parkingSpots.containsKey(reservation.getParkingSpotId())) {
+            throw new DataIntegrityViolationException(String.format("reservation.parking_spot_id [%s] does not refer to a parking spot", reservation.getParkingSpotId()));
+        }
+
+        if (reservation.getStartTime() == null) {
+            throw new DataIntegrityViolationException("reservation.start_time must not be null");
+        }
+    }
+
+    /**
+     * Called under the lock of the reservation's entry, so the indexes of one reservation change in the same order as
+     * the reservation; the free parking spots change under the lock of the parking spot's entry.
+     */
+    private void index(final ReservationDto reservation) {
+        reservationIdsByCustomerId.compute(reservation.getCustomerId(), (customerId, ids) -> {
+            final NavigableSet<Long> indexed = ids == null ? new ConcurrentSkipListSet<>() : ids;
+            indexed.add(reservation.getId());
+            return indexed;
+        });
+
+        reservationIdsByParkingSpotId.compute(reservation.getParkingSpotId(), (parkingSpotId, ids) -> {
+            final Set<Long> indexed = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            indexed.add(reservation.getId());
+            freeParkingSpotIds.remove(parkingSpotId);
+            return indexed;
+        });
+    }
+
+    private void unindex(final ReservationDto reservation) {
+        reservationIdsByCustomerId.computeIfPresent(reservation.getCustomerId(), (customerId, ids) -> {
+            ids.remove(reservation.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+
+        reservationIdsByParkingSpotId.computeIfPresent(reservation.getParkingSpotId(), (parkingSpotId, ids) -> {
+            ids.remove(reservation.getId());
+
+            if (!ids.isEmpty()) {
+                return ids;
+            }
+
+            freeParkingSpotIds.add(parkingSpotId);
+            return null;
+        });
+    }
+
+    private void removeFromFloor(final ParkingSpot parkingSpot) {
+        parkingSpotIdsByFloor.computeIfPresent(parkingSpot.getFloor(), (floor, ids) -> {
+            ids.remove(parkingSpot.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Writes the transaction's changes to the journal between a begin and a commit record and waits until they are
+     * forced, once for the whole transaction.
+     */
+    void commit(final UndoLog undoLog) {
+        if (journal != null && !undoLog.changes.isEmpty()) {
+            journal.commit(undoLog.changes);
+            journal.awaitForced();
+        }
+    }
+
+    /**
+     * Drops the transaction's journal records and applies its inverses. The inverses are written to the journal as a
+     * transaction of their own: they restore what the journal already has, unless another transaction has changed the
+     * same entries in between.
+     */
+    void rollback(final UndoLog undoLog) {
+        final UndoLog inverses = new UndoLog();
+
+        TransactionSynchronizationManager.bindResource(this, inverses);
+        try {
+            undoLog.replay();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(this);
+        }
+
+        try {
+            commit(inverses);
+        } finally {
+            complete(inverses);
+        }
+    }
+
+    /**
+     * Lets a waiting snapshot go on once the transaction has committed or rolled back.
+     */
+    void complete(final UndoLog undoLog) {
+        if (undoLog.changing) {
+            undoLog.changing = false;
+            transactions.readLock().unlock();
+        }
+    }
+
+    private void append(final Function<MemoryJournal, byte[]> change) {
+        if (journal == null) {
+            return;
+        }
+
+        final byte[] record = change.apply(journal);
+        final UndoLog undoLog = undoLog();
+
+        if (undoLog != null) {
+            undoLog.changes.add(record);
+        } else {
+            journal.commit(List.of(record));
+        }
+    }
+
+    private void undo(final Runnable inverse) {
+        final UndoLog undoLog = undoLog();
+
+        if (undoLog != null) {
+            undoLog.record(inverse);
+        }
+    }
+
+    private UndoLog undoLog() {
+        return (UndoLog) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private static long nextId(final AtomicLong ids, final Long id) {
+        if (id == null) {
+            return ids.incrementAndGet();
+        }
+
+        ids.accumulateAndGet(id, Math::max);
+        return id;
+    }
+
+    private <T> T exclusively(final Supplier<T> change) {
+        joinTransactions();
+        final T result = locked(lock.writeLock(), change);
+        awaitForced();
+        return result;
+    }
+
+    private <T> T shared(final Supplier<T> change) {
+        joinTransactions();
+        final T result = locked(lock.readLock(), change);
+        awaitForced();
+        return result;
+    }
+
+    /**
+     * Before the lock of the store, which a snapshot takes while it holds {@link #transactions}.
+     */
+    private void joinTransactions() {
+        final UndoLog undoLog = undoLog();
+
+        if (undoLog != null && !undoLog.changing) {
+            transactions.readLock().lock();
+            undoLog.changing = true;
+        }
+    }
+
+    /**
+     * Outside the lock, so that changes of other threads go into the same fsync; a transaction waits on commit.
+     */
+    private void awaitForced() {
+        if (journal != null && undoLog() == null) {
+            journal.awaitForced();
+        }
+    }
+
+    private static <T> T locked(final Lock lock, final Supplier<T> change) {
+        lock.lock();
+        try {
+            return change.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The inverses and the journal records of the changes of one transaction, bound to the store while the
+     * transaction is active.
+     */
+    static final class UndoLog {
+
+        private final Deque<Runnable> inverses = new ArrayDeque<>();
+        private final List<byte[]> changes = new ArrayList<>();
+
+        private boolean rollbackOnly;
+
+        /**
+         * Whether the transaction has changed something and holds the store's lock of the transactions shared.
+         */
+        private boolean changing;
+
+        void record(final Runnable inverse) {
+            inverses.push(inverse);
+        }
+
+        /**
+         * Applies the inverses, the latest first. The log has to be unbound by then, so that the inverses are not
+         * recorded in turn.
+         */
+        void replay() {
+            while (!inverses.isEmpty()) {
+                inverses.pop().run();
+            }
+        }
+
+        boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+
+        void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+    }
+
+    private static Customer copy(final Customer customer) {
+        return Customer.builder()
+                .id(customer.getId())
+                .name(customer.getName())
+                .build();
+    }
+
+    private static ParkingSpot copy(final ParkingSpot parkingSpot) {
+        return ParkingSpot.builder()
+                .id(parkingSpot.getId())
+                .number(parkingSpot.getNumber())
+                .floor(parkingSpot.getFloor())
+                .handicapped(parkingSpot.getHandicapped())
+                .build();
+    }
+
+    private static ReservationDto copy(final ReservationDto reservation) {
+        return ReservationDto.builder()
+                .id(reservation.getId())
+                .customerId(reservation.getCustomerId())
+                .parkingSpotId(reservation.getParkingSpotId())
+                .startTime(reservation.getStartTime())
+                .endTime(reservation.getEndTime())
+                .holdExpiresAt(reservation.getHoldExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.edych.parking.memory;
+
+import org.springframework.transaction.InvalidIsolationLevelException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transactions of the {@code memory} profile. The store applies every change at once; a transaction binds an
+ * {@link MemoryStore.UndoLog} to the store, in which the changes record their inverses and their journal records. A
+ * commit writes the records to the journal as one transaction, and a rollback drops them and applies the inverses, so
+ * that a batch failing halfway leaves nothing behind, neither in the store nor in the journal, while its claims are
+ * given back.
+ * A transaction also carries its synchronizations, so that transactional event listeners run once the call has
+ * completed, as with the database.
+ * <p>
+ * The isolation is read uncommitted: other transactions see a change as soon as it is applied, and see it disappear
+ * again when its transaction rolls back. A transaction asking for a stronger isolation is refused rather than given
+ * less than it asked for.
+ */
+class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    private final MemoryStore store;
+
+    MemoryTransactionManager(final MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new MemoryTransaction((MemoryStore.UndoLog) TransactionSynchronizationManager.getResource(store));
+    }
+
+    @Override
+    protected boolean isExistingTransaction(final Object transaction) {
+        return ((MemoryTransaction) transaction).undoLog != null;
+    }
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        if (definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT
+                && definition.getIsolationLevel() != TransactionDefinition.ISOLATION_READ_UNCOMMITTED) {
+            throw new InvalidIsolationLevelException("The memory store only isolates transactions as read uncommitted");
+        }
+
+        final MemoryStore.UndoLog undoLog = new MemoryStore.UndoLog();
+        TransactionSynchronizationManager.bindResource(store, undoLog);
+        ((MemoryTransaction) transaction).undoLog = undoLog;
+    }
+
+    @Override
+    protected Object doSuspend(final Object transaction) {
+        ((MemoryTransaction) transaction).undoLog = null;
+        return TransactionSynchronizationManager.unbindResource(store);
+    }
+
+    @Override
+    protected void doResume(final Object transaction, final Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(store, suspendedResources);
+    }
+
+    /**
+     * Runs after the before-commit callbacks, so their changes are journaled with the rest of the transaction.
+     */
+    @Override
+    protected void doCommit(final DefaultTransactionStatus status) {
+        // unbound first, so that changes of the after-commit callbacks are journaled on their own
+        TransactionSynchronizationManager.unbindResourceIfPossible(store);
+        store.commit(((MemoryTransaction) status.getTransaction()).undoLog);
+    }
+
+    @Override
+    protected void doRollback(final DefaultTransactionStatus status) {
+        // unbound first, so that the inverses are not recorded in the log they are replayed from
+        TransactionSynchronizationManager.unbindResourceIfPossible(store);
+        store.rollback(((MemoryTransaction) status.getTransaction()).undoLog);
+    }
+
+    @Override
+    protected void doSetRollbackOnly(final DefaultTransactionStatus status) {
+        ((MemoryTransaction) status.getTransaction()).undoLog.setRollbackOnly();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(final Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(store);
+        store.complete(((MemoryTransaction) transaction).undoLog);
+    }
+
+    private static final class MemoryTransaction implements SmartTransactionObject {
+
+        private MemoryStore.UndoLog undoLog;
+
+        private MemoryTransaction(final MemoryStore.UndoLog undoLog) {
+            this.undoLog = undoLog;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return undoLog != null && undoLog.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+            // every change is applied at once
+        }
+    }
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.io.Serializable;
+import java.time.Instant;
 
 @Data
 @Builder
@@ -16,7 +17,8 @@ import java.io.Serializable;
 public class Reservation implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -24,6 +26,22 @@ public class Reservation implements Serializable {
     @JoinColumn(name = "customer_id")
     private Customer customer;
 
-    @OneToOne
+    @ManyToOne
+    @JoinColumn(name = "parking_spot_id")
     private ParkingSpot parkingSpot;
+
+    @Column(name = "start_time", nullable = false)
+    private Instant startTime;
+
+    /**
+     * {@code null} for a reservation without an end.
+     */
+    @Column(name = "end_time")
+    private Instant endTime;
+
+    /**
+     * When an unconfirmed hold is released, {@code null} for a regular or a confirmed reservation.
+     */
+    @Column(name = "hold_expires_at")
+    private Instant holdExpiresAt;
 }
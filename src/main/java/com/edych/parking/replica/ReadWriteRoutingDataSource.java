@@ -0,0 +1,35 @@
+package com.edych.parking.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out connections of the replica to read-only transactions that {@link ReplicaRouting} lets read from it, and
+ * of the primary to everything else. The transaction has to be known when the connection is taken, so this sits
+ * behind a {@code LazyConnectionDataSourceProxy}, which takes it on the first statement.
+ */
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaRouting replicaRouting;
+
+    ReadWriteRoutingDataSource(final DataSource primary, final DataSource replica, final ReplicaRouting replicaRouting) {
+        this.replicaRouting = replicaRouting;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaRouting.isReplicaReadable()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,36 @@
+package com.edych.parking.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "parking.replica")
+public class ReplicaProperties {
+
+    /**
+     * Sends read-only transactions to the replica and all others to the {@code spring.datasource} primary. The pool
+     * of the replica is configured by {@code parking.replica.hikari.*}.
+     */
+    private boolean enabled;
+
+    private String url;
+
+    private String username = "sa";
+
+    private String password = "";
+
+    /**
+     * Read-only transactions go to the primary while the replica is further behind than this.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Copies the primary into the replica every {@code standInInterval}, in place of a real replication, e.g. between
+     * two H2 databases. Meant for local runs and tests only, every round copies all tables.
+     */
+    private boolean standIn;
+
+    private Duration standInInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,109 @@
+package com.edych.parking.replica;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a read-only transaction may read from the replica: only when the replica has caught up to within
+ * {@code parking.replica.max-lag} of the primary, and, when the transaction reads for a customer, only once it holds
+ * that customer's last reservation change. So a customer always reads its own reservations right after changing them,
+ * while everybody else may see them a little later.
+ */
+@Component
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRouting {
+
+    private final ReplicaProperties properties;
+
+    /**
+     * Commits of reservation changes, by customer, that the replica may not hold yet.
+     */
+    private final Map<Long, Instant> lastChangeByCustomerId = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> readingCustomerId = new ThreadLocal<>();
+
+    /**
+     * The replica holds everything committed on the primary before this instant; {@code null} until it is known.
+     */
+    private volatile Instant replicatedUpTo;
+
+    public ReplicaRouting(final ReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Marks the current transaction as reading for the customer, until it completes.
+     */
+    public void readFor(final Long customerId) {
+        if (!properties.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        readingCustomerId.set(customerId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                readingCustomerId.remove();
+            }
+        });
+    }
+
+    /**
+     * Reports the progress of the replication, e.g. read from a heartbeat row or by {@link ReplicationStandIn}.
+     */
+    public void replicated(final Instant upTo) {
+        replicatedUpTo = upTo;
+
+        final Instant outdated = Instant.now().minus(properties.getMaxLag());
+        lastChangeByCustomerId.values().removeIf(change -> change.isBefore(upTo) || change.isBefore(outdated));
+    }
+
+    /**
+     * @return whether the current transaction may read from the replica, provided it is read-only
+     */
+    boolean isReplicaReadable() {
+        final Instant upTo = replicatedUpTo;
+
+        if (upTo == null || upTo.isBefore(Instant.now().minus(properties.getMaxLag()))) {
+            return false;
+        }
+
+        final Long customerId = readingCustomerId.get();
+        final Instant lastChange = customerId == null ? null : lastChangeByCustomerId.get(customerId);
+
+        return lastChange == null || lastChange.isBefore(upTo);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsCreated(final ReservationsCreatedEvent event) {
+        changed(event.getReservations());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsDeleted(final ReservationsDeletedEvent event) {
+        changed(event.getReservations());
+    }
+
+    /**
+     * Runs after the commit, so the recorded instant is never earlier than the commit itself.
+     */
+    private void changed(final List<ReservationDto> reservations) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        final Instant now = Instant.now();
+        reservations.forEach(reservation -> lastChangeByCustomerId.put(reservation.getCustomerId(), now));
+    }
+}
@@ -0,0 +1,65 @@
+package com.edych.parking.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code parking.replica.enabled} the application gets a pool for the primary, configured by
+ * {@code spring.datasource}, and a read-only one for the replica, and JPA, Liquibase and the rest use the data source
+ * routing between them. Without a real replication, {@code parking.replica.stand-in} fills the replica itself.
+ */
+@Configuration
+@Profile("!memory")
+@ConditionalOnProperty(prefix = "parking.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("parking.replica.hikari")
+    public HikariDataSource replicaDataSource(final ReplicaProperties properties) {
+        final HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") final DataSource primary,
+                                 @Qualifier("replicaDataSource") final DataSource replica,
+                                 final ReplicaRouting replicaRouting) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, replicaRouting));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "parking.replica", name = "stand-in", havingValue = "true")
+    public ReplicationStandIn replicationStandIn(@Qualifier("primaryDataSource") final DataSource primary,
+                                                 final ReplicaProperties properties, final ReplicaRouting replicaRouting) {
+        return new ReplicationStandIn(primary, properties, replicaRouting);
+    }
+}
@@ -0,0 +1,142 @@
+package com.edych.parking.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Stands in for the replication between two H2 databases: the first round copies the schema of the primary into the
+ * replica, every round replaces all rows of the replica with those of the primary in one transaction, so readers of
+ * the replica see one round or the next, never a mix. The replica lags by up to {@code parking.replica.stand-in-interval}
+ * plus the time of a round, which it reports to {@link ReplicaRouting}.
+ */
+@Slf4j
+public class ReplicationStandIn {
+
+    private static final String TABLES = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE IN ('TABLE', 'BASE TABLE')";
+
+    private final DataSource primary;
+    private final ReplicaProperties properties;
+    private final ReplicaRouting replicaRouting;
+
+    private boolean schemaCopied;
+
+    ReplicationStandIn(final DataSource primary, final ReplicaProperties properties, final ReplicaRouting replicaRouting) {
+        this.primary = primary;
+        this.properties = properties;
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Scheduled(fixedDelayString = "${parking.replica.stand-in-interval:PT1S}")
+    public synchronized void replicate() {
+        final Instant upTo = Instant.now();
+
+        // the pool of the replica is read-only, the stand-in writes through a connection of its own
+        try (final Connection from = primary.getConnection();
+             final Connection to = DriverManager.getConnection(properties.getUrl(), properties.getUsername(), properties.getPassword())) {
+            if (!schemaCopied) {
+                copySchema(from, to);
+                schemaCopied = true;
+            }
+
+            // one snapshot of the primary for all tables; REPEATABLE_READ of H2 1.4.200 fails on tables without constraints
+            from.setAutoCommit(false);
+            from.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            to.setAutoCommit(false);
+
+            for (final String table : tables(from)) {
+                copyRows(from, to, table);
+            }
+
+            to.commit();
+            from.commit();
+        } catch (final SQLException e) {
+            throw new DataAccessResourceFailureException("Replicating the primary failed", e);
+        }
+
+        replicaRouting.replicated(upTo);
+    }
+
+    /**
+     * Referential integrity is switched off in the replica, so that tables are copied in any order.
+     */
+    private static void copySchema(final Connection from, final Connection to) throws SQLException {
+        final List<String> statements = new ArrayList<>();
+
+        try (final Statement statement = from.createStatement();
+             final ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                if (!script.getString(1).startsWith("--")) {
+                    statements.add(script.getString(1));
+                }
+            }
+        }
+
+        try (final Statement statement = to.createStatement()) {
+            for (final String sql : statements) {
+                statement.execute(sql);
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+
+        log.info("Copied the schema of the primary to the replica {}", to.getMetaData().getURL());
+    }
+
+    private static List<String> tables(final Connection from) throws SQLException {
+        final List<String> tables = new ArrayList<>();
+
+        try (final Statement statement = from.createStatement();
+             final ResultSet result = statement.executeQuery(TABLES)) {
+            while (result.next()) {
+                tables.add(result.getString(1));
+            }
+        }
+
+        return tables;
+    }
+
+    private static void copyRows(final Connection from, final Connection to, final String table) throws SQLException {
+        try (final Statement delete = to.createStatement()) {
+            delete.executeUpdate("DELETE FROM \"" + table + "\"");
+        }
+
+        try (final Statement select = from.createStatement();
+             final ResultSet rows = select.executeQuery("SELECT * FROM \"" + table + "\"")) {
+            final int columns = rows.getMetaData().getColumnCount();
+            final String parameters = IntStream.range(0, columns)
+                    .mapToObj(column -> "?")
+                    .collect(Collectors.joining(", "));
+
+            try (final PreparedStatement insert = to.prepareStatement("INSERT INTO \"" + table + "\" VALUES (" + parameters + ")")) {
+                int batched = 0;
+
+                while (rows.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        insert.setObject(column, rows.getObject(column));
+                    }
+                    insert.addBatch();
+
+                    if (++batched % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+
+                insert.executeBatch();
+            }
+        }
+    }
+}
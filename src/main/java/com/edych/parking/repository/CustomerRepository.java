@@ -1,10 +1,33 @@
 package com.edych.parking.repository;
 
+import com.edych.parking.config.CacheConfig;
 import com.edych.parking.model.Customer;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 @Repository
-public interface CustomerRepository extends CrudRepository<Customer, Long> {
+public interface CustomerRepository extends EntityRepository<Customer> {
+
+    /**
+     * Only existing customers are cached, so a new customer is never hidden by an earlier miss.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, unless = "!#result")
+    boolean existsById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#result.id")
+    <S extends Customer> S save(S customer);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#p0")
+    void deleteById(Long id);
 
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
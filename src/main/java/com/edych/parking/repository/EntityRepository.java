@@ -0,0 +1,32 @@
+package com.edych.parking.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The operations by id the services need, implemented by {@code SimpleJpaRepository} for the JPA repositories and
+ * in full by the {@code memory} profile, instead of all of {@code JpaRepository}.
+ */
+@NoRepositoryBean
+public interface EntityRepository<T> extends Repository<T, Long> {
+
+    boolean existsById(Long id);
+
+    Optional<T> findById(Long id);
+
+    /**
+     * @return a reference to the entity, which JPA does not read until it is accessed
+     */
+    T getById(Long id);
+
+    List<T> findAll();
+
+    <S extends T> S save(S entity);
+
+    <S extends T> List<S> saveAll(Iterable<S> entities);
+
+    void deleteById(Long id);
+}
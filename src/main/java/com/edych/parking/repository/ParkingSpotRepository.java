@@ -1,17 +1,32 @@
 package com.edych.parking.repository;
 
 import com.edych.parking.model.ParkingSpot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ParkingSpotRepository extends CrudRepository<ParkingSpot, Long> {
-
-    List<ParkingSpot> findAll();
+public interface ParkingSpotRepository extends EntityRepository<ParkingSpot> {
 
     @Query("SELECT ps from Reservation r RIGHT JOIN r.parkingSpot ps WHERE r.parkingSpot IS NULL")
     List<ParkingSpot> getAllAvailable();
+
+    @Query("SELECT ps FROM ParkingSpot ps WHERE ps.floor = :floor AND ps.handicapped = :handicapped "
+            + "AND NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.parkingSpot = ps) ORDER BY ps.id")
+    List<ParkingSpot> getAvailable(Integer floor, Boolean handicapped, Pageable pageable);
+
+    /**
+     * Locks the rows of the spots until the transaction ends, in id order, so that the inserts of reservations for
+     * the same spot check for overlaps one after another, also across instances.
+     *
+     * @return the ids of the spots that exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ps.id FROM ParkingSpot ps WHERE ps.id IN :ids ORDER BY ps.id")
+    List<Long> lockAllById(Collection<Long> ids);
 }
@@ -0,0 +1,22 @@
+package com.edych.parking.repository;
+
+import com.edych.parking.dto.ReservationDto;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deletes that take out any number of reservations with a single statement and hand back what they deleted, so that
+ * the spots can be freed without reading the reservations first.
+ */
+public interface ReservationBulkDeleteRepository {
+
+    List<ReservationDto> deleteDtoById(Long id);
+
+    List<ReservationDto> deleteAllDtoByCustomerId(Long customerId);
+
+    List<ReservationDto> deleteAllDtoByFloor(Integer floor);
+
+    List<ReservationDto> deleteAllDtoHeldByIdInExpiredAt(Collection<Long> ids, Instant now);
+}
@@ -0,0 +1,82 @@
+package com.edych.parking.repository;
+
+import com.edych.parking.dto.ReservationDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The deleted rows are selected from H2's {@code OLD TABLE} of the {@code DELETE}, so the rows are read and removed
+ * by the same statement and nothing inserted or deleted in between can be missed or reported twice.
+ */
+class ReservationBulkDeleteRepositoryImpl implements ReservationBulkDeleteRepository {
+
+    private static final String DELETED = "SELECT id, customer_id, parking_spot_id, start_time, end_time, hold_expires_at "
+            + "FROM OLD TABLE (DELETE FROM reservation WHERE %s)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ReservationDto> deleteDtoById(final Long id) {
+        return delete("id = :value", id);
+    }
+
+    @Override
+    public List<ReservationDto> deleteAllDtoByCustomerId(final Long customerId) {
+        return delete("customer_id = :value", customerId);
+    }
+
+    @Override
+    public List<ReservationDto> deleteAllDtoByFloor(final Integer floor) {
+        return delete("parking_spot_id IN (SELECT ps.id FROM parking_spot ps WHERE ps.floor = :value)", floor);
+    }
+
+    @Override
+    public List<ReservationDto> deleteAllDtoHeldByIdInExpiredAt(final Collection<Long> ids, final Instant now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return delete("id IN (:ids) AND hold_expires_at <= :now", Map.of("ids", ids, "now", now));
+    }
+
+    private List<ReservationDto> delete(final String condition, final Object value) {
+        return delete(condition, Collections.singletonMap("value", value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ReservationDto> delete(final String condition, final Map<String, Object> parameters) {
+        final Query query = entityManager.createNativeQuery(String.format(DELETED, condition));
+        parameters.forEach(query::setParameter);
+
+        final List<Object[]> rows = query.getResultList();
+
+        return rows.stream()
+                .map(ReservationBulkDeleteRepositoryImpl::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private static ReservationDto toDto(final Object[] row) {
+        return ReservationDto.builder()
+                .id(((Number) row[0]).longValue())
+                .customerId(((Number) row[1]).longValue())
+                .parkingSpotId(((Number) row[2]).longValue())
+                .startTime(toInstant(row[3]))
+                .endTime(toInstant(row[4]))
+                .holdExpiresAt(toInstant(row[5]))
+                .build();
+    }
+
+    private static Instant toInstant(final Object timestamp) {
+        return timestamp == null ? null : ((Timestamp) timestamp).toInstant();
+    }
+}
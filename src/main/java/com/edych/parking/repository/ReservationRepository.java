@@ -1,17 +1,69 @@
 package com.edych.parking.repository;
 
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.ReservationDto;
 import com.edych.parking.model.Reservation;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReservationRepository extends CrudRepository<Reservation, Long> {
+public interface ReservationRepository extends EntityRepository<Reservation>, ReservationBulkDeleteRepository {
 
     boolean existsByParkingSpotId(Long parkingSpotId);
 
-    List<Reservation> findAllByCustomerId(Long customerId);
+    @Query("SELECT new com.edych.parking.dto.ReservationDto(r.id, r.customer.id, r.parkingSpot.id, r.startTime, r.endTime, r.holdExpiresAt) "
+            + "FROM Reservation r WHERE r.customer.id = :customerId ORDER BY r.id")
+    List<ReservationDto> findAllDtoByCustomerId(Long customerId);
 
-    List<Reservation> findAll();
+    @Query("SELECT new com.edych.parking.dto.ReservationDto(r.id, r.customer.id, r.parkingSpot.id, r.startTime, r.endTime, r.holdExpiresAt) "
+            + "FROM Reservation r WHERE r.customer.id = :customerId AND r.id > :after ORDER BY r.id")
+    List<ReservationDto> findPageDtoByCustomerId(Long customerId, Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.edych.parking.dto.ReservationDto(r.id, r.customer.id, r.parkingSpot.id, r.startTime, r.endTime, r.holdExpiresAt) "
+            + "FROM Reservation r WHERE r.customer.id = :customerId ORDER BY r.id")
+    Stream<ReservationDto> streamAllDtoByCustomerId(Long customerId);
+
+    /**
+     * Whether the window overlaps a reservation of the spot in the database, whichever instance made it. Both
+     * queries seek {@code idx_reservation_parking_spot_id_start_time}.
+     */
+    default boolean existsOverlapping(final Long parkingSpotId, final ReservationWindow window) {
+        return window.getEnd() == null
+                ? existsByParkingSpotIdNotEndedAt(parkingSpotId, window.getStart())
+                : existsByParkingSpotIdOverlapping(parkingSpotId, window.getStart(), window.getEnd());
+    }
+
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r "
+            + "WHERE r.parkingSpot.id = :parkingSpotId AND (r.endTime IS NULL OR r.endTime > :start)")
+    boolean existsByParkingSpotIdNotEndedAt(Long parkingSpotId, Instant start);
+
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r "
+            + "WHERE r.parkingSpot.id = :parkingSpotId AND r.startTime < :end AND (r.endTime IS NULL OR r.endTime > :start)")
+    boolean existsByParkingSpotIdOverlapping(Long parkingSpotId, Instant start, Instant end);
+
+    @Query("SELECT new com.edych.parking.dto.ReservationDto(r.id, r.customer.id, r.parkingSpot.id, r.startTime, r.endTime, r.holdExpiresAt) "
+            + "FROM Reservation r WHERE r.parkingSpot.id IN :parkingSpotIds AND (r.endTime IS NULL OR r.endTime > :start)")
+    List<ReservationDto> findAllDtoByParkingSpotIdInNotEndedAt(Collection<Long> parkingSpotIds, Instant start);
+
+    @Query("SELECT new com.edych.parking.dto.ReservationDto(r.id, r.customer.id, r.parkingSpot.id, r.startTime, r.endTime, r.holdExpiresAt) "
+            + "FROM Reservation r WHERE r.endTime IS NULL OR r.endTime > :now")
+    List<ReservationDto> findAllDtoNotEndedAt(Instant now);
+
+    @Query("SELECT new com.edych.parking.dto.ReservationDto(r.id, r.customer.id, r.parkingSpot.id, r.startTime, r.endTime, r.holdExpiresAt) "
+            + "FROM Reservation r WHERE r.holdExpiresAt IS NOT NULL")
+    List<ReservationDto> findAllDtoHeld();
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.holdExpiresAt = NULL WHERE r.id = :id AND r.holdExpiresAt > :now")
+    int confirmHold(Long id, Instant now);
 }
@@ -1,12 +1,13 @@
 package com.edych.parking.service;
 
+import com.edych.parking.availability.AvailabilityIndex;
+import com.edych.parking.availability.AvailabilityStream;
+import com.edych.parking.availability.ParkingSpotClaims;
+import com.edych.parking.availability.ReservationWindow;
 import com.edych.parking.dto.ParkingSpotDto;
-import com.edych.parking.mapper.ParkingSpotDtoMapper;
-import com.edych.parking.model.ParkingSpot;
-import com.edych.parking.repository.ParkingSpotRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -14,12 +15,28 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ParkingSpotService {
 
-    private final ParkingSpotRepository parkingSpotRepository;
-    private final ParkingSpotDtoMapper parkingSpotDtoMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityStream availabilityStream;
+    private final ParkingSpotClaims parkingSpotClaims;
 
-    @Transactional(readOnly = true)
     public List<ParkingSpotDto> getAllAvailable() {
-        final List<ParkingSpot> parkingSpots = parkingSpotRepository.getAllAvailable();
-        return parkingSpotDtoMapper.toDtos(parkingSpots);
+        return availabilityIndex.getAllAvailable();
+    }
+
+    public List<ParkingSpotDto> getAvailable(final Integer floor, final Boolean handicapped, final int limit) {
+        return availabilityIndex.getAvailable(floor, handicapped, limit);
+    }
+
+    public List<ParkingSpotDto> getAvailable(final Integer floor, final Boolean handicapped, final int limit,
+                                             final ReservationWindow window) {
+        return availabilityIndex.getAvailable(floor, handicapped, limit, id -> parkingSpotClaims.isFree(id, window));
+    }
+
+    public String getAvailabilityVersion(final Integer floor) {
+        return availabilityIndex.getVersion(floor);
+    }
+
+    public SseEmitter streamAvailable() {
+        return availabilityStream.subscribe();
     }
 }
@@ -1,20 +1,44 @@
 package com.edych.parking.service;
 
+import com.edych.parking.availability.ParkingSpotClaims;
+import com.edych.parking.availability.ParkingSpotFreeLists;
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.availability.Segment;
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationBatchResultDto;
 import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.dto.SpotPreferenceDto;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import com.edych.parking.exception.BadRequestException;
 import com.edych.parking.exception.ConflictException;
 import com.edych.parking.exception.NotFoundException;
 import com.edych.parking.mapper.ReservationDtoMapper;
 import com.edych.parking.model.Customer;
 import com.edych.parking.model.ParkingSpot;
 import com.edych.parking.model.Reservation;
+import com.edych.parking.replica.ReplicaRouting;
 import com.edych.parking.repository.CustomerRepository;
 import com.edych.parking.repository.ParkingSpotRepository;
 import com.edych.parking.repository.ReservationRepository;
+import com.edych.parking.stripes.WriteStripes;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,53 +48,380 @@ public class ReservationService {
     private final CustomerRepository customerRepository;
     private final ParkingSpotRepository parkingSpotRepository;
     private final ReservationDtoMapper reservationDtoMapper;
+    private final ParkingSpotClaims parkingSpotClaims;
+    private final ParkingSpotFreeLists parkingSpotFreeLists;
+    private final WriteStripes writeStripes;
+    private final ReplicaRouting replicaRouting;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Reserves the spot for the requested window, or from now on without an end when no window is given.
+     */
     @Transactional
     public ReservationDto create(final ReservationDto dto) {
-        final Customer customer = customerRepository.findById(dto.getCustomerId())
-                .orElseThrow(() -> new NotFoundException("customer", dto.getCustomerId()));
+        return create(dto, null);
+    }
+
+    /**
+     * Like {@link #create(ReservationDto)}, but the reservation is deleted at {@code expiresAt} unless it is confirmed.
+     */
+    @Transactional
+    public ReservationDto createHold(final ReservationDto dto, final Instant expiresAt) {
+        return create(dto, expiresAt);
+    }
+
+    /**
+     * @throws NotFoundException when there is no hold with the id or it has expired
+     */
+    @Transactional
+    public ReservationDto confirmHold(final Long id) {
+        if (reservationRepository.confirmHold(id, Instant.now()) == 0) {
+            throw new NotFoundException("hold", id);
+        }
 
-        final ParkingSpot parkingSpot = parkingSpotRepository.findById(dto.getParkingSpotId())
-                .orElseThrow(() -> new NotFoundException("parkingSpot", dto.getParkingSpotId()));
+        return reservationRepository.findById(id)
+                .map(reservationDtoMapper::toDto)
+                .orElseThrow(() -> new NotFoundException("hold", id));
+    }
+
+    /**
+     * Deletes the holds of the given ids that have expired by {@code now} with a single statement; confirmed or
+     * already deleted ones are skipped.
+     *
+     * @return the number of holds deleted
+     */
+    @Transactional
+    public int deleteExpiredHolds(final Collection<Long> ids, final Instant now) {
+        final List<ReservationDto> expired = reservationRepository.deleteAllDtoHeldByIdInExpiredAt(ids, now);
 
-        final boolean spotTaken = reservationRepository.existsByParkingSpotId(dto.getParkingSpotId());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        lockParkingSpotsOf(expired);
+        eventPublisher.publishEvent(new ReservationsDeletedEvent(expired));
+
+        return expired.size();
+    }
 
-        if (spotTaken) {
+    private ReservationDto create(final ReservationDto dto, final Instant holdExpiresAt) {
+        final ReservationWindow window = ReservationWindow.requested(dto.getStartTime(), dto.getEndTime());
+
+        final ParkingSpotClaims.Result claim = parkingSpotClaims.claim(dto.getParkingSpotId(), window);
+
+        if (claim == ParkingSpotClaims.Result.NOT_FOUND) {
+            throw new NotFoundException("parkingSpot", dto.getParkingSpotId());
+        }
+
+        if (claim == ParkingSpotClaims.Result.TAKEN) {
             final String msg = String.format("Parking spot id [%s] is already taken", dto.getParkingSpotId());
             throw new ConflictException(msg);
         }
 
+        writeStripes.lockParkingSpot(dto.getParkingSpotId());
+
+        verifyCustomerExists(dto.getCustomerId());
+        verifyNotOverlapping(dto.getParkingSpotId(), window);
+
+        final Customer customer = customerRepository.getById(dto.getCustomerId());
+        final ParkingSpot parkingSpot = parkingSpotRepository.getById(dto.getParkingSpotId());
+
         final Reservation reservation = Reservation.builder()
                 .customer(customer)
                 .parkingSpot(parkingSpot)
+                .startTime(window.getStart())
+                .endTime(window.getEnd())
+                .holdExpiresAt(holdExpiresAt)
                 .build();
 
-        final Reservation saved = reservationRepository.save(reservation);
+        return save(reservation);
+    }
+
+    /**
+     * Reserves the first spot of the preferred segments free in the requested window, tried in the order of the
+     * preferences. Without preferences any spot is taken, regular ones before handicapped ones.
+     */
+    @Transactional
+    public ReservationDto createAuto(final AutoReservationDto dto) {
+        final ReservationWindow window = ReservationWindow.requested(dto.getStartTime(), dto.getEndTime());
+
+        verifyCustomerExists(dto.getCustomerId());
+
+        final List<SpotPreferenceDto> preferences = dto.getPreferences() == null || dto.getPreferences().isEmpty()
+                ? List.of(new SpotPreferenceDto())
+                : dto.getPreferences();
 
-        return reservationDtoMapper.toDto(saved);
+        final List<Segment> segments = preferences.stream()
+                .flatMap(preference -> parkingSpotFreeLists.segmentsMatching(preference.getFloor(), preference.getHandicapped()).stream())
+                .distinct()
+                .collect(Collectors.toList());
+
+        final Long parkingSpotId = parkingSpotFreeLists.claimFirstFree(segments, window);
+
+        if (parkingSpotId == null) {
+            throw new ConflictException("There is no available parking spot matching the preferences");
+        }
+
+        writeStripes.lockParkingSpot(parkingSpotId);
+        verifyNotOverlapping(parkingSpotId, window);
+
+        final Reservation reservation = Reservation.builder()
+                .customer(customerRepository.getById(dto.getCustomerId()))
+                .parkingSpot(parkingSpotRepository.getById(parkingSpotId))
+                .startTime(window.getStart())
+                .endTime(window.getEnd())
+                .build();
+
+        return save(reservation);
     }
 
+    /**
+     * Creates every valid reservation of the batch in one transaction and reports the outcome per item.
+     * Customers are validated with a single IN query and spots by the claim table, and the inserts are
+     * sent as JDBC batches. The claimed spots are then locked and their reservations read with one more query, and an
+     * item whose window another instance has reserved meanwhile is reported as a conflict.
+     */
+    @Transactional
+    public List<ReservationBatchResultDto> createAll(final List<ReservationDto> dtos) {
+        final Set<Long> customerIds = dtos.stream()
+                .map(ReservationDto::getCustomerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        final Set<Long> existingCustomerIds = customerIds.isEmpty() ? Set.of() : customerRepository.findExistingIds(customerIds);
+
+        final List<ReservationBatchResultDto> results = new ArrayList<>(dtos.size());
+        final List<Reservation> reservations = new ArrayList<>();
+        final List<ReservationBatchResultDto> created = new ArrayList<>();
+        final List<ReservationWindow> windows = new ArrayList<>();
+
+        for (final ReservationDto dto : dtos) {
+            final ReservationBatchResultDto result = ReservationBatchResultDto.builder()
+                    .reservation(dto)
+                    .build();
+            results.add(result);
+
+            if (dto.getId() != null) {
+                result.setStatus(ReservationBatchResultDto.Status.BAD_REQUEST);
+                result.setMessage("a request to create a new Reservation cannot have an id");
+                continue;
+            }
+
+            if (!existingCustomerIds.contains(dto.getCustomerId())) {
+                result.setStatus(ReservationBatchResultDto.Status.NOT_FOUND);
+                result.setMessage(new NotFoundException("customer", dto.getCustomerId()).getMessage());
+                continue;
+            }
+
+            final ReservationWindow window;
+
+            try {
+                window = ReservationWindow.requested(dto.getStartTime(), dto.getEndTime());
+            } catch (final BadRequestException e) {
+                result.setStatus(ReservationBatchResultDto.Status.BAD_REQUEST);
+                result.setMessage(e.getMessage());
+                continue;
+            }
+
+            final ParkingSpotClaims.Result claim = parkingSpotClaims.claim(dto.getParkingSpotId(), window);
+
+            if (claim == ParkingSpotClaims.Result.NOT_FOUND) {
+                result.setStatus(ReservationBatchResultDto.Status.NOT_FOUND);
+                result.setMessage(new NotFoundException("parkingSpot", dto.getParkingSpotId()).getMessage());
+                continue;
+            }
+
+            if (claim == ParkingSpotClaims.Result.TAKEN) {
+                result.setStatus(ReservationBatchResultDto.Status.CONFLICT);
+                result.setMessage(String.format("Parking spot id [%s] is already taken", dto.getParkingSpotId()));
+                continue;
+            }
+
+            result.setStatus(ReservationBatchResultDto.Status.CREATED);
+            created.add(result);
+            windows.add(window);
+            reservations.add(Reservation.builder()
+                    .customer(customerRepository.getById(dto.getCustomerId()))
+                    .parkingSpot(parkingSpotRepository.getById(dto.getParkingSpotId()))
+                    .startTime(window.getStart())
+                    .endTime(window.getEnd())
+                    .build());
+        }
+
+        if (reservations.isEmpty()) {
+            return results;
+        }
+
+        final List<Long> parkingSpotIds = reservations.stream()
+                .map(reservation -> reservation.getParkingSpot().getId())
+                .collect(Collectors.toList());
+
+        writeStripes.lockParkingSpots(parkingSpotIds);
+        parkingSpotRepository.lockAllById(Set.copyOf(parkingSpotIds));
+
+        final Instant earliestStart = windows.stream()
+                .map(ReservationWindow::getStart)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        final Map<Long, List<ReservationWindow>> reservedWindows = reservationRepository
+                .findAllDtoByParkingSpotIdInNotEndedAt(Set.copyOf(parkingSpotIds), earliestStart).stream()
+                .collect(Collectors.groupingBy(ReservationDto::getParkingSpotId,
+                        Collectors.mapping(ReservationWindow::of, Collectors.toList())));
+
+        for (int i = reservations.size() - 1; i >= 0; i--) {
+            final Long parkingSpotId = parkingSpotIds.get(i);
+            final ReservationWindow window = windows.get(i);
+
+            if (reservedWindows.getOrDefault(parkingSpotId, List.of()).stream().anyMatch(window::overlaps)) {
+                parkingSpotClaims.release(parkingSpotId, window);
+                created.get(i).setStatus(ReservationBatchResultDto.Status.CONFLICT);
+                created.get(i).setMessage(String.format("Parking spot id [%s] is already taken", parkingSpotId));
+                created.remove(i);
+                reservations.remove(i);
+            }
+        }
+
+        if (reservations.isEmpty()) {
+            return results;
+        }
+
+        final List<ReservationDto> saved = reservationDtoMapper.toDtos(reservationRepository.saveAll(reservations));
+
+        for (int i = 0; i < saved.size(); i++) {
+            created.get(i).setReservation(saved.get(i));
+        }
+
+        eventPublisher.publishEvent(new ReservationsCreatedEvent(saved));
+
+        return results;
+    }
+
+    /**
+     * Deletes the reservation with a single statement, without loading it first.
+     */
     @Transactional
     public void deleteById(final Long id) {
-        final boolean reservationExists = reservationRepository.existsById(id);
+        final List<ReservationDto> deleted = reservationRepository.deleteDtoById(id);
 
-        if (!reservationExists) {
+        if (deleted.isEmpty()) {
             throw new NotFoundException("reservation", id);
         }
 
-        reservationRepository.deleteById(id);
+        lockParkingSpotsOf(deleted);
+
+        eventPublisher.publishEvent(new ReservationsDeletedEvent(deleted));
+    }
+
+    /**
+     * Deletes all reservations of the customer with a single statement; their spots are freed in one batch.
+     *
+     * @return the number of reservations deleted
+     */
+    @Transactional
+    public int deleteAllByCustomerId(final Long customerId) {
+        final List<ReservationDto> deleted = reservationRepository.deleteAllDtoByCustomerId(customerId);
+
+        if (deleted.isEmpty()) {
+            verifyCustomerExists(customerId);
+            return 0;
+        }
+
+        lockParkingSpotsOf(deleted);
+
+        eventPublisher.publishEvent(new ReservationsDeletedEvent(deleted));
+
+        return deleted.size();
+    }
+
+    /**
+     * Deletes all reservations of the floor's spots with a single statement; the spots are freed in one batch.
+     *
+     * @return the number of reservations deleted
+     */
+    @Transactional
+    public int deleteAllByFloor(final Integer floor) {
+        final List<ReservationDto> deleted = reservationRepository.deleteAllDtoByFloor(floor);
+
+        if (!deleted.isEmpty()) {
+            lockParkingSpotsOf(deleted);
+            eventPublisher.publishEvent(new ReservationsDeletedEvent(deleted));
+        }
+
+        return deleted.size();
     }
 
     @Transactional(readOnly = true)
     public List<ReservationDto> getAllByCustomerId(final Long customerId) {
-        final boolean customerExists = customerRepository.existsById(customerId);
+        replicaRouting.readFor(customerId);
+
+        final List<ReservationDto> allByCustomerId = reservationRepository.findAllDtoByCustomerId(customerId);
 
-        if (!customerExists) {
+        if (allByCustomerId.isEmpty()) {
+            verifyCustomerExists(customerId);
+        }
+
+        return allByCustomerId;
+    }
+
+    /**
+     * Keyset page of the customer's reservations ordered by id: the reservations with an id greater than {@code after}.
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDto> getPageByCustomerId(final Long customerId, final Long after, final int limit) {
+        replicaRouting.readFor(customerId);
+
+        final List<ReservationDto> page = reservationRepository.findPageDtoByCustomerId(customerId, after, PageRequest.of(0, limit));
+
+        if (page.isEmpty()) {
+            verifyCustomerExists(customerId);
+        }
+
+        return page;
+    }
+
+    /**
+     * Hands the customer's reservations to the consumer one by one, as they come off the result set.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllByCustomerId(final Long customerId, final Consumer<ReservationDto> consumer) {
+        replicaRouting.readFor(customerId);
+
+        try (final Stream<ReservationDto> reservations = reservationRepository.streamAllDtoByCustomerId(customerId)) {
+            reservations.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void verifyCustomerExists(final Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
             throw new NotFoundException("customer", customerId);
         }
+    }
+
+    /**
+     * The claim only knows the reservations of this instance, so the spot's row is locked until the transaction
+     * ends and the database is asked for an overlapping reservation of any instance.
+     */
+    private void verifyNotOverlapping(final Long parkingSpotId, final ReservationWindow window) {
+        parkingSpotRepository.lockAllById(List.of(parkingSpotId));
+
+        if (reservationRepository.existsOverlapping(parkingSpotId, window)) {
+            throw new ConflictException(String.format("Parking spot id [%s] is already taken", parkingSpotId));
+        }
+    }
+
+    private void lockParkingSpotsOf(final List<ReservationDto> reservations) {
+        writeStripes.lockParkingSpots(reservations.stream()
+                .map(ReservationDto::getParkingSpotId)
+                .collect(Collectors.toList()));
+    }
+
+    private ReservationDto save(final Reservation reservation) {
+        final Reservation saved = reservationRepository.save(reservation);
+        final ReservationDto savedDto = reservationDtoMapper.toDto(saved);
 
-        final List<Reservation> allByCustomerId = reservationRepository.findAllByCustomerId(customerId);
+        eventPublisher.publishEvent(new ReservationsCreatedEvent(List.of(savedDto)));
 
-        return reservationDtoMapper.toDtos(allByCustomerId);
+        return savedDto;
     }
 }
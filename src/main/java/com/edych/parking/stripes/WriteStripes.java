@@ -0,0 +1,113 @@
+package com.edych.parking.stripes;
+
+import com.edych.parking.availability.ParkingSpotFreeLists;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Striped locks that reservation writes take on the spots they wrote and hold until their transaction completes, so
+ * writes of one partition commit one after the other while writes of different partitions never wait for each other.
+ * <p>
+ * A stripe is only taken once the write has its spots: creates after {@link com.edych.parking.availability.ParkingSpotClaims}
+ * granted the claim, so a losing create is still rejected right away instead of queuing behind the winner, deletes after
+ * their statement returned the deleted rows. A write takes all its stripes at once in ascending order and afterwards
+ * only locks the rows of its own spots and inserts rows no other write can hold, so two writes never wait for each
+ * other in a cycle.
+ * <p>
+ * The locks belong to this instance and are held across the commit. The row lock of the spot already orders writes
+ * of the same spot, across instances too, so the stripes are off unless {@code parking.write-stripes.partition} is
+ * set; they only spare same-spot writes of one instance a wait in the database.
+ */
+@Component
+@EnableConfigurationProperties(WriteStripesProperties.class)
+public class WriteStripes {
+
+    private final ParkingSpotFreeLists parkingSpotFreeLists;
+    private final WriteStripesProperties.Partition partition;
+    private final ReentrantLock[] locks;
+
+    public WriteStripes(final ParkingSpotFreeLists parkingSpotFreeLists, final WriteStripesProperties properties) {
+        if (properties.getStripes() < 1) {
+            throw new IllegalArgumentException("there has to be at least one stripe");
+        }
+
+        this.parkingSpotFreeLists = parkingSpotFreeLists;
+        this.partition = properties.getPartition();
+        this.locks = locks(properties.getStripes());
+    }
+
+    /**
+     * Takes the stripe of the spot until the current transaction completes.
+     */
+    public void lockParkingSpot(final Long parkingSpotId) {
+        lockParkingSpots(List.of(parkingSpotId));
+    }
+
+    /**
+     * Takes the stripes of all the spots in ascending order until the current transaction completes. Meant to be
+     * called once per transaction, with every spot the transaction wrote.
+     */
+    public void lockParkingSpots(final Collection<Long> parkingSpotIds) {
+        if (partition == WriteStripesProperties.Partition.NONE || parkingSpotIds.isEmpty()) {
+            return;
+        }
+
+        lockUntilCompletion(parkingSpotIds.stream()
+                .map(this::stripeOfParkingSpot)
+                .distinct()
+                .sorted()
+                .map(stripe -> locks[stripe])
+                .collect(Collectors.toList()));
+    }
+
+    int stripeOfParkingSpot(final Long parkingSpotId) {
+        if (parkingSpotId == null) {
+            return 0;
+        }
+
+        if (partition == WriteStripesProperties.Partition.FLOOR) {
+            final Integer floor = parkingSpotFreeLists.floorOf(parkingSpotId);
+            // spots that are not loaded share the stripe of the lowest floor
+            return floor == null ? 0 : Math.floorMod(floor, locks.length);
+        }
+
+        return (int) Math.floorMod(parkingSpotId, (long) locks.length);
+    }
+
+    /**
+     * Outside a transaction there is no end to hold the locks until, so nothing is locked.
+     */
+    private static void lockUntilCompletion(final List<ReentrantLock> stripes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        stripes.forEach(ReentrantLock::lock);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                for (int i = stripes.size() - 1; i >= 0; i--) {
+                    stripes.get(i).unlock();
+                }
+            }
+        });
+    }
+
+    private static ReentrantLock[] locks(final int stripes) {
+        final ReentrantLock[] locks = new ReentrantLock[stripes];
+
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        return locks;
+    }
+}
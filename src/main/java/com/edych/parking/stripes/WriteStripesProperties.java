@@ -0,0 +1,27 @@
+package com.edych.parking.stripes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "parking.write-stripes")
+public class WriteStripesProperties {
+
+    public enum Partition {
+        NONE, FLOOR, PARKING_SPOT
+    }
+
+    /**
+     * What writes are partitioned by: with {@code FLOOR} writes on different floors never wait for each other as
+     * long as there are at least as many stripes as floors, with {@code PARKING_SPOT} spots whose ids share a stripe
+     * wait for each other whatever their floor. {@code NONE}, the default, takes no locks at all: the insert locks
+     * the row of its spot in the database anyway, and a stripe is only a lock of this instance held across the
+     * commit, which merely spares same-spot writes of one instance the wait for that row.
+     */
+    private Partition partition = Partition.NONE;
+
+    /**
+     * Locks shared by creates and deletes. Floors and spot ids are assigned to them round robin.
+     */
+    private int stripes = 256;
+}
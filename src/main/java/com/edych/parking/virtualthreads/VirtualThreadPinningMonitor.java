@@ -0,0 +1,117 @@
+package com.edych.parking.virtualthreads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Records {@code jdk.VirtualThreadPinned} flight recorder events, i.e. a virtual thread that blocked while it could
+ * not unmount from its carrier, typically inside {@code synchronized} code of a JDBC driver or pool.
+ * Every pinning is timed in {@code parking.virtual.threads.pinned}, and the stack of each new pinning site is logged
+ * once.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED = "parking.virtual.threads.pinned";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+
+    private final VirtualThreadsProperties properties;
+    private final Timer pinned;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private Recording recording;
+    private Instant collectedUntil = Instant.EPOCH;
+
+    public VirtualThreadPinningMonitor(final VirtualThreadsProperties properties, final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinned = Timer.builder(PINNED)
+                .description("Virtual threads pinned to their carrier thread for longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = new Recording();
+        recording.setName("virtual-thread-pinning");
+        recording.setMaxAge(properties.getPinnedCheckInterval().multipliedBy(6));
+        recording.enable(PINNED_EVENT)
+                .withThreshold(properties.getPinnedThreshold())
+                .withStackTrace();
+        recording.start();
+    }
+
+    /**
+     * Reads the events recorded since the previous run.
+     */
+    @Scheduled(fixedDelayString = "${parking.virtual-threads.pinned-check-interval:PT10S}")
+    public synchronized void collect() throws IOException {
+        final Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+
+        try {
+            recording.dump(file);
+
+            Instant newest = collectedUntil;
+
+            for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (!event.getEndTime().isAfter(collectedUntil)) {
+                    continue;
+                }
+
+                if (event.getEndTime().isAfter(newest)) {
+                    newest = event.getEndTime();
+                }
+
+                report(event);
+            }
+
+            collectedUntil = newest;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    private void report(final RecordedEvent event) {
+        final Duration duration = event.getDuration();
+        pinned.record(duration);
+
+        final List<String> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.toList());
+
+        if (reportedSites.add(String.join("|", frames))) {
+            log.warn("Virtual thread pinned to its carrier for {} ms{}", duration.toMillis(), frames.stream()
+                    .map(frame -> System.lineSeparator() + "\tat " + frame)
+                    .collect(Collectors.joining()));
+        }
+    }
+
+    private static String format(final RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
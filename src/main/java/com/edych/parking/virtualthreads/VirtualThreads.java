@@ -0,0 +1,44 @@
+package com.edych.parking.virtualthreads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread API looked up reflectively, so that the application still builds and runs on Java 11.
+ */
+final class VirtualThreads {
+
+    private static final int MINIMUM_FEATURE_VERSION = 21;
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return Runtime.version().feature() >= MINIMUM_FEATURE_VERSION;
+    }
+
+    /**
+     * @param namePrefix threads are named with this prefix followed by a counter
+     * @throws IllegalStateException when the running JVM has no virtual threads
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(final String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException(String.format("Virtual threads need Java %s or newer, this JVM is %s",
+                    MINIMUM_FEATURE_VERSION, Runtime.version()));
+        }
+
+        try {
+            final Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            final Object builder = ofVirtual.getMethod("name", String.class, long.class)
+                    .invoke(Thread.class.getMethod("ofVirtual").invoke(null), namePrefix, 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (final ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads are not available on " + Runtime.version(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.edych.parking.virtualthreads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in virtual thread mode: Tomcat hands every request to a new virtual thread instead of its platform thread pool,
+ * so the {@code @Transactional} service calls made by the controllers run there too.
+ * Nothing of it is loaded unless {@code parking.virtual-threads.enabled=true}, which fails the startup on a JVM
+ * without virtual threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "parking.virtual-threads", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        log.info("Serving requests on virtual threads");
+
+        return VirtualThreads.newVirtualThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(final ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(final VirtualThreadsProperties properties,
+                                                                   final MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties, meterRegistry);
+    }
+}
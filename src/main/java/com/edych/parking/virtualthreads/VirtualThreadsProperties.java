@@ -0,0 +1,26 @@
+package com.edych.parking.virtualthreads;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "parking.virtual-threads")
+public class VirtualThreadsProperties {
+
+    /**
+     * Runs every request, and the service calls it makes, on its own virtual thread. Needs Java 21 or newer.
+     */
+    private boolean enabled;
+
+    /**
+     * Virtual threads pinned to their carrier for at least this long are counted and reported.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    /**
+     * How often recorded pinning events are collected.
+     */
+    private Duration pinnedCheckInterval = Duration.ofSeconds(10);
+}
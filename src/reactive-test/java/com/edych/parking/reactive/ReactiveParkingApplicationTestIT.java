@@ -0,0 +1,198 @@
+package com.edych.parking.reactive;
+
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.dto.SpotPreferenceDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.List;
+
+@SpringBootTest(
+        classes = ReactiveParkingApplication.class,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest?options=DB_CLOSE_DELAY=-1",
+                "spring.liquibase.url=jdbc:h2:mem:reactivetest;DB_CLOSE_DELAY=-1"
+        })
+@AutoConfigureWebTestClient
+@ActiveProfiles(ReactiveParkingApplication.PROFILE)
+class ReactiveParkingApplicationTestIT {
+
+    private static final Long CUSTOMER_ID = 1L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void shouldCreateReadAndDeleteReservation() {
+        // given
+        final ReservationDto request = reservation(CUSTOMER_ID, 10L);
+
+        // when
+        final ReservationDto created = webTestClient.post().uri("/reservation")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ReservationDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        // then
+        webTestClient.get().uri("/reservations?customerId={customerId}", CUSTOMER_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.parkingSpotId == 10)].id").isEqualTo(created.getId().intValue());
+
+        webTestClient.get().uri("/parking-spot/available?floor=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == 10)]").isEmpty();
+
+        webTestClient.delete().uri("/reservation/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/reservation/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReturnConflictWhenParkingSpotIsAlreadyTaken() {
+        // given
+        final ReservationDto request = reservation(CUSTOMER_ID, 11L);
+
+        webTestClient.post().uri("/reservation")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated();
+
+        // when
+        final WebTestClient.ResponseSpec response = webTestClient.post().uri("/reservation")
+                .bodyValue(request)
+                .exchange();
+
+        // then
+        response.expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Parking spot id [11] is already taken");
+    }
+
+    @Test
+    void shouldReserveAdjacentWindowsButRejectOverlappingOne() {
+        // given
+        final ReservationDto morning = windowed(9L, "2030-01-01T08:00:00Z", "2030-01-01T12:00:00Z");
+        final ReservationDto afternoon = windowed(9L, "2030-01-01T12:00:00Z", "2030-01-01T16:00:00Z");
+        final ReservationDto noon = windowed(9L, "2030-01-01T11:00:00Z", "2030-01-01T13:00:00Z");
+
+        // when
+        webTestClient.post().uri("/reservation").bodyValue(morning).exchange().expectStatus().isCreated();
+        webTestClient.post().uri("/reservation").bodyValue(afternoon).exchange().expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.startTime").isEqualTo("2030-01-01T12:00:00Z");
+        final WebTestClient.ResponseSpec response = webTestClient.post().uri("/reservation").bodyValue(noon).exchange();
+
+        // then
+        response.expectStatus().isEqualTo(409);
+        webTestClient.get().uri("/parking-spot/available?floor=1&startTime=2030-01-01T11:00:00Z&endTime=2030-01-01T12:00:00Z")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == 9)]").doesNotExist();
+        webTestClient.get().uri("/parking-spot/available?floor=1&startTime=2030-01-01T16:00:00Z&endTime=2030-01-01T17:00:00Z")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == 9)]").exists();
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenCustomerDoesNotExist() {
+        // when
+        final WebTestClient.ResponseSpec response = webTestClient.post().uri("/reservation")
+                .bodyValue(reservation(42L, 12L))
+                .exchange();
+
+        // then
+        response.expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Resource [customer] with id [42] does not exist.");
+    }
+
+    @Test
+    void shouldReserveFirstFreeParkingSpotOfPreferredFloor() {
+        // given
+        final AutoReservationDto request = AutoReservationDto.builder()
+                .customerId(CUSTOMER_ID)
+                .preferences(List.of(SpotPreferenceDto.builder().floor(2).handicapped(true).build()))
+                .build();
+
+        // when
+        final WebTestClient.ResponseSpec response = webTestClient.post().uri("/reservation/auto")
+                .bodyValue(request)
+                .exchange();
+
+        // then
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.customerId").isEqualTo(CUSTOMER_ID.intValue())
+                .jsonPath("$.parkingSpotId").isEqualTo(16);
+    }
+
+    @Test
+    void shouldReportOutcomePerItemOfBatch() {
+        // given
+        final List<ReservationDto> request = List.of(
+                reservation(CUSTOMER_ID, 13L),
+                reservation(CUSTOMER_ID, 13L),
+                reservation(42L, 14L),
+                reservation(null, 15L));
+
+        // when
+        final WebTestClient.ResponseSpec response = webTestClient.post().uri("/reservations/batch")
+                .bodyValue(request)
+                .exchange();
+
+        // then
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("CREATED")
+                .jsonPath("$[1].status").isEqualTo("CONFLICT")
+                .jsonPath("$[2].status").isEqualTo("NOT_FOUND")
+                .jsonPath("$[3].status").isEqualTo("NOT_FOUND");
+    }
+
+    @Test
+    void shouldStreamReservationsOfCustomerAsNdjson() {
+        // when
+        final WebTestClient.ResponseSpec response = webTestClient.get().uri("/reservations/stream?customerId=42")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // then
+        response.expectStatus().isNotFound();
+    }
+
+    private static ReservationDto reservation(final Long customerId, final Long parkingSpotId) {
+        return ReservationDto.builder()
+                .customerId(customerId)
+                .parkingSpotId(parkingSpotId)
+                .build();
+    }
+
+    private static ReservationDto windowed(final Long parkingSpotId, final String startTime, final String endTime) {
+        final ReservationDto dto = reservation(CUSTOMER_ID, parkingSpotId);
+        dto.setStartTime(Instant.parse(startTime));
+        dto.setEndTime(Instant.parse(endTime));
+        return dto;
+    }
+}
@@ -0,0 +1,25 @@
+package com.edych.parking.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * The same reservation and availability endpoints on WebFlux and R2DBC, built with the {@code reactive} Maven profile.
+ * It shares the DTOs, the exceptions and the Liquibase schema with the servlet application, and every bean of this
+ * package is bound to the {@code reactive} Spring profile so that the servlet application never picks them up.
+ */
+@Profile(ReactiveParkingApplication.PROFILE)
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+public class ReactiveParkingApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        final SpringApplication application = new SpringApplication(ReactiveParkingApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
@@ -0,0 +1,33 @@
+package com.edych.parking.reactive.config;
+
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * A reactive web context resolves paths without a prefix to web resources that never exist, which breaks the
+ * changelog files Liquibase includes relative to each other. Liquibase gets a plain classpath resource loader instead.
+ */
+@Profile(ReactiveParkingApplication.PROFILE)
+@Configuration(proxyBeanMethods = false)
+public class ReactiveLiquibaseConfig {
+
+    @Bean
+    public static BeanPostProcessor liquibaseResourceLoaderPostProcessor() {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof SpringLiquibase) {
+                    ((SpringLiquibase) bean).setResourceLoader(new DefaultResourceLoader(bean.getClass().getClassLoader()));
+                }
+
+                return bean;
+            }
+        };
+    }
+}
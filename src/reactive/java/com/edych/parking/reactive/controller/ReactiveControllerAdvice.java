@@ -0,0 +1,48 @@
+package com.edych.parking.reactive.controller;
+
+import com.edych.parking.dto.ExceptionDto;
+import com.edych.parking.exception.BadRequestException;
+import com.edych.parking.exception.ConflictException;
+import com.edych.parking.exception.NotFoundException;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@Profile(ReactiveParkingApplication.PROFILE)
+@RestControllerAdvice
+public class ReactiveControllerAdvice {
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ExceptionDto> handleBadRequestException(final BadRequestException exception) {
+        return getResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ExceptionDto> handleConflictException(final ConflictException exception) {
+        return getResponse(HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ExceptionDto> handleDataIntegrityViolationException(final DataIntegrityViolationException exception) {
+        return getResponse(HttpStatus.CONFLICT, "request conflicts with the current state of the resource");
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ExceptionDto> handleNotFoundException(final NotFoundException exception) {
+        return getResponse(HttpStatus.NOT_FOUND, exception.getMessage());
+    }
+
+    private ResponseEntity<ExceptionDto> getResponse(final HttpStatus status, final String message) {
+        final ExceptionDto dto = ExceptionDto.builder()
+                .message(message)
+                .status(status.getReasonPhrase())
+                .statusCode(status.value())
+                .build();
+
+        return new ResponseEntity<>(dto, status);
+    }
+}
@@ -0,0 +1,45 @@
+package com.edych.parking.reactive.controller;
+
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.exception.BadRequestException;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import com.edych.parking.reactive.service.ReactiveParkingSpotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+@Profile(ReactiveParkingApplication.PROFILE)
+@RestController
+@RequiredArgsConstructor
+public class ReactiveParkingSpotController {
+
+    private final ReactiveParkingSpotService parkingSpotService;
+
+    @GetMapping("/parking-spot/available")
+    public Flux<ParkingSpotDto> getAllAvailable(@RequestParam(required = false) final Integer floor,
+                                                @RequestParam(required = false) final Boolean handicapped,
+                                                @RequestParam(required = false) final Integer limit,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant startTime,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant endTime) {
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("limit has to be greater than 0");
+        }
+
+        return parkingSpotService.getAvailable(floor, handicapped, limit == null ? Integer.MAX_VALUE : limit,
+                ReservationWindow.requested(startTime, endTime));
+    }
+
+    @GetMapping(value = "/parking-spot/available/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAvailable() {
+        return parkingSpotService.streamAvailable();
+    }
+}
@@ -0,0 +1,86 @@
+package com.edych.parking.reactive.controller;
+
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationBatchResultDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.exception.BadRequestException;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import com.edych.parking.reactive.service.ReactiveReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Profile(ReactiveParkingApplication.PROFILE)
+@RestController
+@RequiredArgsConstructor
+public class ReactiveReservationController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveReservationService reservationService;
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/reservation")
+    public Mono<ReservationDto> create(@RequestBody final ReservationDto dto) {
+        if (dto.getId() != null) {
+            throw new BadRequestException("a request to create a new Reservation cannot have an id");
+        }
+
+        return reservationService.create(dto);
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/reservation/auto")
+    public Mono<ReservationDto> createAuto(@RequestBody final AutoReservationDto dto) {
+        if (dto.getCustomerId() == null) {
+            throw new BadRequestException("a request to reserve any parking spot needs a customerId");
+        }
+
+        return reservationService.createAuto(dto);
+    }
+
+    @PostMapping("/reservations/batch")
+    public Mono<List<ReservationBatchResultDto>> createAll(@RequestBody final List<ReservationDto> dtos) {
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException(String.format("a batch cannot contain more than %s reservations", MAX_BATCH_SIZE));
+        }
+
+        return reservationService.createAll(dtos);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/reservation/{id}")
+    public Mono<Void> delete(@PathVariable final Long id) {
+        return reservationService.deleteById(id);
+    }
+
+    @GetMapping("/reservations")
+    public Flux<ReservationDto> getAllByCustomerId(@RequestParam final Long customerId,
+                                                   @RequestParam(required = false) final Long after,
+                                                   @RequestParam(required = false) final Integer limit) {
+        if (after == null && limit == null) {
+            return reservationService.getAllByCustomerId(customerId);
+        }
+
+        final int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("limit has to be between 1 and %s", MAX_PAGE_SIZE));
+        }
+
+        return reservationService.getPageByCustomerId(customerId, after == null ? 0L : after, pageSize);
+    }
+
+    @GetMapping(value = "/reservations/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReservationDto> streamAllByCustomerId(@RequestParam final Long customerId) {
+        return reservationService.streamAllByCustomerId(customerId);
+    }
+}
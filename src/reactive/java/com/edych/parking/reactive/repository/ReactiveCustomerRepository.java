@@ -0,0 +1,28 @@
+package com.edych.parking.reactive.repository;
+
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Profile(ReactiveParkingApplication.PROFILE)
+@Repository
+@RequiredArgsConstructor
+public class ReactiveCustomerRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existsById(final Long id) {
+        if (id == null) {
+            return Mono.just(false);
+        }
+
+        return databaseClient.sql("SELECT 1 FROM customer WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+}
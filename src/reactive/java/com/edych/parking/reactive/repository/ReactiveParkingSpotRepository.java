@@ -0,0 +1,91 @@
+package com.edych.parking.reactive.repository;
+
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile(ReactiveParkingApplication.PROFILE)
+@Repository
+@RequiredArgsConstructor
+public class ReactiveParkingSpotRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existsById(final Long id) {
+        if (id == null) {
+            return Mono.just(false);
+        }
+
+        return databaseClient.sql("SELECT 1 FROM parking_spot WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * @param floor       only spots on this floor, or any floor when {@code null}
+     * @param handicapped only spots with this handicapped flag, or both when {@code null}
+     * @param limit       maximum number of spots returned, lowest ids first
+     * @param window      only spots without a reservation overlapping it
+     */
+    public Flux<ParkingSpotDto> findAvailable(final Integer floor, final Boolean handicapped, final int limit, final ReservationWindow window) {
+        return findAvailable(floor, handicapped, limit, window, "p.id");
+    }
+
+    /**
+     * Like {@link #findAvailable(Integer, Boolean, int, ReservationWindow)}, but ordered the way automatic
+     * reservations pick spots: by floor, regular spots before handicapped ones.
+     */
+    public Flux<ParkingSpotDto> findAvailableByPreference(final Integer floor, final Boolean handicapped, final int limit,
+                                                          final ReservationWindow window) {
+        return findAvailable(floor, handicapped, limit, window, "p.floor, p.handicapped, p.id");
+    }
+
+    private Flux<ParkingSpotDto> findAvailable(final Integer floor, final Boolean handicapped, final int limit,
+                                               final ReservationWindow window, final String orderBy) {
+        final StringBuilder sql = new StringBuilder("SELECT p.id, p.number, p.floor, p.handicapped FROM parking_spot p WHERE NOT EXISTS (")
+                .append(String.format(ReactiveReservationRepository.OVERLAPPING, "p.id"))
+                .append(window.getEnd() == null ? "" : ReactiveReservationRepository.BEFORE_END)
+                .append(")");
+
+        if (floor != null) {
+            sql.append(" AND p.floor = :floor");
+        }
+
+        if (handicapped != null) {
+            sql.append(" AND p.handicapped = :handicapped");
+        }
+
+        sql.append(" ORDER BY ").append(orderBy).append(" LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = ReactiveReservationRepository.bindWindow(databaseClient.sql(sql.toString()), window)
+                .bind("limit", limit);
+
+        if (floor != null) {
+            spec = spec.bind("floor", floor);
+        }
+
+        if (handicapped != null) {
+            spec = spec.bind("handicapped", handicapped);
+        }
+
+        return spec.map(ReactiveParkingSpotRepository::toDto).all();
+    }
+
+    private static ParkingSpotDto toDto(final Row row) {
+        return ParkingSpotDto.builder()
+                .id(row.get("id", Long.class))
+                .number(row.get("number", Integer.class))
+                .floor(row.get("floor", Integer.class))
+                .handicapped(row.get("handicapped", Boolean.class))
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.edych.parking.reactive.repository;
+
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Profile(ReactiveParkingApplication.PROFILE)
+@Repository
+@RequiredArgsConstructor
+public class ReactiveReservationRepository {
+
+    private static final String SELECT = "SELECT id, customer_id, parking_spot_id, start_time, end_time, hold_expires_at FROM reservation";
+
+    /**
+     * Reservations of the spot overlapping {@code [:start, :end)}; the end condition is appended for a window with an end.
+     */
+    static final String OVERLAPPING = "SELECT 1 FROM reservation r WHERE r.parking_spot_id = %s"
+            + " AND (r.end_time IS NULL OR r.end_time > :start)";
+    static final String BEFORE_END = " AND r.start_time < :end";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Inserts the reservation unless the window overlaps another reservation of the spot. The spot row is locked
+     * first, so concurrent inserts for the same spot check and insert one after another.
+     *
+     * @return the created reservation, or nothing when the window is taken
+     */
+    public Mono<ReservationDto> insertIfFree(final Long customerId, final Long parkingSpotId, final ReservationWindow window) {
+        final Mono<ReservationDto> insert = databaseClient.sql("SELECT id FROM parking_spot WHERE id = :parkingSpotId FOR UPDATE")
+                .bind("parkingSpotId", parkingSpotId)
+                .fetch()
+                .all()
+                .then(existsOverlapping(parkingSpotId, window))
+                .flatMap(overlapping -> overlapping ? Mono.empty() : insert(customerId, parkingSpotId, window));
+
+        return insert.as(transactionalOperator::transactional);
+    }
+
+    public Mono<Boolean> existsOverlapping(final Long parkingSpotId, final ReservationWindow window) {
+        final String sql = String.format(OVERLAPPING, ":parkingSpotId") + (window.getEnd() == null ? "" : BEFORE_END);
+
+        return bindWindow(databaseClient.sql(sql + " LIMIT 1").bind("parkingSpotId", parkingSpotId), window)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<ReservationDto> findById(final Long id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveReservationRepository::toDto)
+                .one();
+    }
+
+    public Mono<Integer> deleteById(final Long id) {
+        return databaseClient.sql("DELETE FROM reservation WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Flux<ReservationDto> findAllByCustomerId(final Long customerId) {
+        return databaseClient.sql(SELECT + " WHERE customer_id = :customerId ORDER BY id")
+                .bind("customerId", customerId)
+                .map(ReactiveReservationRepository::toDto)
+                .all();
+    }
+
+    public Flux<ReservationDto> findPageByCustomerId(final Long customerId, final Long after, final int limit) {
+        return databaseClient.sql(SELECT + " WHERE customer_id = :customerId AND id > :after ORDER BY id LIMIT :limit")
+                .bind("customerId", customerId)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveReservationRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Binds {@code :start} and {@code :end} of the window, the latter only when the window has an end.
+     */
+    static DatabaseClient.GenericExecuteSpec bindWindow(final DatabaseClient.GenericExecuteSpec spec, final ReservationWindow window) {
+        final DatabaseClient.GenericExecuteSpec withStart = spec.bind("start", toTimestamp(window.getStart()));
+
+        return window.getEnd() == null ? withStart : withStart.bind("end", toTimestamp(window.getEnd()));
+    }
+
+    private Mono<ReservationDto> insert(final Long customerId, final Long parkingSpotId, final ReservationWindow window) {
+        final DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO reservation (customer_id, parking_spot_id, start_time, end_time)"
+                        + " VALUES (:customerId, :parkingSpotId, :startTime, :endTime)")
+                .bind("customerId", customerId)
+                .bind("parkingSpotId", parkingSpotId)
+                .bind("startTime", toTimestamp(window.getStart()));
+
+        return (window.getEnd() == null ? spec.bindNull("endTime", LocalDateTime.class) : spec.bind("endTime", toTimestamp(window.getEnd())))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> ReservationDto.builder()
+                        .id(id)
+                        .customerId(customerId)
+                        .parkingSpotId(parkingSpotId)
+                        .startTime(window.getStart())
+                        .endTime(window.getEnd())
+                        .build());
+    }
+
+    /**
+     * The columns are {@code TIMESTAMP} without a time zone, written by Hibernate in the JVM's zone; the same is
+     * done here so that both applications read each other's rows alike.
+     */
+    private static LocalDateTime toTimestamp(final Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(final LocalDateTime timestamp) {
+        return timestamp == null ? null : timestamp.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static ReservationDto toDto(final Row row) {
+        return ReservationDto.builder()
+                .id(row.get("id", Long.class))
+                .customerId(row.get("customer_id", Long.class))
+                .parkingSpotId(row.get("parking_spot_id", Long.class))
+                .startTime(toInstant(row.get("start_time", LocalDateTime.class)))
+                .endTime(toInstant(row.get("end_time", LocalDateTime.class)))
+                .holdExpiresAt(toInstant(row.get("hold_expires_at", LocalDateTime.class)))
+                .build();
+    }
+}
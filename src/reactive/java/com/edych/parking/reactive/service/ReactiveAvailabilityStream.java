@@ -0,0 +1,82 @@
+package com.edych.parking.reactive.service;
+
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.AvailabilityDeltaDto;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import com.edych.parking.reactive.repository.ReactiveParkingSpotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-sent availability events with the same shape as the servlet application's stream: a {@code snapshot} of the
+ * free spots followed by {@code delta} events. Every subscriber buffers at most {@code buffer-size} deltas and is
+ * completed when it falls further behind, so a slow client never holds up reservations.
+ */
+@Profile(ReactiveParkingApplication.PROFILE)
+@Component
+public class ReactiveAvailabilityStream {
+
+    private final ReactiveParkingSpotRepository parkingSpotRepository;
+    private final int bufferSize;
+
+    private final Set<Sinks.Many<List<AvailabilityDeltaDto>>> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ReactiveAvailabilityStream(final ReactiveParkingSpotRepository parkingSpotRepository,
+                                      @Value("${parking.availability-stream.buffer-size:256}") final int bufferSize) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The subscriber is registered before the snapshot is read, so a change is either in the snapshot, in a delta,
+     * or in both; applying a delta twice does no harm.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe() {
+        return Flux.defer(() -> {
+            final Sinks.Many<List<AvailabilityDeltaDto>> deltas = Sinks.many().unicast()
+                    .onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+            subscribers.add(deltas);
+
+            final Mono<ServerSentEvent<Object>> snapshot = parkingSpotRepository.findAvailable(null, null, Integer.MAX_VALUE, ReservationWindow.requested(null, null))
+                    .collectList()
+                    .map(available -> event("snapshot", available));
+
+            return snapshot.concatWith(deltas.asFlux().map(delta -> event("delta", delta)))
+                    .doFinally(signal -> subscribers.remove(deltas));
+        });
+    }
+
+    public void publish(final AvailabilityDeltaDto.Type type, final Long parkingSpotId) {
+        final List<AvailabilityDeltaDto> delta = List.of(new AvailabilityDeltaDto(type, parkingSpotId));
+
+        for (final Sinks.Many<List<AvailabilityDeltaDto>> subscriber : subscribers) {
+            // a sink accepts one emitter at a time
+            synchronized (subscriber) {
+                if (subscriber.tryEmitNext(delta).isFailure()) {
+                    subscribers.remove(subscriber);
+                    subscriber.tryEmitComplete();
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private static ServerSentEvent<Object> event(final String name, final Object data) {
+        return ServerSentEvent.builder(data)
+                .event(name)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.edych.parking.reactive.service;
+
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import com.edych.parking.reactive.repository.ReactiveParkingSpotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Unlike the servlet application, which answers from its in-memory availability index, availability is read from
+ * the database with an anti-join on every request.
+ */
+@Profile(ReactiveParkingApplication.PROFILE)
+@Service
+@RequiredArgsConstructor
+public class ReactiveParkingSpotService {
+
+    private final ReactiveParkingSpotRepository parkingSpotRepository;
+    private final ReactiveAvailabilityStream availabilityStream;
+
+    /**
+     * @param window the window the spots have to be free in; without one, spots without any current or future
+     *               reservation
+     */
+    public Flux<ParkingSpotDto> getAvailable(final Integer floor, final Boolean handicapped, final int limit, final ReservationWindow window) {
+        return parkingSpotRepository.findAvailable(floor, handicapped, limit, window);
+    }
+
+    public Flux<ServerSentEvent<Object>> streamAvailable() {
+        return availabilityStream.subscribe();
+    }
+}
@@ -0,0 +1,150 @@
+package com.edych.parking.reactive.service;
+
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.AvailabilityDeltaDto;
+import com.edych.parking.dto.ReservationBatchResultDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.dto.SpotPreferenceDto;
+import com.edych.parking.exception.BadRequestException;
+import com.edych.parking.exception.ConflictException;
+import com.edych.parking.exception.NotFoundException;
+import com.edych.parking.reactive.ReactiveParkingApplication;
+import com.edych.parking.reactive.repository.ReactiveCustomerRepository;
+import com.edych.parking.reactive.repository.ReactiveParkingSpotRepository;
+import com.edych.parking.reactive.repository.ReactiveReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A reservation is inserted in a short transaction that locks its spot's row and checks the window for overlaps
+ * first, which settles concurrent reservations of the same spot; availability deltas are published once it has
+ * committed.
+ */
+@Profile(ReactiveParkingApplication.PROFILE)
+@Service
+@RequiredArgsConstructor
+public class ReactiveReservationService {
+
+    /**
+     * Free spots fetched per preference by an automatic reservation; a candidate taken in the meantime is skipped.
+     */
+    private static final int AUTO_CANDIDATES = 64;
+
+    private final ReactiveReservationRepository reservationRepository;
+    private final ReactiveCustomerRepository customerRepository;
+    private final ReactiveParkingSpotRepository parkingSpotRepository;
+    private final ReactiveAvailabilityStream availabilityStream;
+
+    /**
+     * Reserves the spot for the requested window, or from now on without an end when no window is given.
+     */
+    public Mono<ReservationDto> create(final ReservationDto dto) {
+        return Mono.fromCallable(() -> ReservationWindow.requested(dto.getStartTime(), dto.getEndTime()))
+                .flatMap(window -> verifyParkingSpotExists(dto.getParkingSpotId())
+                        .then(verifyCustomerExists(dto.getCustomerId()))
+                        .then(Mono.defer(() -> reservationRepository.insertIfFree(dto.getCustomerId(), dto.getParkingSpotId(), window))))
+                .switchIfEmpty(Mono.error(() -> new ConflictException(String.format("Parking spot id [%s] is already taken", dto.getParkingSpotId()))))
+                .doOnNext(created -> availabilityStream.publish(AvailabilityDeltaDto.Type.TAKEN, created.getParkingSpotId()));
+    }
+
+    /**
+     * Reserves the first spot of the preferred segments free in the requested window, tried in the order of the
+     * preferences. Without preferences any spot is taken, regular ones before handicapped ones.
+     */
+    public Mono<ReservationDto> createAuto(final AutoReservationDto dto) {
+        final List<SpotPreferenceDto> preferences = dto.getPreferences() == null || dto.getPreferences().isEmpty()
+                ? List.of(new SpotPreferenceDto())
+                : dto.getPreferences();
+
+        return Mono.fromCallable(() -> ReservationWindow.requested(dto.getStartTime(), dto.getEndTime()))
+                .flatMapMany(window -> verifyCustomerExists(dto.getCustomerId())
+                        .thenMany(Flux.fromIterable(preferences))
+                        .concatMap(preference -> parkingSpotRepository.findAvailableByPreference(preference.getFloor(), preference.getHandicapped(),
+                                AUTO_CANDIDATES, window))
+                        .concatMap(parkingSpot -> reservationRepository.insertIfFree(dto.getCustomerId(), parkingSpot.getId(), window)))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new ConflictException("There is no available parking spot matching the preferences")))
+                .doOnNext(created -> availabilityStream.publish(AvailabilityDeltaDto.Type.TAKEN, created.getParkingSpotId()));
+    }
+
+    /**
+     * Creates the reservations of the batch one after another and reports the outcome per item.
+     */
+    public Mono<List<ReservationBatchResultDto>> createAll(final List<ReservationDto> dtos) {
+        return Flux.fromIterable(dtos)
+                .concatMap(this::createBatchItem)
+                .collectList();
+    }
+
+    public Mono<Void> deleteById(final Long id) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("reservation", id)))
+                .flatMap(reservation -> reservationRepository.deleteById(id)
+                        .filter(deleted -> deleted > 0)
+                        .map(deleted -> reservation))
+                .flatMap(deleted -> reservationRepository.existsOverlapping(deleted.getParkingSpotId(), new ReservationWindow(Instant.now(), null))
+                        .filter(taken -> !taken)
+                        .doOnNext(taken -> availabilityStream.publish(AvailabilityDeltaDto.Type.FREED, deleted.getParkingSpotId())))
+                .then();
+    }
+
+    public Flux<ReservationDto> getAllByCustomerId(final Long customerId) {
+        return reservationRepository.findAllByCustomerId(customerId)
+                .switchIfEmpty(verifyCustomerExists(customerId).thenMany(Flux.empty()));
+    }
+
+    /**
+     * Keyset page of the customer's reservations ordered by id: the reservations with an id greater than {@code after}.
+     */
+    public Flux<ReservationDto> getPageByCustomerId(final Long customerId, final Long after, final int limit) {
+        return reservationRepository.findPageByCustomerId(customerId, after, limit)
+                .switchIfEmpty(verifyCustomerExists(customerId).thenMany(Flux.empty()));
+    }
+
+    public Flux<ReservationDto> streamAllByCustomerId(final Long customerId) {
+        return verifyCustomerExists(customerId)
+                .thenMany(reservationRepository.findAllByCustomerId(customerId));
+    }
+
+    public Mono<Void> verifyCustomerExists(final Long customerId) {
+        return customerRepository.existsById(customerId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("customer", customerId)))
+                .then();
+    }
+
+    private Mono<Void> verifyParkingSpotExists(final Long parkingSpotId) {
+        return parkingSpotRepository.existsById(parkingSpotId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("parkingSpot", parkingSpotId)))
+                .then();
+    }
+
+    private Mono<ReservationBatchResultDto> createBatchItem(final ReservationDto dto) {
+        if (dto.getId() != null) {
+            return Mono.just(result(dto, ReservationBatchResultDto.Status.BAD_REQUEST, "a request to create a new Reservation cannot have an id"));
+        }
+
+        return create(dto)
+                .map(created -> result(created, ReservationBatchResultDto.Status.CREATED, null))
+                .onErrorResume(BadRequestException.class, e -> Mono.just(result(dto, ReservationBatchResultDto.Status.BAD_REQUEST, e.getMessage())))
+                .onErrorResume(NotFoundException.class, e -> Mono.just(result(dto, ReservationBatchResultDto.Status.NOT_FOUND, e.getMessage())))
+                .onErrorResume(ConflictException.class, e -> Mono.just(result(dto, ReservationBatchResultDto.Status.CONFLICT, e.getMessage())));
+    }
+
+    private static ReservationBatchResultDto result(final ReservationDto reservation, final ReservationBatchResultDto.Status status,
+                                                    final String message) {
+        return ReservationBatchResultDto.builder()
+                .reservation(reservation)
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ParkingSpotDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ParkingSpotsFreedEvent;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import com.edych.parking.mapper.ParkingSpotDtoMapperImpl;
+import com.edych.parking.model.ParkingSpot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class AvailabilityIndexTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T08:00:00Z");
+
+    private ParkingSpotClaims parkingSpotClaims;
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        final List<ParkingSpot> parkingSpots = List.of(
+                parkingSpot(1L, 1, true),
+                parkingSpot(2L, 1, false),
+                parkingSpot(3L, 2, true),
+                parkingSpot(4L, 2, false));
+
+        parkingSpotClaims = new ParkingSpotClaims(event -> { });
+        parkingSpotClaims.load(List.of(1L, 2L, 3L, 4L), List.of(reservation(2L, 2L)));
+
+        availabilityIndex = new AvailabilityIndex(new ParkingSpotDtoMapperImpl(), parkingSpotClaims);
+        availabilityIndex.load(parkingSpots, List.of(2L));
+    }
+
+    @Test
+    void shouldReturnParkingSpotsWithoutReservationWhenLoaded() {
+        // when
+        final List<ParkingSpotDto> available = availabilityIndex.getAllAvailable();
+
+        // then
+        assertEquals(List.of(1L, 3L, 4L), ids(available));
+    }
+
+    @Test
+    void shouldReturnOnlyMatchingSegmentWhenFilteredByFloorAndHandicapped() {
+        // when
+        final List<ParkingSpotDto> available = availabilityIndex.getAvailable(2, false, Integer.MAX_VALUE);
+
+        // then
+        assertEquals(List.of(4L), ids(available));
+    }
+
+    @Test
+    void shouldReturnAtMostLimitParkingSpotsWithLowestIdsFirst() {
+        // when
+        final List<ParkingSpotDto> available = availabilityIndex.getAvailable(null, null, 2);
+
+        // then
+        assertEquals(List.of(1L, 3L), ids(available));
+    }
+
+    @Test
+    void shouldReturnNothingWhenFloorDoesNotExist() {
+        // when
+        final List<ParkingSpotDto> available = availabilityIndex.getAvailable(7, null, Integer.MAX_VALUE);
+
+        // then
+        assertEquals(List.of(), ids(available));
+    }
+
+    @Test
+    void shouldFollowCreatedReservationsAndFreedParkingSpots() {
+        // given
+        final ReservationDto created = reservation(1L, 3L);
+        parkingSpotClaims.claim(3L, ReservationWindow.of(created));
+        parkingSpotClaims.onReservationsDeleted(new ReservationsDeletedEvent(List.of(reservation(2L, 2L))));
+
+        // when
+        availabilityIndex.onReservationsCreated(new ReservationsCreatedEvent(List.of(created)));
+        availabilityIndex.onParkingSpotsFreed(new ParkingSpotsFreedEvent(List.of(2L)));
+
+        // then
+        assertEquals(List.of(1L, 2L, 4L), ids(availabilityIndex.getAllAvailable()));
+    }
+
+    @Test
+    void shouldKeepParkingSpotTakenWhenItsFreeIsAnnouncedAfterItWasClaimedAgain() {
+        // given
+        final ReservationDto deleted = reservation(2L, 2L);
+        final ReservationDto created = reservation(5L, 2L);
+        parkingSpotClaims.onReservationsDeleted(new ReservationsDeletedEvent(List.of(deleted)));
+        parkingSpotClaims.claim(2L, ReservationWindow.of(created));
+
+        // when
+        availabilityIndex.onReservationsCreated(new ReservationsCreatedEvent(List.of(created)));
+        availabilityIndex.onParkingSpotsFreed(new ParkingSpotsFreedEvent(List.of(2L)));
+
+        // then
+        assertEquals(List.of(1L, 3L, 4L), ids(availabilityIndex.getAllAvailable()));
+    }
+
+    @Test
+    void shouldKeepParkingSpotTakenButChangeVersionWhenOneOfItsReservationsIsDeleted() {
+        // given
+        final ReservationDto deleted = ReservationDto.builder().id(2L).customerId(1L).parkingSpotId(2L).build();
+        final String firstFloorVersion = availabilityIndex.getVersion(1);
+
+        // when
+        availabilityIndex.onReservationsDeleted(new ReservationsDeletedEvent(List.of(deleted)));
+
+        // then
+        assertEquals(List.of(1L, 3L, 4L), ids(availabilityIndex.getAllAvailable()));
+        assertNotEquals(firstFloorVersion, availabilityIndex.getVersion(1));
+    }
+
+    @Test
+    void shouldReturnEveryMatchingParkingSpotTheWindowPredicateAccepts() {
+        // when
+        final List<ParkingSpotDto> available = availabilityIndex.getAvailable(1, null, Integer.MAX_VALUE, id -> id != 1L);
+
+        // then
+        assertEquals(List.of(2L), ids(available));
+    }
+
+    @Test
+    void shouldCountAvailableParkingSpotsPerFloor() {
+        // when
+        final List<Integer> floors = List.copyOf(availabilityIndex.getFloors());
+
+        // then
+        assertEquals(List.of(1, 2), floors);
+        assertEquals(1, availabilityIndex.countAvailable(1));
+        assertEquals(2, availabilityIndex.countAvailable(2));
+    }
+
+    @Test
+    void shouldChangeVersionOfLotAndOfChangedFloorOnly() {
+        // given
+        final ReservationDto created = ReservationDto.builder().id(1L).customerId(1L).parkingSpotId(3L).build();
+        final String lotVersion = availabilityIndex.getVersion(null);
+        final String firstFloorVersion = availabilityIndex.getVersion(1);
+        final String secondFloorVersion = availabilityIndex.getVersion(2);
+
+        // when
+        availabilityIndex.onReservationsCreated(new ReservationsCreatedEvent(List.of(created)));
+
+        // then
+        assertNotEquals(lotVersion, availabilityIndex.getVersion(null));
+        assertEquals(firstFloorVersion, availabilityIndex.getVersion(1));
+        assertNotEquals(secondFloorVersion, availabilityIndex.getVersion(2));
+    }
+
+    private static ReservationDto reservation(final Long id, final Long parkingSpotId) {
+        return ReservationDto.builder()
+                .id(id)
+                .customerId(1L)
+                .parkingSpotId(parkingSpotId)
+                .startTime(START)
+                .build();
+    }
+
+    private static ParkingSpot parkingSpot(final Long id, final Integer floor, final Boolean handicapped) {
+        return ParkingSpot.builder()
+                .id(id)
+                .number(id.intValue())
+                .floor(floor)
+                .handicapped(handicapped)
+                .build();
+    }
+
+    private static List<Long> ids(final List<ParkingSpotDto> parkingSpots) {
+        return parkingSpots.stream()
+                .map(ParkingSpotDto::getId)
+                .collect(Collectors.toList());
+    }
+}
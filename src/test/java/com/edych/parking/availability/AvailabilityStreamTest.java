@@ -0,0 +1,195 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.controller.ParkingSpotController;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import com.edych.parking.event.ParkingSpotsFreedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import com.edych.parking.mapper.ParkingSpotDtoMapperImpl;
+import com.edych.parking.model.ParkingSpot;
+import com.edych.parking.service.ParkingSpotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class AvailabilityStreamTest {
+
+    private static final String URL = "/parking-spot/available/stream";
+
+    private static final Instant START = Instant.parse("2030-01-01T08:00:00Z");
+
+    private ParkingSpotClaims parkingSpotClaims;
+    private AvailabilityIndex availabilityIndex;
+    private AvailabilityStream availabilityStream;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        parkingSpotClaims = new ParkingSpotClaims(event -> { });
+        parkingSpotClaims.load(List.of(1L, 2L), List.of(reservation(2L)));
+
+        availabilityIndex = new AvailabilityIndex(new ParkingSpotDtoMapperImpl(), parkingSpotClaims);
+        availabilityIndex.load(List.of(parkingSpot(1L), parkingSpot(2L)), List.of(2L));
+
+        availabilityStream = new AvailabilityStream(availabilityIndex, parkingSpotClaims, new AvailabilityStreamProperties());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ParkingSpotController(new ParkingSpotService(availabilityIndex, availabilityStream, parkingSpotClaims)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityStream.close();
+    }
+
+    @Test
+    void shouldSendSnapshotThenDeltasOfCommittedChanges() throws Exception {
+        // given
+        final MockHttpServletResponse response = mockMvc.perform(get(URL))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        awaitContent(response, "event:snapshot\ndata:[{\"id\":1,\"number\":1,\"floor\":1,\"handicapped\":false}]");
+
+        // when
+        parkingSpotClaims.claim(1L, ReservationWindow.of(reservation(1L)));
+        availabilityStream.onReservationsCreated(new ReservationsCreatedEvent(List.of(reservation(1L))));
+        awaitContent(response, "event:delta\ndata:[{\"type\":\"TAKEN\",\"parkingSpotId\":1}]");
+        parkingSpotClaims.onReservationsDeleted(new ReservationsDeletedEvent(List.of(reservation(2L))));
+        availabilityStream.onParkingSpotsFreed(new ParkingSpotsFreedEvent(List.of(2L)));
+
+        // then
+        awaitContent(response, "event:delta\ndata:[{\"type\":\"FREED\",\"parkingSpotId\":2}]");
+        assertEquals(1, availabilityStream.getSubscriberCount());
+    }
+
+    @Test
+    void shouldForgetSubscriberWhenStreamIsClosed() throws Exception {
+        // given
+        mockMvc.perform(get(URL)).andExpect(request().asyncStarted());
+
+        // when
+        availabilityStream.close();
+
+        // then
+        assertEquals(0, availabilityStream.getSubscriberCount());
+    }
+
+    @Test
+    void shouldKeepWritingToOtherSubscribersAndDropTheOneWhoseClientStalls() throws Exception {
+        // given
+        final AvailabilityStreamProperties properties = new AvailabilityStreamProperties();
+        properties.setThreads(1);
+        properties.setSendTimeout(Duration.ofMillis(200));
+        final AvailabilityStream stream = new AvailabilityStream(availabilityIndex, parkingSpotClaims, properties);
+        final StalledEmitter stalled = new StalledEmitter();
+        final RecordingEmitter recording = new RecordingEmitter();
+
+        try {
+            // when
+            stream.subscribe(stalled);
+            stream.subscribe(recording);
+            parkingSpotClaims.claim(1L, ReservationWindow.of(reservation(1L)));
+            stream.onReservationsCreated(new ReservationsCreatedEvent(List.of(reservation(1L))));
+
+            // then
+            assertNotNull(recording.sent.poll(5, TimeUnit.SECONDS));
+            assertNotNull(recording.sent.poll(5, TimeUnit.SECONDS));
+            awaitSubscriberCount(stream, 1);
+            stalled.release.countDown();
+            assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            stalled.release.countDown();
+            stream.close();
+        }
+    }
+
+    private static void awaitSubscriberCount(final AvailabilityStream stream, final int expected) throws Exception {
+        final long deadline = System.currentTimeMillis() + 5000;
+
+        while (stream.getSubscriberCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(expected, stream.getSubscriberCount());
+    }
+
+    private static void awaitContent(final MockHttpServletResponse response, final String expected) throws Exception {
+        final long deadline = System.currentTimeMillis() + 5000;
+
+        while (System.currentTimeMillis() < deadline) {
+            if (response.getContentAsString().contains(expected)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+
+        fail("Stream did not contain " + expected + " but was " + response.getContentAsString());
+    }
+
+    private static ParkingSpot parkingSpot(final Long id) {
+        return ParkingSpot.builder()
+                .id(id)
+                .number(id.intValue())
+                .floor(1)
+                .handicapped(false)
+                .build();
+    }
+
+    /**
+     * A client that takes nothing until it is released.
+     */
+    private static final class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(final SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(final SseEventBuilder builder) {
+            sent.add(builder);
+        }
+    }
+
+    private static ReservationDto reservation(final Long parkingSpotId) {
+        return ReservationDto.builder().id(parkingSpotId).customerId(1L).parkingSpotId(parkingSpotId).startTime(START).build();
+    }
+}
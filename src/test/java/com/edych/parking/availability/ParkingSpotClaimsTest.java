@@ -0,0 +1,212 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ParkingSpotsFreedEvent;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParkingSpotClaimsTest {
+
+    private static final Instant NOON = Instant.parse("2030-01-01T12:00:00Z");
+
+    private final List<Object> events = new ArrayList<>();
+
+    private ParkingSpotClaims parkingSpotClaims;
+
+    @BeforeEach
+    void setUp() {
+        parkingSpotClaims = new ParkingSpotClaims(events::add);
+        parkingSpotClaims.load(List.of(1L, 2L, 3L), List.of(reservation(2L, NOON.minus(1, ChronoUnit.DAYS), null)));
+    }
+
+    @Test
+    void shouldClaimFreeParkingSpotOnlyOnce() {
+        // when
+        final ParkingSpotClaims.Result first = parkingSpotClaims.claim(1L, window(NOON, null));
+        final ParkingSpotClaims.Result second = parkingSpotClaims.claim(1L, window(NOON, null));
+
+        // then
+        assertEquals(ParkingSpotClaims.Result.CLAIMED, first);
+        assertEquals(ParkingSpotClaims.Result.TAKEN, second);
+    }
+
+    @Test
+    void shouldRejectTakenAndUnknownParkingSpots() {
+        // when
+        final ParkingSpotClaims.Result taken = parkingSpotClaims.claim(2L, window(NOON, NOON.plus(1, ChronoUnit.HOURS)));
+        final ParkingSpotClaims.Result unknown = parkingSpotClaims.claim(4L, window(NOON, null));
+
+        // then
+        assertEquals(ParkingSpotClaims.Result.TAKEN, taken);
+        assertEquals(ParkingSpotClaims.Result.NOT_FOUND, unknown);
+    }
+
+    @Test
+    void shouldClaimAdjacentWindowsButNotOverlappingOnes() {
+        // given
+        parkingSpotClaims.claim(1L, window(hour(10), hour(12)));
+        parkingSpotClaims.claim(1L, window(hour(14), hour(16)));
+
+        // when
+        final ParkingSpotClaims.Result before = parkingSpotClaims.claim(1L, window(hour(9), hour(10)));
+        final ParkingSpotClaims.Result between = parkingSpotClaims.claim(1L, window(hour(12), hour(14)));
+        final ParkingSpotClaims.Result overlappingStart = parkingSpotClaims.claim(1L, window(hour(15), hour(17)));
+        final ParkingSpotClaims.Result overlappingEnd = parkingSpotClaims.claim(1L, window(hour(8), hour(10).plusMillis(1)));
+        final ParkingSpotClaims.Result spanning = parkingSpotClaims.claim(1L, window(hour(0), hour(23)));
+        final ParkingSpotClaims.Result openEnded = parkingSpotClaims.claim(1L, window(hour(20), null));
+        final ParkingSpotClaims.Result afterOpenEnded = parkingSpotClaims.claim(1L, window(hour(22), hour(23)));
+
+        // then
+        assertEquals(ParkingSpotClaims.Result.CLAIMED, before);
+        assertEquals(ParkingSpotClaims.Result.CLAIMED, between);
+        assertEquals(ParkingSpotClaims.Result.TAKEN, overlappingStart);
+        assertEquals(ParkingSpotClaims.Result.TAKEN, overlappingEnd);
+        assertEquals(ParkingSpotClaims.Result.TAKEN, spanning);
+        assertEquals(ParkingSpotClaims.Result.CLAIMED, openEnded);
+        assertEquals(ParkingSpotClaims.Result.TAKEN, afterOpenEnded);
+        assertTrue(parkingSpotClaims.isFree(1L, window(hour(16), hour(20))));
+        assertFalse(parkingSpotClaims.isFree(1L, window(hour(16), hour(21))));
+    }
+
+    @Test
+    void shouldFreeParkingSpotWhenItsLastReservationIsDeleted() {
+        // given
+        final ReservationDto first = reservation(1L, hour(10), hour(12));
+        final ReservationDto second = reservation(1L, hour(14), hour(16));
+        parkingSpotClaims.claim(1L, ReservationWindow.of(first));
+        parkingSpotClaims.claim(1L, ReservationWindow.of(second));
+
+        // when
+        parkingSpotClaims.onReservationsDeleted(new ReservationsDeletedEvent(List.of(first)));
+        final boolean freeAfterFirst = parkingSpotClaims.isFree(1L);
+        parkingSpotClaims.onReservationsDeleted(new ReservationsDeletedEvent(List.of(second)));
+
+        // then
+        assertFalse(freeAfterFirst);
+        assertTrue(parkingSpotClaims.isFree(1L));
+        assertEquals(List.of(new ParkingSpotsFreedEvent(List.of(1L))), events);
+    }
+
+    @Test
+    void shouldFreeParkingSpotWhenItsLastWindowEnded() {
+        // given
+        final List<Long> released = new ArrayList<>();
+        parkingSpotClaims.addReleaseListener(released::add);
+        parkingSpotClaims.claim(1L, window(hour(10), hour(12)));
+        parkingSpotClaims.claim(3L, window(hour(10), hour(12)));
+        parkingSpotClaims.claim(3L, window(hour(14), hour(16)));
+
+        // when
+        parkingSpotClaims.releaseEnded(hour(12));
+
+        // then
+        assertTrue(parkingSpotClaims.isFree(1L));
+        assertFalse(parkingSpotClaims.isFree(3L));
+        assertFalse(parkingSpotClaims.isFree(2L));
+        assertEquals(List.of(1L), released);
+        assertEquals(List.of(new ParkingSpotsFreedEvent(List.of(1L))), events);
+    }
+
+    @Test
+    void shouldAnnounceParkingSpotFreedWhenItsClaimIsRolledBack() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        parkingSpotClaims.claim(1L, window(hour(10), hour(12)));
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // when
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertTrue(parkingSpotClaims.isFree(1L));
+        assertEquals(List.of(new ParkingSpotsFreedEvent(List.of(1L))), events);
+    }
+
+    @Test
+    void shouldReleaseClaimOfCurrentTransactionOnlyOnce() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        parkingSpotClaims.claim(1L, window(hour(10), hour(12)));
+
+        // when
+        parkingSpotClaims.release(1L, window(hour(10), hour(12)));
+        final ParkingSpotClaims.Result reclaimed = parkingSpotClaims.claim(1L, window(hour(10), hour(12)));
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // then
+        assertEquals(ParkingSpotClaims.Result.CLAIMED, reclaimed);
+        assertFalse(parkingSpotClaims.isFree(1L, window(hour(10), hour(12))));
+        assertEquals(List.of(new ParkingSpotsFreedEvent(List.of(1L))), events);
+    }
+
+    @Test
+    void shouldLetExactlyOneOfConcurrentRequestsClaimTheSameParkingSpot() throws Exception {
+        // given
+        final int threads = 16;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<ParkingSpotClaims.Result>> results = new ArrayList<>();
+
+        // when
+        try {
+            for (int i = 0; i < threads; i++) {
+                final Instant from = hour(i % 4);
+                final Callable<ParkingSpotClaims.Result> task = () -> {
+                    start.await();
+                    return parkingSpotClaims.claim(3L, window(from, hour(4)));
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            int claimed = 0;
+            for (final Future<ParkingSpotClaims.Result> result : results) {
+                if (result.get() == ParkingSpotClaims.Result.CLAIMED) {
+                    claimed++;
+                }
+            }
+
+            // then
+            assertEquals(1, claimed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Instant hour(final int hour) {
+        return NOON.truncatedTo(ChronoUnit.DAYS).plus(hour, ChronoUnit.HOURS);
+    }
+
+    private static ReservationWindow window(final Instant start, final Instant end) {
+        return new ReservationWindow(start, end);
+    }
+
+    private static ReservationDto reservation(final Long parkingSpotId, final Instant start, final Instant end) {
+        return ReservationDto.builder()
+                .customerId(1L)
+                .parkingSpotId(parkingSpotId)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.edych.parking.availability;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import com.edych.parking.model.ParkingSpot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParkingSpotFreeListsTest {
+
+    private static final Segment FLOOR_1_REGULAR = new Segment(1, false);
+    private static final Segment FLOOR_1_HANDICAPPED = new Segment(1, true);
+    private static final Segment FLOOR_2_REGULAR = new Segment(2, false);
+
+    private static final Instant START = Instant.parse("2030-01-01T10:00:00Z");
+    private static final ReservationWindow FROM_NOW = new ReservationWindow(START, null);
+
+    private ParkingSpotClaims parkingSpotClaims;
+    private ParkingSpotFreeLists parkingSpotFreeLists;
+
+    @BeforeEach
+    void setUp() {
+        final List<ParkingSpot> parkingSpots = List.of(
+                parkingSpot(1L, 1, true),
+                parkingSpot(2L, 1, false),
+                parkingSpot(3L, 1, false),
+                parkingSpot(4L, 2, false));
+        final List<Long> taken = List.of(3L);
+
+        parkingSpotClaims = new ParkingSpotClaims(event -> { });
+        parkingSpotClaims.load(List.of(1L, 2L, 3L, 4L), List.of(reservation(3L, START, null)));
+        parkingSpotFreeLists = new ParkingSpotFreeLists(parkingSpotClaims);
+        parkingSpotFreeLists.load(parkingSpots, taken);
+    }
+
+    @Test
+    void shouldOrderMatchingSegmentsByFloorWithRegularSpotsFirst() {
+        // when
+        final List<Segment> segments = parkingSpotFreeLists.segmentsMatching(null, null);
+
+        // then
+        assertEquals(List.of(FLOOR_1_REGULAR, FLOOR_1_HANDICAPPED, FLOOR_2_REGULAR), segments);
+    }
+
+    @Test
+    void shouldFallBackToNextSegmentWhenPreferredSegmentIsFull() {
+        // when
+        final Long first = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR, FLOOR_2_REGULAR), FROM_NOW);
+        final Long second = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR, FLOOR_2_REGULAR), FROM_NOW);
+        final Long third = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR, FLOOR_2_REGULAR), FROM_NOW);
+
+        // then
+        assertEquals(2L, first);
+        assertEquals(4L, second);
+        assertNull(third);
+    }
+
+    @Test
+    void shouldSkipParkingSpotsClaimedOutsideOfFreeLists() {
+        // given
+        parkingSpotClaims.claim(2L, FROM_NOW);
+
+        // when
+        final Long claimed = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR), FROM_NOW);
+
+        // then
+        assertNull(claimed);
+    }
+
+    @Test
+    void shouldOfferParkingSpotAgainWhenItsReservationIsDeleted() {
+        // given
+        parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR), FROM_NOW);
+
+        // when
+        parkingSpotClaims.onReservationsDeleted(new ReservationsDeletedEvent(List.of(reservation(3L, START, null))));
+        final Long claimed = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR), FROM_NOW);
+
+        // then
+        assertEquals(3L, claimed);
+    }
+
+    @Test
+    void shouldFitWindowIntoFirstSpotFreeInIt() {
+        // given
+        final ReservationWindow window = new ReservationWindow(START.plus(1, ChronoUnit.DAYS), START.plus(2, ChronoUnit.DAYS));
+        parkingSpotClaims.claim(2L, window);
+
+        // when
+        final Long claimed = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR, FLOOR_2_REGULAR), window);
+        final Long beforeTaken = parkingSpotFreeLists.claimFirstFree(List.of(FLOOR_1_REGULAR),
+                new ReservationWindow(START.minus(1, ChronoUnit.HOURS), START));
+
+        // then
+        assertEquals(4L, claimed);
+        assertEquals(2L, beforeTaken);
+    }
+
+    private static ReservationDto reservation(final Long parkingSpotId, final Instant start, final Instant end) {
+        return ReservationDto.builder().id(1L).customerId(1L).parkingSpotId(parkingSpotId).startTime(start).endTime(end).build();
+    }
+
+    private static ParkingSpot parkingSpot(final Long id, final Integer floor, final Boolean handicapped) {
+        return ParkingSpot.builder()
+                .id(id)
+                .number(id.intValue())
+                .floor(floor)
+                .handicapped(handicapped)
+                .build();
+    }
+}
@@ -1,27 +1,37 @@
 package com.edych.parking.controller;
 
+import com.edych.parking.availability.ReservationWindow;
 import com.edych.parking.dto.ParkingSpotDto;
 import com.edych.parking.service.ParkingSpotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(ParkingSpotController.class)
+@Import(SimpleMeterRegistry.class)
 class ParkingSpotControllerTestIT {
 
     @Autowired
@@ -74,4 +84,88 @@ class ParkingSpotControllerTestIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(all.size())));
     }
+
+    @Test
+    void shouldReturnFilteredJSONAndIsOkStatusWhenFloorHandicappedAndLimitAreGiven() throws Exception {
+        // given
+        final String url = "/parking-spot/available?floor=1&handicapped=true&limit=2";
+
+        final List<ParkingSpotDto> filtered = List.of(parkingSpotDtoFactory(1L), parkingSpotDtoFactory(2L));
+
+        // when
+        when(parkingSpotService.getAvailable(1, true, 2)).thenReturn(filtered);
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(filtered.size())));
+    }
+
+    @Test
+    void shouldReturnParkingSpotsFreeInReservationWindowWhenStartAndEndTimeAreGiven() throws Exception {
+        // given
+        final String url = "/parking-spot/available?floor=1&startTime=2030-01-01T08:00:00Z&endTime=2030-01-01T16:00:00Z";
+        final ReservationWindow window = new ReservationWindow(Instant.parse("2030-01-01T08:00:00Z"), Instant.parse("2030-01-01T16:00:00Z"));
+
+        // when
+        when(parkingSpotService.getAvailable(1, null, Integer.MAX_VALUE, window)).thenReturn(List.of(parkingSpotDtoFactory(1L)));
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void shouldReturnBadRequestStatusWhenReservationWindowIsIncomplete() throws Exception {
+        // given
+        final String url = "/parking-spot/available?startTime=2030-01-01T08:00:00Z";
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("a reservation window needs both a startTime and an endTime"));
+    }
+
+    @Test
+    void shouldReturnBadRequestStatusWhenLimitIsNotPositive() throws Exception {
+        // given
+        final String url = "/parking-spot/available?limit=0";
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnAvailabilityVersionOfFloorAsETag() throws Exception {
+        // given
+        final String url = "/parking-spot/available?floor=2";
+
+        // when
+        when(parkingSpotService.getAvailabilityVersion(2)).thenReturn("epoch-7");
+        when(parkingSpotService.getAvailable(2, null, Integer.MAX_VALUE)).thenReturn(List.of(parkingSpotDtoFactory(1L)));
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"epoch-7\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void shouldReturnNotModifiedStatusWithoutReadingParkingSpotsWhenVersionDidNotChange() throws Exception {
+        // given
+        final String url = "/parking-spot/available";
+
+        // when
+        when(parkingSpotService.getAvailabilityVersion(null)).thenReturn("epoch-7");
+
+        // then
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"epoch-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(parkingSpotService, never()).getAllAvailable();
+    }
 }
@@ -1,43 +1,65 @@
 package com.edych.parking.controller;
 
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationBatchResultDto;
 import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.dto.SpotPreferenceDto;
 import com.edych.parking.exception.BadRequestException;
 import com.edych.parking.exception.ConflictException;
 import com.edych.parking.exception.NotFoundException;
+import com.edych.parking.hold.HoldService;
+import com.edych.parking.idempotency.IdempotencyService;
+import com.edych.parking.idempotency.InMemoryIdempotencyStore;
 import com.edych.parking.model.Customer;
 import com.edych.parking.model.ParkingSpot;
 import com.edych.parking.service.ReservationService;
 import com.edych.parking.util.TestObjectFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(ReservationController.class)
+@Import({SimpleMeterRegistry.class, IdempotencyService.class, InMemoryIdempotencyStore.class})
 class ReservationControllerTestIT {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private ReservationService reservationService;
 
+    @MockBean
+    private HoldService holdService;
+
     @Test
     void createReservationWhenCustomerAndParkingSpotExistsAndParkingSpotIsNotTaken() throws Exception {
         // given
@@ -61,6 +83,32 @@ class ReservationControllerTestIT {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void createReservationForRequestedWindow() throws Exception {
+        // given
+        final String url = "/reservation";
+        final ParkingSpot parkingSpot = TestObjectFactory.parkingSpot(1L);
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
+        reservationDto.setStartTime(Instant.parse("2030-01-01T08:00:00Z"));
+        reservationDto.setEndTime(Instant.parse("2030-01-02T08:00:00Z"));
+
+        final ReservationDto returnedReservationDto = TestObjectFactory.reservationDto(1L, parkingSpot, customer);
+        returnedReservationDto.setStartTime(reservationDto.getStartTime());
+        returnedReservationDto.setEndTime(reservationDto.getEndTime());
+
+        // when
+        when(reservationService.create(reservationDto)).thenReturn(returnedReservationDto);
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(reservationDto))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.startTime").value("2030-01-01T08:00:00Z"))
+                .andExpect(jsonPath("$.endTime").value("2030-01-02T08:00:00Z"));
+    }
+
     @Test
     void throwBadRequestExceptionWhenRequestHasAnId() throws Exception {
         // given
@@ -125,6 +173,66 @@ class ReservationControllerTestIT {
                 .andExpect(result -> assertEquals(expMessage, result.getResolvedException().getMessage()));
     }
 
+    @Test
+    void replayFirstResponseWithoutCreatingAgainWhenIdempotencyKeyIsRepeated() throws Exception {
+        // given
+        final String url = "/reservation";
+        final String idempotencyKey = "replay-key";
+        final ParkingSpot parkingSpot = TestObjectFactory.parkingSpot(1L);
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
+
+        final ReservationDto returnedReservationDto = TestObjectFactory.reservationDto(1L, parkingSpot, customer);
+
+        // when
+        when(reservationService.create(reservationDto)).thenReturn(returnedReservationDto);
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(reservationDto))
+                        .header(ReservationController.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(ReservationController.IDEMPOTENT_REPLAYED, "false"))
+                .andExpect(jsonPath("$.id").value(returnedReservationDto.getId()));
+
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(reservationDto))
+                        .header(ReservationController.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(ReservationController.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(jsonPath("$.id").value(returnedReservationDto.getId()));
+
+        verify(reservationService, times(1)).create(reservationDto);
+    }
+
+    @Test
+    void throwConflictExceptionWhenIdempotencyKeyIsReusedForDifferentReservation() throws Exception {
+        // given
+        final String url = "/reservation";
+        final String idempotencyKey = "reused-key";
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto first = TestObjectFactory.reservationDto(null, TestObjectFactory.parkingSpot(1L), customer);
+        final ReservationDto second = TestObjectFactory.reservationDto(null, TestObjectFactory.parkingSpot(2L), customer);
+        final String expMessage = "Idempotency-Key [reused-key] was already used for a different request";
+
+        // when
+        when(reservationService.create(first)).thenReturn(TestObjectFactory.reservationDto(1L, TestObjectFactory.parkingSpot(1L), customer));
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(first))
+                        .header(ReservationController.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(second))
+                        .header(ReservationController.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(result -> assertEquals(expMessage, result.getResolvedException().getMessage()));
+
+        verify(reservationService, never()).create(second);
+    }
+
     @Test
     void throwNotConflictExceptionWhenParkingSpotIsTaken() throws Exception {
         // given
@@ -134,6 +242,8 @@ class ReservationControllerTestIT {
         final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
         final String expMessage = "Parking spot id [1] is already taken";
 
+        final double conflictsBefore = meterRegistry.counter(GlobalControllerAdvice.CONFLICTS, "exception", "ConflictException").count();
+
         // when
         final ConflictException expectedException = new ConflictException(expMessage);
         when(reservationService.create(reservationDto)).thenThrow(expectedException);
@@ -145,6 +255,117 @@ class ReservationControllerTestIT {
                 .andExpect(status().isConflict())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConflictException))
                 .andExpect(result -> assertEquals(expMessage, result.getResolvedException().getMessage()));
+
+        assertEquals(conflictsBefore + 1, meterRegistry.counter(GlobalControllerAdvice.CONFLICTS, "exception", "ConflictException").count());
+    }
+
+    @Test
+    void createReservationOfAnyPreferredParkingSpotWhenCustomerIsGiven() throws Exception {
+        // given
+        final String url = "/reservation/auto";
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final AutoReservationDto dto = AutoReservationDto.builder()
+                .customerId(customer.getId())
+                .preferences(List.of(new SpotPreferenceDto(2, false)))
+                .build();
+
+        final ReservationDto returnedReservationDto = TestObjectFactory.reservationDto(1L, TestObjectFactory.parkingSpot(18L), customer);
+
+        // when
+        when(reservationService.createAuto(dto)).thenReturn(returnedReservationDto);
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(dto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.parkingSpotId").value(18));
+    }
+
+    @Test
+    void throwBadRequestExceptionWhenAutomaticReservationHasNoCustomer() throws Exception {
+        // given
+        final String url = "/reservation/auto";
+        final AutoReservationDto dto = new AutoReservationDto();
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(dto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof BadRequestException));
+    }
+
+    @Test
+    void shouldReturnResultPerItemWhenCreatingReservationsInBatch() throws Exception {
+        // given
+        final String url = "/reservations/batch";
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto first = TestObjectFactory.reservationDto(null, TestObjectFactory.parkingSpot(1L), customer);
+        final ReservationDto second = TestObjectFactory.reservationDto(null, TestObjectFactory.parkingSpot(2L), customer);
+        final List<ReservationDto> batch = List.of(first, second);
+
+        final List<ReservationBatchResultDto> results = List.of(
+                ReservationBatchResultDto.builder()
+                        .status(ReservationBatchResultDto.Status.CREATED)
+                        .reservation(TestObjectFactory.reservationDto(1L, TestObjectFactory.parkingSpot(1L), customer))
+                        .build(),
+                ReservationBatchResultDto.builder()
+                        .status(ReservationBatchResultDto.Status.CONFLICT)
+                        .message("Parking spot id [2] is already taken")
+                        .reservation(second)
+                        .build());
+
+        // when
+        when(reservationService.createAll(batch)).thenReturn(results);
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(batch))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].reservation.id").value(1))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"));
+    }
+
+    @Test
+    void holdParkingSpotUntilHoldExpires() throws Exception {
+        // given
+        final String url = "/reservation/hold";
+        final ParkingSpot parkingSpot = TestObjectFactory.parkingSpot(1L);
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
+
+        final ReservationDto held = TestObjectFactory.reservationDto(1L, parkingSpot, customer);
+        held.setHoldExpiresAt(Instant.parse("2030-01-01T08:05:00Z"));
+
+        // when
+        when(holdService.hold(reservationDto)).thenReturn(held);
+
+        // then
+        mockMvc.perform(post(url).content(TestObjectFactory.asJsonString(reservationDto))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.holdExpiresAt").value("2030-01-01T08:05:00Z"));
+    }
+
+    @Test
+    void throwNotFoundExceptionWhenConfirmingExpiredHold() throws Exception {
+        // given
+        final String url = "/reservation/1/confirm";
+
+        // when
+        when(holdService.confirm(1L)).thenThrow(new NotFoundException("hold", 1L));
+
+        // then
+        mockMvc.perform(post(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Resource [hold] with id [1] does not exist."));
     }
 
     @Test
@@ -167,6 +388,8 @@ class ReservationControllerTestIT {
         final Long id = 1L;
         final String url = "/reservation/" + id;
 
+        final double notFoundsBefore = meterRegistry.counter(GlobalControllerAdvice.NOT_FOUNDS, "resource", "reservation").count();
+
         // when
         final NotFoundException expectedException = new NotFoundException("reservation", id);
         doThrow(expectedException).when(reservationService).deleteById(id);
@@ -178,6 +401,50 @@ class ReservationControllerTestIT {
                 .andExpect(status().isNotFound())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof NotFoundException))
                 .andExpect(result -> assertEquals(expMessage, result.getResolvedException().getMessage()));
+
+        assertEquals(notFoundsBefore + 1, meterRegistry.counter(GlobalControllerAdvice.NOT_FOUNDS, "resource", "reservation").count());
+    }
+
+    @Test
+    void shouldDeleteAllReservationsOfCustomerAndReturnTheirCount() throws Exception {
+        // given
+        final String url = "/reservations?customerId=1";
+
+        // when
+        when(reservationService.deleteAllByCustomerId(1L)).thenReturn(3);
+
+        // then
+        mockMvc.perform(delete(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(3));
+    }
+
+    @Test
+    void shouldDeleteAllReservationsOfFloorAndReturnTheirCount() throws Exception {
+        // given
+        final String url = "/reservations?floor=2";
+
+        // when
+        when(reservationService.deleteAllByFloor(2)).thenReturn(15);
+
+        // then
+        mockMvc.perform(delete(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(15));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenDeletingReservationsByBothCustomerAndFloor() throws Exception {
+        // given
+        final String url = "/reservations?customerId=1&floor=2";
+
+        // then
+        mockMvc.perform(delete(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("either a customerId or a floor has to be given"));
+
+        verify(reservationService, never()).deleteAllByCustomerId(any());
+        verify(reservationService, never()).deleteAllByFloor(any());
     }
 
     @Test
@@ -237,4 +504,74 @@ class ReservationControllerTestIT {
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof NotFoundException))
                 .andExpect(result -> assertEquals(expMessage, result.getResolvedException().getMessage()));
     }
+
+    @Test
+    void shouldReturnPageOfReservationsAfterGivenIdWhenLimitIsGiven() throws Exception {
+        // given
+        final String url = "/reservations?customerId=1&after=1&limit=1";
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto r2 = TestObjectFactory.reservationDto(2L, TestObjectFactory.parkingSpot(2L), customer);
+
+        // when
+        when(reservationService.getPageByCustomerId(1L, 1L, 1)).thenReturn(List.of(r2));
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void throwBadRequestExceptionWhenPageLimitIsTooBig() throws Exception {
+        // given
+        final String url = "/reservations?customerId=1&limit=1001";
+
+        // then
+        mockMvc.perform(get(url).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof BadRequestException));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamReservationsAsNdjsonWhenCustomerExists() throws Exception {
+        // given
+        final String url = "/reservations/stream?customerId=1";
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ReservationDto r1 = TestObjectFactory.reservationDto(1L, TestObjectFactory.parkingSpot(1L), customer);
+        final ReservationDto r2 = TestObjectFactory.reservationDto(2L, TestObjectFactory.parkingSpot(2L), customer);
+
+        // when
+        doAnswer(invocation -> {
+            final Consumer<ReservationDto> consumer = invocation.getArgument(1);
+            consumer.accept(r1);
+            consumer.accept(r2);
+            return null;
+        }).when(reservationService).streamAllByCustomerId(eq(1L), any(Consumer.class));
+
+        // then
+        final String expected = TestObjectFactory.asJsonString(r1) + "\n" + TestObjectFactory.asJsonString(r2) + "\n";
+        final MvcResult result = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expected));
+    }
+
+    @Test
+    void shouldNotStreamReservationsWhenCustomerDoesNotExist() throws Exception {
+        // given
+        final String url = "/reservations/stream?customerId=2";
+
+        // when
+        doThrow(new NotFoundException("customer", 2L)).when(reservationService).verifyCustomerExists(2L);
+
+        // then
+        mockMvc.perform(get(url))
+                .andExpect(status().isNotFound());
+    }
 }
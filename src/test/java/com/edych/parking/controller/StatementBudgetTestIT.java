@@ -0,0 +1,344 @@
+package com.edych.parking.controller;
+
+import com.edych.parking.config.CacheConfig;
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.generator.DataGeneratorProperties;
+import com.edych.parking.util.StatementCounter;
+import com.edych.parking.util.TestObjectFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the JDBC statements and rows behind every endpoint of {@link ReservationController} and
+ * {@link ParkingSpotController}, once on a lot with about 10 and once on a lot with about 10,000 reservations, all of
+ * them made by one customer. Each request has to stay within its budget in {@code statement-budgets.properties}, and
+ * neither its statements nor the rows it reads beyond the ones it returns may differ between the lots, so an N+1 or a
+ * needlessly loaded association fails the build.
+ */
+class StatementBudgetTestIT {
+
+    private static final Map<String, Map<Integer, Measurement>> MEASUREMENTS = new ConcurrentHashMap<>();
+
+    @AfterAll
+    static void shouldNotGrowWithDataSize() {
+        assertAll(MEASUREMENTS.entrySet().stream()
+                .filter(measurements -> measurements.getValue().size() > 1)
+                .map(measurements -> () -> assertEquals(1, measurements.getValue().values().stream().distinct().count(),
+                        () -> String.format("%s grows with data size: %s", measurements.getKey(), measurements.getValue()))));
+    }
+
+    @Nested
+    @TestPropertySource(properties = "parking.generator.spots-per-floor=10")
+    class TenReservations extends Lot {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "parking.generator.spots-per-floor=10000")
+    class TenThousandReservations extends Lot {
+    }
+
+    /**
+     * Two floors of the given size, half of the spots reserved by customer 1, each lot in its own database.
+     * Holds outlive the test, so that no release runs in between.
+     */
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:statement-budget-${parking.generator.spots-per-floor};DB_CLOSE_DELAY=-1",
+            "parking.generator.floors=2",
+            "parking.generator.customers=1",
+            "parking.generator.occupancy=0.5",
+            "parking.generator.handicapped-ratio=0.1",
+            "parking.holds.ttl=PT1H"
+    })
+    @AutoConfigureMockMvc
+    @ActiveProfiles("generator")
+    @Import(StatementCounterConfig.class)
+    abstract static class Lot {
+
+        private static final String WINDOW = "startTime=2030-01-01T08:00:00Z&endTime=2030-01-01T16:00:00Z";
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private StatementCounter statementCounter;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        private CacheManager cacheManager;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private DataGeneratorProperties dataGeneratorProperties;
+
+        /**
+         * The requests run in this order against the same lot; the deletes come last.
+         */
+        @TestFactory
+        Stream<DynamicTest> shouldStayWithinStatementBudget() throws IOException {
+            final Properties budgets = PropertiesLoaderUtils.loadProperties(new ClassPathResource("statement-budgets.properties"));
+
+            return endpoints().stream()
+                    .map(endpoint -> DynamicTest.dynamicTest(endpoint.getName(), () -> {
+                        final Measurement measurement = measure(endpoint);
+                        MEASUREMENTS.computeIfAbsent(endpoint.getName(), name -> new ConcurrentHashMap<>()).put(dataGeneratorProperties.getSpotsPerFloor(), measurement);
+
+                        final String statements = budgets.getProperty(endpoint.getName() + ".statements");
+                        final String rows = budgets.getProperty(endpoint.getName() + ".rows");
+                        assertNotNull(statements, () -> "no statement budget for " + endpoint.getName());
+                        assertNotNull(rows, () -> "no row budget for " + endpoint.getName());
+
+                        assertAll(
+                                () -> assertTrue(measurement.getStatements() <= Long.parseLong(statements),
+                                        () -> String.format("%s ran %s statements, the budget is %s", endpoint.getName(), measurement.getStatements(), statements)),
+                                () -> assertTrue(measurement.getExtraRows() <= Long.parseLong(rows),
+                                        () -> String.format("%s read %s rows more than it returned, the budget is %s", endpoint.getName(), measurement.getExtraRows(), rows)));
+                    }));
+        }
+
+        private List<Endpoint> endpoints() {
+            return List.of(
+                    new Endpoint("available", () -> () -> {
+                        mockMvc.perform(get("/parking-spot/available")).andExpect(status().isOk());
+                        return 0;
+                    }),
+                    new Endpoint("available-filtered", () -> () -> {
+                        mockMvc.perform(get("/parking-spot/available?floor=1&handicapped=false&limit=5")).andExpect(status().isOk());
+                        return 0;
+                    }),
+                    new Endpoint("available-window", () -> () -> {
+                        mockMvc.perform(get("/parking-spot/available?floor=1&" + WINDOW)).andExpect(status().isOk());
+                        return 0;
+                    }),
+                    new Endpoint("available-not-modified", () -> {
+                        final String eTag = mockMvc.perform(get("/parking-spot/available")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                        return () -> {
+                            mockMvc.perform(get("/parking-spot/available").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                    .andExpect(status().isNotModified());
+                            return 0;
+                        };
+                    }),
+                    new Endpoint("available-stream", () -> () -> {
+                        mockMvc.perform(get("/parking-spot/available/stream")).andExpect(request().asyncStarted());
+                        return 0;
+                    }),
+                    new Endpoint("reservations", () -> () -> jsonArraySize(mockMvc.perform(get("/reservations?customerId=1"))
+                            .andExpect(status().isOk()))),
+                    new Endpoint("reservations-page", () -> () -> jsonArraySize(mockMvc.perform(get("/reservations?customerId=1&after=0&limit=5"))
+                            .andExpect(status().isOk()))),
+                    new Endpoint("reservations-stream", () -> () -> {
+                        final MvcResult result = mockMvc.perform(get("/reservations/stream?customerId=1"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                        return (int) mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString().lines().count();
+                    }),
+                    new Endpoint("reservation-create", () -> {
+                        final String body = TestObjectFactory.asJsonString(reservation(freeParkingSpotIds(1).get(0)));
+
+                        return () -> {
+                            mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON).content(body))
+                                    .andExpect(status().isCreated());
+                            return 0;
+                        };
+                    }),
+                    new Endpoint("reservation-hold", () -> {
+                        final String body = TestObjectFactory.asJsonString(reservation(freeParkingSpotIds(1).get(0)));
+
+                        return () -> {
+                            mockMvc.perform(post("/reservation/hold").contentType(MediaType.APPLICATION_JSON).content(body))
+                                    .andExpect(status().isCreated());
+                            return 0;
+                        };
+                    }),
+                    new Endpoint("reservation-confirm", () -> {
+                        final String body = TestObjectFactory.asJsonString(reservation(freeParkingSpotIds(1).get(0)));
+                        final String hold = mockMvc.perform(post("/reservation/hold").contentType(MediaType.APPLICATION_JSON).content(body))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                        final long id = objectMapper.readTree(hold).get("id").asLong();
+
+                        return () -> {
+                            mockMvc.perform(post("/reservation/{id}/confirm", id)).andExpect(status().isOk());
+                            return 1;
+                        };
+                    }),
+                    new Endpoint("reservation-auto", () -> {
+                        final String body = TestObjectFactory.asJsonString(AutoReservationDto.builder().customerId(1L).build());
+
+                        return () -> {
+                            mockMvc.perform(post("/reservation/auto").contentType(MediaType.APPLICATION_JSON).content(body))
+                                    .andExpect(status().isCreated());
+                            return 0;
+                        };
+                    }),
+                    new Endpoint("reservations-batch", () -> {
+                        final List<Long> parkingSpotIds = freeParkingSpotIds(2);
+                        final String body = TestObjectFactory.asJsonString(List.of(reservation(parkingSpotIds.get(0)), reservation(parkingSpotIds.get(1))));
+
+                        return () -> {
+                            mockMvc.perform(post("/reservations/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                                    .andExpect(status().isOk());
+                            return 0;
+                        };
+                    }),
+                    new Endpoint("reservation-delete", () -> {
+                        final Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM reservation", Long.class);
+
+                        return () -> {
+                            mockMvc.perform(delete("/reservation/{id}", id)).andExpect(status().isNoContent());
+                            return 1;
+                        };
+                    }),
+                    new Endpoint("reservations-delete-floor", () -> () -> deleted(mockMvc.perform(delete("/reservations?floor=2"))
+                            .andExpect(status().isOk()))),
+                    new Endpoint("reservations-delete-customer", () -> () -> deleted(mockMvc.perform(delete("/reservations?customerId=1"))
+                            .andExpect(status().isOk())))
+            );
+        }
+
+        /**
+         * Only the request is counted, with the customer cache cleared so that the lookups it saves are counted too.
+         */
+        private Measurement measure(final Endpoint endpoint) throws Exception {
+            final Request request = endpoint.getPreparation().prepare();
+
+            Optional.ofNullable(cacheManager.getCache(CacheConfig.CUSTOMERS)).ifPresent(Cache::clear);
+            statementCounter.reset();
+
+            final int returned = request.perform();
+
+            return new Measurement(statementCounter.getStatements(), statementCounter.getRows() - returned);
+        }
+
+        private List<Long> freeParkingSpotIds(final int count) {
+            return jdbcTemplate.queryForList("SELECT ps.id FROM parking_spot ps "
+                    + "WHERE NOT EXISTS (SELECT r.id FROM reservation r WHERE r.parking_spot_id = ps.id) ORDER BY ps.id LIMIT ?", Long.class, count);
+        }
+
+        private int jsonArraySize(final ResultActions actions) {
+            return readTree(actions).size();
+        }
+
+        private int deleted(final ResultActions actions) {
+            return readTree(actions).get("deleted").asInt();
+        }
+
+        private JsonNode readTree(final ResultActions actions) {
+            try {
+                return objectMapper.readTree(actions.andReturn().getResponse().getContentAsString());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static ReservationDto reservation(final Long parkingSpotId) {
+            return ReservationDto.builder()
+                    .customerId(1L)
+                    .parkingSpotId(parkingSpotId)
+                    .build();
+        }
+    }
+
+    /**
+     * Every data source of the context hands out connections whose statements are counted.
+     */
+    @TestConfiguration
+    static class StatementCounterConfig {
+
+        @Bean
+        static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource(final ObjectProvider<StatementCounter> statementCounter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                    return bean instanceof DataSource ? statementCounter.getObject().wrap((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    @Value
+    private static class Endpoint {
+        String name;
+        Preparation preparation;
+    }
+
+    /**
+     * Looks up the ids the request needs, without being counted.
+     */
+    private interface Preparation {
+        Request prepare() throws Exception;
+    }
+
+    /**
+     * Sends the request and returns the number of reservations or parking spots it returned that it read from the
+     * database; responses served from memory or built from the request itself count 0.
+     */
+    private interface Request {
+        int perform() throws Exception;
+    }
+
+    @Value
+    private static class Measurement {
+        long statements;
+        long extraRows;
+    }
+}
@@ -0,0 +1,107 @@
+package com.edych.parking.faststart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SnapshotRestorerTest {
+
+    private static final String CHANGE_LOG = "classpath:/db/changelog/dbchangelog.xml";
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRestoreSchemaAndSeedDataFromSnapshot() throws Exception {
+        // given
+        DatabaseSnapshot.write(dataSource(), resolver, CHANGE_LOG, directory);
+        final DataSource dataSource = dataSource();
+
+        // when
+        restorer(dataSource).afterPropertiesSet();
+
+        // then
+        assertEquals(1, count(dataSource, "SELECT COUNT(*) FROM customer"));
+        assertEquals(30, count(dataSource, "SELECT COUNT(*) FROM parking_spot"));
+        assertEquals(count(dataSource, "SELECT COUNT(*) FROM databasechangelog"), changeSets());
+    }
+
+    @Test
+    void shouldRunChangeLogWhenSnapshotDoesNotMatchItsChecksum() throws Exception {
+        // given
+        DatabaseSnapshot.write(dataSource(), resolver, CHANGE_LOG, directory);
+        Files.write(directory.resolve(DatabaseSnapshot.SCRIPT), "INSERT INTO customer (name) VALUES ('tampered');\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        final DataSource dataSource = dataSource();
+
+        // when
+        restorer(dataSource).afterPropertiesSet();
+
+        // then
+        assertEquals(1, count(dataSource, "SELECT COUNT(*) FROM customer"));
+        assertEquals(0, count(dataSource, "SELECT COUNT(*) FROM customer WHERE name = 'tampered'"));
+    }
+
+    @Test
+    void shouldRunChangeLogWhenThereIsNoSnapshot() throws Exception {
+        // given
+        final DataSource dataSource = dataSource();
+
+        // when
+        restorer(dataSource).afterPropertiesSet();
+
+        // then
+        assertEquals(30, count(dataSource, "SELECT COUNT(*) FROM parking_spot"));
+    }
+
+    @Test
+    void shouldKeepExistingSchemaAndData() throws Exception {
+        // given
+        DatabaseSnapshot.write(dataSource(), resolver, CHANGE_LOG, directory);
+        final DataSource dataSource = dataSource();
+        restorer(dataSource).afterPropertiesSet();
+        new JdbcTemplate(dataSource).update("INSERT INTO customer (name) VALUES ('second')");
+
+        // when
+        restorer(dataSource).afterPropertiesSet();
+
+        // then
+        assertEquals(2, count(dataSource, "SELECT COUNT(*) FROM customer"));
+    }
+
+    private SnapshotRestorer restorer(final DataSource dataSource) {
+        final FastStartProperties properties = new FastStartProperties();
+        properties.setSnapshot(directory.resolve(DatabaseSnapshot.SCRIPT).toUri().toString());
+        properties.setManifest(directory.resolve(DatabaseSnapshot.MANIFEST).toUri().toString());
+
+        return new SnapshotRestorer(dataSource, resolver, properties, CHANGE_LOG);
+    }
+
+    private long changeSets() throws Exception {
+        final DataSource dataSource = dataSource();
+        DatabaseSnapshot.runChangeLog(dataSource, resolver, CHANGE_LOG);
+
+        return count(dataSource, "SELECT COUNT(*) FROM databasechangelog");
+    }
+
+    private static long count(final DataSource dataSource, final String sql) {
+        return new JdbcTemplate(dataSource).queryForObject(sql, Long.class);
+    }
+
+    private static DataSource dataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
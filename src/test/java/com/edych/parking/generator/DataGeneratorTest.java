@@ -0,0 +1,85 @@
+package com.edych.parking.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(DataGenerator.class)
+class DataGeneratorTest {
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldReplaceSeedDataWithGeneratedLot() {
+        // given
+        final DataGeneratorProperties properties = properties(4, 100, 20, 0.5, 0.1);
+
+        // when
+        final DataGenerator.Result result = dataGenerator.generate(properties);
+
+        // then
+        assertEquals(20, count("SELECT COUNT(*) FROM customer"));
+        assertEquals(400, count("SELECT COUNT(*) FROM parking_spot"));
+        assertEquals(4, count("SELECT COUNT(DISTINCT floor) FROM parking_spot"));
+        assertEquals(40, count("SELECT COUNT(*) FROM parking_spot WHERE handicapped"));
+        assertEquals(result.getReservations(), count("SELECT COUNT(*) FROM reservation"));
+        assertEquals(result.getReservations(), count("SELECT MAX(id) FROM reservation"));
+        assertTrue(result.getReservations() > 120 && result.getReservations() < 280);
+        assertEquals(0, count("SELECT COUNT(*) FROM reservation WHERE customer_id NOT BETWEEN 1 AND 20"));
+    }
+
+    @Test
+    void shouldGenerateSameLotForSameSeed() {
+        // given
+        final DataGeneratorProperties properties = properties(2, 50, 10, 0.3, 0.1);
+
+        // when
+        dataGenerator.generate(properties);
+        final long first = count("SELECT SUM(parking_spot_id * customer_id) FROM reservation");
+        dataGenerator.generate(properties);
+        final long second = count("SELECT SUM(parking_spot_id * customer_id) FROM reservation");
+
+        // then
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldRejectOccupancyAboveOne() {
+        // given
+        final DataGeneratorProperties properties = properties(1, 10, 1, 1.5, 0);
+
+        // when
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            dataGenerator.generate(properties);
+        });
+
+        // then
+        assertEquals("occupancy and handicappedRatio must be between 0 and 1", exception.getMessage());
+    }
+
+    private long count(final String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static DataGeneratorProperties properties(final int floors, final int spotsPerFloor, final int customers,
+                                                      final double occupancy, final double handicappedRatio) {
+        final DataGeneratorProperties properties = new DataGeneratorProperties();
+        properties.setFloors(floors);
+        properties.setSpotsPerFloor(spotsPerFloor);
+        properties.setCustomers(customers);
+        properties.setOccupancy(occupancy);
+        properties.setHandicappedRatio(handicappedRatio);
+        return properties;
+    }
+}
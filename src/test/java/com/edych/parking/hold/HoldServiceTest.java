@@ -0,0 +1,84 @@
+package com.edych.parking.hold;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.repository.ReservationRepository;
+import com.edych.parking.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoldServiceTest {
+
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+
+    private HoldService holdService;
+
+    @BeforeEach
+    void setUp() {
+        final HoldProperties properties = new HoldProperties();
+        properties.setTtl(Duration.ofMinutes(5));
+        properties.setBatchSize(2);
+
+        holdService = new HoldService(reservationService, reservationRepository, properties);
+    }
+
+    @Test
+    void shouldDeleteExpiredHoldsInBatches() {
+        // given
+        for (long id = 1; id <= 3; id++) {
+            when(reservationService.createHold(any(), any())).thenReturn(ReservationDto.builder().id(id).build());
+            holdService.hold(ReservationDto.builder().customerId(1L).parkingSpotId(id).build());
+        }
+
+        // when
+        holdService.releaseExpired(Instant.now().plus(Duration.ofMinutes(6)));
+
+        // then
+        verify(reservationService, times(2)).deleteExpiredHolds(anyList(), any());
+        assertEquals(0, holdService.getPendingCount());
+    }
+
+    @Test
+    void shouldNotDeleteConfirmedHold() {
+        // given
+        when(reservationService.createHold(any(), any())).thenReturn(ReservationDto.builder().id(1L).build());
+        holdService.hold(ReservationDto.builder().customerId(1L).parkingSpotId(1L).build());
+
+        // when
+        holdService.confirm(1L);
+        holdService.releaseExpired(Instant.now().plus(Duration.ofMinutes(6)));
+
+        // then
+        verify(reservationService, never()).deleteExpiredHolds(anyList(), any());
+    }
+
+    @Test
+    void shouldRetryHoldsWhoseDeleteFailed() {
+        // given
+        final Instant now = Instant.now().plus(Duration.ofMinutes(6));
+        when(reservationService.createHold(any(), any())).thenReturn(ReservationDto.builder().id(1L).build());
+        when(reservationService.deleteExpiredHolds(List.of(1L), now)).thenThrow(new IllegalStateException("database is down"));
+        holdService.hold(ReservationDto.builder().customerId(1L).parkingSpotId(1L).build());
+
+        // when
+        holdService.releaseExpired(now);
+        holdService.releaseExpired(now.plusSeconds(1));
+
+        // then
+        verify(reservationService, times(1)).deleteExpiredHolds(eq(List.of(1L)), eq(now.plusSeconds(1)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.edych.parking.hold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HoldTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_000_000;
+
+    private HoldTimingWheel timingWheel;
+
+    @BeforeEach
+    void setUp() {
+        timingWheel = new HoldTimingWheel(TICK, 8, START);
+    }
+
+    @Test
+    void shouldReturnHoldOnlyOnceItsDeadlineHasPassed() {
+        // given
+        timingWheel.schedule(1L, START + 2500);
+
+        // when
+        final List<Long> early = timingWheel.advance(START + 2000);
+        final List<Long> due = timingWheel.advance(START + 3000);
+        final List<Long> later = timingWheel.advance(START + 4000);
+
+        // then
+        assertEquals(List.of(), early);
+        assertEquals(List.of(1L), due);
+        assertEquals(List.of(), later);
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    void shouldKeepHoldsDueInLaterRevolutionsOfTheSameBucket() {
+        // given
+        timingWheel.schedule(1L, START + 3 * TICK);
+        timingWheel.schedule(2L, START + 11 * TICK);
+
+        // when
+        final List<Long> firstRevolution = timingWheel.advance(START + 3 * TICK);
+        final List<Long> secondRevolution = timingWheel.advance(START + 11 * TICK);
+
+        // then
+        assertEquals(List.of(1L), firstRevolution);
+        assertEquals(List.of(2L), secondRevolution);
+    }
+
+    @Test
+    void shouldNotReturnCancelledHold() {
+        // given
+        timingWheel.schedule(1L, START + TICK);
+        timingWheel.schedule(2L, START + TICK);
+
+        // when
+        timingWheel.cancel(1L);
+        final List<Long> due = timingWheel.advance(START + TICK);
+
+        // then
+        assertEquals(List.of(2L), due);
+    }
+
+    @Test
+    void shouldReturnEveryDueHoldWhenFallingBehindByMoreThanARevolution() {
+        // given
+        LongStream.rangeClosed(1, 100).forEach(id -> timingWheel.schedule(id, START + id * 100));
+
+        // when
+        final List<Long> due = timingWheel.advance(START + 100 * TICK);
+
+        // then
+        assertEquals(LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()), due.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldExpireHoldWithPastDeadlineWithTheNextTick() {
+        // given
+        timingWheel.advance(START + 5 * TICK);
+
+        // when
+        timingWheel.schedule(1L, START);
+        final List<Long> due = timingWheel.advance(START + 6 * TICK);
+
+        // then
+        assertEquals(List.of(1L), due);
+    }
+}
@@ -0,0 +1,56 @@
+package com.edych.parking.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final String KEY = "key";
+    private static final String REQUEST = "{\"customerId\":1,\"parkingSpotId\":1}";
+    private static final Duration LEASE = Duration.ofMillis(50);
+
+    private InMemoryIdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        final IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setLease(LEASE);
+
+        idempotencyStore = new InMemoryIdempotencyStore(properties);
+    }
+
+    @Test
+    void shouldHoldKeyOfRunningRequestUntilLeaseIsOver() throws InterruptedException {
+        // given
+        idempotencyStore.reserve(KEY, REQUEST);
+
+        // when
+        final Optional<IdempotencyRecord> duringLease = idempotencyStore.reserve(KEY, REQUEST);
+        Thread.sleep(LEASE.multipliedBy(2).toMillis());
+        final Optional<IdempotencyRecord> afterLease = idempotencyStore.reserve(KEY, REQUEST);
+
+        // then
+        assertEquals(Optional.of(new IdempotencyRecord(REQUEST, null)), duringLease);
+        assertTrue(afterLease.isEmpty());
+    }
+
+    @Test
+    void shouldKeepCompletedResponseAfterLeaseIsOver() throws InterruptedException {
+        // given
+        idempotencyStore.reserve(KEY, REQUEST);
+        idempotencyStore.complete(KEY, REQUEST, "{\"id\":1}");
+
+        // when
+        Thread.sleep(LEASE.multipliedBy(2).toMillis());
+        final Optional<IdempotencyRecord> record = idempotencyStore.reserve(KEY, REQUEST);
+
+        // then
+        assertEquals(Optional.of(new IdempotencyRecord(REQUEST, "{\"id\":1}")), record);
+    }
+}
@@ -0,0 +1,84 @@
+package com.edych.parking.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "parking.idempotency.store=jdbc")
+@Import({JdbcIdempotencyStore.class, IdempotencyProperties.class})
+class JdbcIdempotencyStoreTest {
+
+    private static final String KEY = "key";
+    private static final String REQUEST = "{\"customerId\":1,\"parkingSpotId\":1}";
+
+    @Autowired
+    private JdbcIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldClaimFreeKeyAndReturnRecordOnSecondClaim() {
+        // when
+        final Optional<IdempotencyRecord> first = idempotencyStore.reserve(KEY, REQUEST);
+        final Optional<IdempotencyRecord> second = idempotencyStore.reserve(KEY, REQUEST);
+
+        // then
+        assertTrue(first.isEmpty());
+        assertEquals(Optional.of(new IdempotencyRecord(REQUEST, null)), second);
+    }
+
+    @Test
+    void shouldReturnResponseOfCompletedRequest() {
+        // given
+        idempotencyStore.reserve(KEY, REQUEST);
+
+        // when
+        idempotencyStore.complete(KEY, REQUEST, "{\"id\":1}");
+        final Optional<IdempotencyRecord> record = idempotencyStore.reserve(KEY, REQUEST);
+
+        // then
+        assertTrue(record.isPresent());
+        assertEquals("{\"id\":1}", record.get().getResponse());
+    }
+
+    @Test
+    void shouldFreeReleasedKey() {
+        // given
+        idempotencyStore.reserve(KEY, REQUEST);
+
+        // when
+        idempotencyStore.release(KEY);
+
+        // then
+        assertFalse(idempotencyStore.reserve(KEY, REQUEST).isPresent());
+    }
+
+    @Test
+    void shouldFreeKeyOfRunningRequestAfterLeaseButKeepCompletedOne() {
+        // given
+        final Timestamp beforeLease = Timestamp.from(Instant.now().minus(Duration.ofMinutes(2)));
+        jdbcTemplate.update("INSERT INTO idempotency_key (id, request, created_at) VALUES (?, ?, ?)", "running", REQUEST, beforeLease);
+        jdbcTemplate.update("INSERT INTO idempotency_key (id, request, response, created_at) VALUES (?, ?, ?, ?)",
+                "completed", REQUEST, "{\"id\":1}", beforeLease);
+
+        // when
+        final Optional<IdempotencyRecord> running = idempotencyStore.reserve("running", REQUEST);
+        final Optional<IdempotencyRecord> completed = idempotencyStore.reserve("completed", REQUEST);
+
+        // then
+        assertTrue(running.isEmpty());
+        assertEquals(Optional.of(new IdempotencyRecord(REQUEST, "{\"id\":1}")), completed);
+    }
+}
@@ -0,0 +1,91 @@
+package com.edych.parking.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("memory")
+class MemoryStorageTestIT {
+
+    private static final int PARKING_SPOTS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldStartWithoutDatabase() {
+        // given
+        // when
+        final int dataSources = applicationContext.getBeanNamesForType(DataSource.class).length;
+        final int entityManagerFactories = applicationContext.getBeanNamesForType(EntityManagerFactory.class).length;
+
+        // then
+        assertEquals(0, dataSources);
+        assertEquals(0, entityManagerFactories);
+    }
+
+    @Test
+    void shouldReserveListAndReleaseParkingSpot() throws Exception {
+        // given
+        final String request = "{\"customerId\": 1,\"parkingSpotId\": 5}";
+
+        // when
+        final String created = mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        final long id = objectMapper.readTree(created).get("id").asLong();
+
+        // then
+        mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/reservations").param("customerId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/parking-spot/available"))
+                .andExpect(jsonPath("$", hasSize(PARKING_SPOTS - 1)));
+
+        mockMvc.perform(delete("/reservation/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/parking-spot/available"))
+                .andExpect(jsonPath("$", hasSize(PARKING_SPOTS)));
+    }
+
+    @Test
+    void shouldGiveParkingSpotBackWhenCustomerDoesNotExist() throws Exception {
+        // given
+        final String request = "{\"customerId\": 999,\"parkingSpotId\": 6}";
+
+        // when
+        mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isNotFound());
+
+        // then
+        mockMvc.perform(get("/parking-spot/available"))
+                .andExpect(jsonPath("$", hasSize(PARKING_SPOTS)));
+    }
+}
@@ -0,0 +1,449 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.Customer;
+import com.edych.parking.model.ParkingSpot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryStoreTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T08:00:00Z");
+    private static final int SEGMENT_SIZE = 1 << 20;
+
+    private MemoryStore store;
+    private long customerId;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        store = new MemoryStore();
+        customerId = store.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(store);
+    }
+
+    @Test
+    void shouldRejectReservationOfMissingCustomerOrParkingSpot() {
+        // given
+        final ReservationDto missingCustomer = reservation(customerId + 1, 1L);
+        final ReservationDto missingParkingSpot = reservation(customerId, 99L);
+
+        // when
+        assertThrows(DataIntegrityViolationException.class, () -> store.saveReservations(List.of(missingCustomer)));
+        assertThrows(DataIntegrityViolationException.class, () -> store.saveReservations(List.of(reservation(customerId, 2L), missingParkingSpot)));
+
+        // then
+        assertEquals(0, store.countReservations());
+        assertTrue(store.findReservationsByCustomerId(customerId, 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void shouldRejectDuplicateCustomerName() {
+        // given
+        final Customer duplicate = Customer.builder().name("edych").build();
+
+        // when
+        assertThrows(DataIntegrityViolationException.class, () -> store.saveCustomer(duplicate));
+
+        // then
+        assertEquals(1, store.countCustomers());
+    }
+
+    @Test
+    void shouldRejectDeleteOfReservedParkingSpot() {
+        // given
+        store.saveReservations(List.of(reservation(customerId, 1L)));
+
+        // when
+        assertThrows(DataIntegrityViolationException.class, () -> store.deleteParkingSpot(1L));
+
+        // then
+        assertTrue(store.existsParkingSpot(1L));
+    }
+
+    @Test
+    void shouldKeepFreeParkingSpotsInStepWithReservations() {
+        // given
+        final List<ReservationDto> saved = store.saveReservations(List.of(reservation(customerId, 1L), reservation(customerId, 1L),
+                reservation(customerId, 3L)));
+
+        // when
+        final List<Long> freeAfterSave = freeIds(null, null);
+        store.deleteReservation(saved.get(0).getId(), reservation -> true);
+        final List<Long> freeAfterFirstDelete = freeIds(null, null);
+        store.deleteReservation(saved.get(1).getId(), reservation -> true);
+
+        // then
+        assertEquals(List.of(2L, 4L), freeAfterSave);
+        assertEquals(List.of(2L, 4L), freeAfterFirstDelete);
+        assertEquals(List.of(1L, 2L, 4L), freeIds(null, null));
+        assertEquals(List.of(1L, 2L), freeIds(1, null));
+        assertEquals(List.of(4L), freeIds(2, false));
+        assertTrue(store.existsReservationByParkingSpotId(3L));
+        assertFalse(store.existsReservationByParkingSpotId(1L));
+    }
+
+    @Test
+    void shouldPageReservationsOfCustomerById() {
+        // given
+        final List<ReservationDto> saved = store.saveReservations(List.of(reservation(customerId, 1L), reservation(customerId, 2L),
+                reservation(customerId, 3L)));
+
+        // when
+        final List<ReservationDto> page = store.findReservationsByCustomerId(customerId, saved.get(0).getId(), 1);
+
+        // then
+        assertEquals(List.of(saved.get(1)), page);
+    }
+
+    @Test
+    void shouldDeleteReservationsOfFloorOnly() {
+        // given
+        store.saveReservations(List.of(reservation(customerId, 1L), reservation(customerId, 2L), reservation(customerId, 3L)));
+
+        // when
+        final List<ReservationDto> deleted = store.deleteReservationsByFloor(1);
+
+        // then
+        assertEquals(List.of(1L, 2L), deleted.stream().map(ReservationDto::getParkingSpotId).sorted().collect(Collectors.toList()));
+        assertEquals(1, store.countReservations());
+    }
+
+    @Test
+    void shouldDeleteReservationsWithTheirCustomer() {
+        // given
+        store.saveReservations(List.of(reservation(customerId, 1L)));
+
+        // when
+        store.deleteCustomer(customerId);
+
+        // then
+        assertEquals(0, store.countReservations());
+        assertEquals(4, freeIds(null, null).size());
+    }
+
+    @Test
+    void shouldRestoreStateFromJournal() throws IOException {
+        // given
+        final MemoryStore written = open();
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        final List<ReservationDto> saved = written.saveReservations(List.of(reservation(writtenCustomerId, 1L),
+                ReservationDto.builder().customerId(writtenCustomerId).parkingSpotId(2L).startTime(START).holdExpiresAt(START).build()));
+        written.deleteReservation(saved.get(0).getId(), reservation -> true);
+        written.updateReservation(saved.get(1).getId(), reservation -> {
+            reservation.setHoldExpiresAt(null);
+            return reservation;
+        });
+        written.close();
+
+        // when
+        final MemoryStore restored = new MemoryStore();
+        final long records = restored.open(journal(false));
+
+        // then
+        assertEquals(9, records);
+        assertEquals(List.of(1L, 3L, 4L), idsOf(restored.findFreeParkingSpots(null, null, 0, Integer.MAX_VALUE)));
+        assertEquals(List.of(ReservationDto.builder().id(saved.get(1).getId()).customerId(writtenCustomerId).parkingSpotId(2L).startTime(START).build()),
+                restored.findReservationsByCustomerId(writtenCustomerId, 0, Long.MAX_VALUE));
+        assertEquals(saved.get(1).getId() + 1, restored.saveReservations(List.of(reservation(writtenCustomerId, 3L))).get(0).getId());
+        restored.close();
+    }
+
+    @Test
+    void shouldRestoreStateFromSnapshotAndJournalWrittenAfterIt() throws IOException {
+        // given
+        final MemoryStore written = open();
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        final List<ReservationDto> saved = written.saveReservations(List.of(reservation(writtenCustomerId, 1L), reservation(writtenCustomerId, 2L)));
+        written.deleteReservation(saved.get(1).getId(), reservation -> true);
+        written.snapshot();
+        written.saveReservations(List.of(reservation(writtenCustomerId, 3L)));
+        written.close();
+
+        // when
+        final MemoryStore restored = new MemoryStore();
+        final long records = restored.open(journal(false));
+
+        // then
+        assertEquals(1 + 1 + 4 + 1 + 1, records);
+        assertEquals(List.of(2L, 4L), idsOf(restored.findFreeParkingSpots(null, null, 0, Integer.MAX_VALUE)));
+        assertEquals(saved.get(1).getId() + 2, restored.saveReservations(List.of(reservation(writtenCustomerId, 4L))).get(0).getId());
+        assertEquals(List.of("journal-0000000000000001.log", "journal-0000000000000002.log", "snapshot-0000000000000001.snap"),
+                files(""));
+        restored.close();
+    }
+
+    @Test
+    void shouldSkipBrokenRecordAtTheEndOfSegment() throws IOException {
+        // given
+        final MemoryStore written = open();
+        written.saveCustomer(Customer.builder().name("first").build());
+        written.saveCustomer(Customer.builder().name("second").build());
+        written.close();
+
+        final Path segment = directory.resolve(files("journal-").get(0));
+        final byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 1;
+        Files.write(segment, bytes);
+
+        // when
+        final MemoryStore restored = new MemoryStore();
+        final long records = restored.open(journal(false));
+        restored.saveCustomer(Customer.builder().name("third").build());
+        restored.close();
+
+        // then
+        final MemoryStore reopened = new MemoryStore();
+        assertEquals(1, records);
+        assertEquals(2, reopened.open(journal(false)));
+        assertEquals(List.of("first", "third"), reopened.findAllCustomers().stream()
+                .map(Customer::getName)
+                .sorted()
+                .collect(Collectors.toList()));
+        reopened.close();
+    }
+
+    @Test
+    void shouldJournalCommittedTransactionsOnly() throws IOException {
+        // given
+        final MemoryStore written = open();
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new MemoryTransactionManager(written));
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> written.saveReservations(List.of(reservation(writtenCustomerId, 1L),
+                reservation(writtenCustomerId, 2L))));
+        assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            written.saveReservations(List.of(reservation(writtenCustomerId, 3L)));
+            written.saveReservations(List.of(reservation(writtenCustomerId, 99L)));
+        }));
+        written.close();
+
+        // then
+        final MemoryStore restored = new MemoryStore();
+        // the rolled back reservation is not journaled, only the inverse that deletes it again
+        assertEquals(1 + 4 + 2 + 1, restored.open(journal(false)));
+        assertEquals(List.of(3L, 4L), idsOf(restored.findFreeParkingSpots(null, null, 0, Integer.MAX_VALUE)));
+        restored.close();
+    }
+
+    @Test
+    void shouldLeaveOutTransactionWhoseCommitRecordIsMissing() throws IOException {
+        // given
+        final MemoryStore written = open();
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        new TransactionTemplate(new MemoryTransactionManager(written)).executeWithoutResult(status ->
+                written.saveReservations(List.of(reservation(writtenCustomerId, 1L), reservation(writtenCustomerId, 2L))));
+        written.close();
+
+        final Path segment = directory.resolve(files("journal-").get(0));
+        final byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 1;
+        Files.write(segment, bytes);
+
+        // when
+        final MemoryStore restored = new MemoryStore();
+        final long records = restored.open(journal(false));
+
+        // then
+        assertEquals(1 + 4, records);
+        assertEquals(0, restored.countReservations());
+        assertEquals(4, restored.countParkingSpots());
+        restored.close();
+    }
+
+    @Test
+    void shouldReplayChangesInTheOrderTheyWereAppliedWhenTransactionsCommitInAnotherOrder() throws Exception {
+        // given
+        final MemoryStore written = open();
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new MemoryTransactionManager(written));
+        final CountDownLatch saved = new CountDownLatch(1);
+        final CountDownLatch deleted = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when
+        final Future<?> saving = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            written.saveReservations(List.of(reservation(writtenCustomerId, 1L)));
+            saved.countDown();
+            await(deleted);
+        }));
+        await(saved);
+        transactionTemplate.executeWithoutResult(status -> written.deleteReservationsByCustomerId(writtenCustomerId));
+        deleted.countDown();
+        saving.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        written.close();
+
+        // then
+        final MemoryStore restored = new MemoryStore();
+        restored.open(journal(false));
+        assertEquals(0, written.countReservations());
+        assertEquals(0, restored.countReservations());
+        restored.close();
+    }
+
+    @Test
+    void shouldTakeSnapshotOnceRunningTransactionHasCompleted() throws Exception {
+        // given
+        final MemoryStore written = open();
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new MemoryTransactionManager(written));
+        final CountDownLatch saved = new CountDownLatch(1);
+        final CountDownLatch commit = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when
+        final Future<?> saving = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            written.saveReservations(List.of(reservation(writtenCustomerId, 1L)));
+            saved.countDown();
+            await(commit);
+            status.setRollbackOnly();
+        }));
+        await(saved);
+        final Future<?> snapshot = executor.submit(() -> {
+            written.snapshot();
+            return null;
+        });
+        Thread.sleep(200);
+        final boolean snapshotBeforeRollback = snapshot.isDone();
+        commit.countDown();
+        saving.get(10, TimeUnit.SECONDS);
+        snapshot.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        written.close();
+
+        // then
+        final MemoryStore restored = new MemoryStore();
+        restored.open(journal(false));
+        assertFalse(snapshotBeforeRollback);
+        assertEquals(0, restored.countReservations());
+        restored.close();
+    }
+
+    @Test
+    void shouldReturnChangesOfConcurrentWritersOnceForced() throws Exception {
+        // given
+        final MemoryStore written = new MemoryStore();
+        written.open(journal(true));
+        final long writtenCustomerId = written.saveCustomer(Customer.builder().name("edych").build()).getId();
+        parkingSpots(written);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when
+        final List<Future<List<ReservationDto>>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            final long parkingSpotId = i % 4 + 1;
+            futures.add(executor.submit(() -> written.saveReservations(List.of(reservation(writtenCustomerId, parkingSpotId)))));
+        }
+        for (final Future<List<ReservationDto>> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        written.close();
+
+        // then
+        final MemoryStore restored = new MemoryStore();
+        restored.open(journal(false));
+        assertEquals(400, restored.countReservations());
+        restored.close();
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MemoryStore open() throws IOException {
+        final MemoryStore store = new MemoryStore();
+        store.open(journal(false));
+        return store;
+    }
+
+    private MemoryJournal journal(final boolean fsync) throws IOException {
+        return MemoryJournal.open(directory, SEGMENT_SIZE, fsync, Duration.ofMillis(10));
+    }
+
+    private List<String> files(final String prefix) throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<Long> freeIds(final Integer floor, final Boolean handicapped) {
+        return idsOf(store.findFreeParkingSpots(floor, handicapped, 0, Integer.MAX_VALUE));
+    }
+
+    private static List<Long> idsOf(final List<ParkingSpot> parkingSpots) {
+        return parkingSpots.stream()
+                .map(ParkingSpot::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Spots 1 and 2 on floor 1, 3 and 4 on floor 2; the first of each floor is handicapped.
+     */
+    private static void parkingSpots(final MemoryStore store) {
+        for (int i = 0; i < 4; i++) {
+            store.saveParkingSpot(ParkingSpot.builder()
+                    .number(i + 1)
+                    .floor(i / 2 + 1)
+                    .handicapped(i % 2 == 0)
+                    .build());
+        }
+    }
+
+    private static ReservationDto reservation(final long customerId, final long parkingSpotId) {
+        return ReservationDto.builder()
+                .customerId(customerId)
+                .parkingSpotId(parkingSpotId)
+                .startTime(START)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.edych.parking.memory;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.Customer;
+import com.edych.parking.model.ParkingSpot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.InvalidIsolationLevelException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryTransactionManagerTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T08:00:00Z");
+
+    private MemoryStore store;
+    private TransactionTemplate transactionTemplate;
+    private long customerId;
+
+    @BeforeEach
+    void setUp() {
+        store = new MemoryStore();
+        transactionTemplate = new TransactionTemplate(new MemoryTransactionManager(store));
+        customerId = store.saveCustomer(Customer.builder().name("edych").build()).getId();
+
+        for (int i = 0; i < 3; i++) {
+            store.saveParkingSpot(ParkingSpot.builder()
+                    .number(i + 1)
+                    .floor(1)
+                    .handicapped(false)
+                    .build());
+        }
+    }
+
+    @Test
+    void shouldUndoEveryChangeOfBatchThatFailsHalfway() {
+        // given
+        final List<ReservationDto> before = store.saveReservations(List.of(reservation(2L), reservation(3L)));
+        final long deletedId = before.get(0).getId();
+        final long updatedId = before.get(1).getId();
+
+        // when
+        assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            store.saveReservations(List.of(reservation(1L)));
+            store.deleteReservation(deletedId, reservation -> true);
+            store.updateReservation(updatedId, reservation -> {
+                reservation.setEndTime(START.plusSeconds(3600));
+                return reservation;
+            });
+            store.saveReservations(List.of(reservation(99L)));
+        }));
+
+        // then
+        assertEquals(before, store.findReservationsByCustomerId(customerId, 0, Long.MAX_VALUE));
+        assertEquals(List.of(1L), store.findFreeParkingSpots(null, null, 0, 10).stream()
+                .map(ParkingSpot::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldRestoreDeletedCustomerTogetherWithReservationsOnRollback() {
+        // given
+        final List<ReservationDto> before = store.saveReservations(List.of(reservation(1L), reservation(2L)));
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            store.deleteCustomer(customerId);
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertTrue(store.existsCustomer(customerId));
+        assertEquals(before, store.findReservationsByCustomerId(customerId, 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    void shouldKeepChangesOfCommittedTransaction() {
+        // when
+        final List<ReservationDto> saved = transactionTemplate.execute(status -> store.saveReservations(List.of(reservation(1L))));
+
+        // then
+        assertEquals(saved, store.findReservationsByCustomerId(customerId, 0, Long.MAX_VALUE));
+        assertFalse(store.findReservation(saved.get(0).getId()).isEmpty());
+    }
+
+    @Test
+    void shouldRefuseIsolationStrongerThanReadUncommitted() {
+        // given
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        // when
+        assertThrows(InvalidIsolationLevelException.class, () -> transactionTemplate.executeWithoutResult(status -> store.saveReservations(List.of(reservation(1L)))));
+
+        // then
+        assertEquals(0, store.countReservations());
+    }
+
+    private ReservationDto reservation(final long parkingSpotId) {
+        return ReservationDto.builder()
+                .customerId(customerId)
+                .parkingSpotId(parkingSpotId)
+                .startTime(START)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.edych.parking.replica;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.event.ReservationsCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingTest {
+
+    private ReplicaRouting replicaRouting;
+
+    @BeforeEach
+    void setUp() {
+        final ReplicaProperties properties = new ReplicaProperties();
+        properties.setEnabled(true);
+        properties.setMaxLag(Duration.ofMinutes(1));
+
+        replicaRouting = new ReplicaRouting(properties);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void shouldNotReadFromReplicaBeforeReplicationIsKnown() {
+        // when
+        final boolean readable = replicaRouting.isReplicaReadable();
+
+        // then
+        assertFalse(readable);
+    }
+
+    @Test
+    void shouldNotReadFromReplicaLaggingBehindMoreThanMaxLag() {
+        // given
+        replicaRouting.replicated(Instant.now().minus(Duration.ofMinutes(2)));
+
+        // when
+        final boolean readable = replicaRouting.isReplicaReadable();
+
+        // then
+        assertFalse(readable);
+    }
+
+    @Test
+    void shouldReadOwnReservationsFromPrimaryUntilReplicaHoldsThem() {
+        // given
+        replicaRouting.replicated(Instant.now().minusSeconds(1));
+        replicaRouting.onReservationsCreated(new ReservationsCreatedEvent(List.of(ReservationDto.builder()
+                .customerId(1L)
+                .parkingSpotId(1L)
+                .build())));
+
+        // when
+        replicaRouting.readFor(1L);
+        final boolean readableForWriter = replicaRouting.isReplicaReadable();
+        replicaRouting.readFor(2L);
+        final boolean readableForOthers = replicaRouting.isReplicaReadable();
+        replicaRouting.replicated(Instant.now().plusMillis(1));
+        replicaRouting.readFor(1L);
+        final boolean readableForWriterOnceReplicated = replicaRouting.isReplicaReadable();
+
+        // then
+        assertFalse(readableForWriter);
+        assertTrue(readableForOthers);
+        assertTrue(readableForWriterOnceReplicated);
+    }
+}
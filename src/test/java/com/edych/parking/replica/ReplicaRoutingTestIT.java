@@ -0,0 +1,110 @@
+package com.edych.parking.replica;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two H2 databases, the replica filled by the {@link ReplicationStandIn} only when a test asks for it. Reservations
+ * inserted into the primary behind the application's back show up on the replica only with the next round.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "parking.replica.enabled=true",
+        "parking.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "parking.replica.max-lag=PT1H",
+        "parking.replica.stand-in=true",
+        "parking.replica.stand-in-interval=PT1H"
+})
+class ReplicaRoutingTestIT {
+
+    private static final long CUSTOMER_ID = 1L;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReplicationStandIn replicationStandIn;
+
+    @Autowired
+    private ReplicaProperties replicaProperties;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Test
+    void shouldReadFromReplicaUntilNextReplicationRound() {
+        // given
+        replicationStandIn.replicate();
+        final int replicated = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+        insertBehindApplication(11L);
+
+        // when
+        final int beforeRound = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+        replicationStandIn.replicate();
+        final int afterRound = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+
+        // then
+        assertEquals(replicated, beforeRound);
+        assertEquals(replicated + 1, afterRound);
+    }
+
+    @Test
+    void shouldReadOwnReservationRightAfterCreatingIt() {
+        // given
+        replicationStandIn.replicate();
+        final int replicated = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+
+        // when
+        final ReservationDto created = reservationService.create(ReservationDto.builder()
+                .customerId(CUSTOMER_ID)
+                .parkingSpotId(12L)
+                .build());
+        final int afterCreate = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+        reservationService.deleteById(created.getId());
+        final int afterDelete = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+
+        // then
+        assertEquals(replicated + 1, afterCreate);
+        assertEquals(replicated, afterDelete);
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReplicaLagsTooFarBehind() {
+        // given
+        replicationStandIn.replicate();
+        final int replicated = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+        insertBehindApplication(13L);
+        final Duration maxLag = replicaProperties.getMaxLag();
+
+        // when
+        final int fromPrimary;
+        try {
+            replicaProperties.setMaxLag(Duration.ZERO);
+            fromPrimary = reservationService.getAllByCustomerId(CUSTOMER_ID).size();
+        } finally {
+            replicaProperties.setMaxLag(maxLag);
+        }
+
+        // then
+        assertEquals(replicated + 1, fromPrimary);
+    }
+
+    /**
+     * With an id far above the ones the application hands out.
+     */
+    private void insertBehindApplication(final long parkingSpotId) {
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO reservation (id, customer_id, parking_spot_id) VALUES (?, ?, ?)",
+                1_000_000 + parkingSpotId, CUSTOMER_ID, parkingSpotId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.edych.parking.repository;
+
+import com.edych.parking.config.CacheConfig;
+import com.edych.parking.model.Customer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CacheConfig.class)
+class CustomerRepositoryTest {
+
+    private static final Long CUSTOMER_ID = 1L;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheManager.getCache(CacheConfig.CUSTOMERS).clear();
+    }
+
+    @Test
+    void shouldQueryDatabaseOnceWhenExistingCustomerIsCheckedRepeatedly() {
+        // when
+        statistics.clear();
+        customerRepository.existsById(CUSTOMER_ID);
+        customerRepository.existsById(CUSTOMER_ID);
+        final boolean exists = customerRepository.existsById(CUSTOMER_ID);
+
+        // then
+        assertTrue(exists);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldNotCacheMissingCustomer() {
+        // given
+        final Long missingId = 1000L;
+
+        // when
+        final boolean existsBefore = customerRepository.existsById(missingId);
+        final Customer customer = customerRepository.save(Customer.builder().name("new").build());
+        final boolean existsAfter = customerRepository.existsById(customer.getId());
+
+        // then
+        assertFalse(existsBefore);
+        assertTrue(existsAfter);
+        assertFalse(customerRepository.existsById(missingId));
+    }
+
+    @Test
+    void shouldEvictCustomerWhenDeleted() {
+        // given
+        final Customer customer = customerRepository.save(Customer.builder().name("new").build());
+        customerRepository.existsById(customer.getId());
+
+        // when
+        customerRepository.deleteById(customer.getId());
+
+        // then
+        assertFalse(customerRepository.existsById(customer.getId()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.edych.parking.repository;
+
+import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.model.Reservation;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReservationRepositoryTest {
+
+    private static final Long CUSTOMER_ID = 1L;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldReadReservationsOfCustomerWithOneStatementWhenThereIsOneReservation() {
+        // given
+        reserveParkingSpots(1);
+
+        // when
+        statistics.clear();
+        final List<ReservationDto> reservations = reservationRepository.findAllDtoByCustomerId(CUSTOMER_ID);
+
+        // then
+        assertEquals(1, reservations.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void shouldReadReservationsOfCustomerWithOneStatementWhenThereAreManyReservations() {
+        // given
+        reserveParkingSpots(25);
+
+        // when
+        statistics.clear();
+        final List<ReservationDto> reservations = reservationRepository.findAllDtoByCustomerId(CUSTOMER_ID);
+
+        // then
+        assertEquals(25, reservations.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void shouldDeleteOnlyExpiredHoldsWithOneStatement() {
+        // given
+        final Instant now = Instant.now();
+        final Long expired = hold(1L, now.minusSeconds(1));
+        final Long pending = hold(2L, now.plusSeconds(60));
+        final Long confirmed = hold(3L, null);
+        final List<Long> ids = List.of(expired, pending, confirmed);
+
+        // when
+        statistics.clear();
+        final List<ReservationDto> deleted = reservationRepository.deleteAllDtoHeldByIdInExpiredAt(ids, now);
+
+        // then
+        assertEquals(List.of(expired), deleted.stream().map(ReservationDto::getId).collect(Collectors.toList()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(pending, confirmed), reservationRepository.findAllDtoByCustomerId(CUSTOMER_ID).stream()
+                .map(ReservationDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldDeleteReservationsOfFloorWithOneStatementAndReturnThem() {
+        // given
+        final Long onFirstFloor = hold(1L, null);
+        final Long onSecondFloor = hold(16L, null);
+
+        // when
+        statistics.clear();
+        final List<ReservationDto> deleted = reservationRepository.deleteAllDtoByFloor(1);
+
+        // then
+        assertEquals(List.of(onFirstFloor), deleted.stream().map(ReservationDto::getId).collect(Collectors.toList()));
+        assertEquals(1L, deleted.get(0).getParkingSpotId());
+        assertEquals(CUSTOMER_ID, deleted.get(0).getCustomerId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(onSecondFloor), reservationRepository.findAllDtoByCustomerId(CUSTOMER_ID).stream()
+                .map(ReservationDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldKeepManyReservationsOfOneParkingSpot() {
+        // given
+        final Long first = hold(1L, null);
+
+        // when
+        final Long second = hold(1L, null);
+
+        // then
+        assertEquals(List.of(first, second), reservationRepository.findAllDtoByCustomerId(CUSTOMER_ID).stream()
+                .map(ReservationDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private Long hold(final Long parkingSpotId, final Instant expiresAt) {
+        final Reservation reservation = reservationRepository.save(Reservation.builder()
+                .customer(customerRepository.getById(CUSTOMER_ID))
+                .parkingSpot(parkingSpotRepository.getById(parkingSpotId))
+                .startTime(Instant.now())
+                .holdExpiresAt(expiresAt)
+                .build());
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        return reservation.getId();
+    }
+
+    private void reserveParkingSpots(final int count) {
+        for (long parkingSpotId = 1; parkingSpotId <= count; parkingSpotId++) {
+            reservationRepository.save(Reservation.builder()
+                    .customer(customerRepository.getById(CUSTOMER_ID))
+                    .parkingSpot(parkingSpotRepository.getById(parkingSpotId))
+                    .startTime(Instant.now())
+                    .build());
+        }
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+}
@@ -1,9 +1,9 @@
 package com.edych.parking.service;
 
+import com.edych.parking.availability.AvailabilityIndex;
+import com.edych.parking.availability.AvailabilityStream;
+import com.edych.parking.availability.ParkingSpotClaims;
 import com.edych.parking.dto.ParkingSpotDto;
-import com.edych.parking.mapper.ParkingSpotDtoMapperImpl;
-import com.edych.parking.model.ParkingSpot;
-import com.edych.parking.repository.ParkingSpotRepository;
 import com.edych.parking.util.TestObjectFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,14 +21,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {ParkingSpotService.class, ParkingSpotDtoMapperImpl.class})
+@SpringBootTest(classes = ParkingSpotService.class)
 class ParkingSpotServiceTest {
 
     @Autowired
     private ParkingSpotService parkingSpotService;
 
     @MockBean
-    private ParkingSpotRepository parkingSpotRepository;
+    private AvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private AvailabilityStream availabilityStream;
+
+    @MockBean
+    private ParkingSpotClaims parkingSpotClaims;
 
     @BeforeEach
     void setUp() {
@@ -36,37 +42,37 @@ class ParkingSpotServiceTest {
     }
 
     @Test
-    void shouldReturnAvailableParkingSpotsDtoWhenParkingSpotRepositoryReturnsNotEmptyParkingSpotList() {
+    void shouldReturnAvailableParkingSpotsDtoWhenAvailabilityIndexReturnsNotEmptyParkingSpotList() {
         // given
-        final ParkingSpot p1 = TestObjectFactory.parkingSpot(1L);
-        final ParkingSpot p2 = TestObjectFactory.parkingSpot(2L);
-        final ParkingSpot p3 = TestObjectFactory.parkingSpot(3L);
-        final ParkingSpot p4 = TestObjectFactory.parkingSpot(4L);
+        final ParkingSpotDto p1 = TestObjectFactory.parkingSpotDto(1L);
+        final ParkingSpotDto p2 = TestObjectFactory.parkingSpotDto(2L);
+        final ParkingSpotDto p3 = TestObjectFactory.parkingSpotDto(3L);
+        final ParkingSpotDto p4 = TestObjectFactory.parkingSpotDto(4L);
 
-        final List<ParkingSpot> all = List.of(p1, p2, p3, p4);
+        final List<ParkingSpotDto> all = List.of(p1, p2, p3, p4);
 
         // when
-        when(parkingSpotRepository.getAllAvailable()).thenReturn(all);
+        when(availabilityIndex.getAllAvailable()).thenReturn(all);
 
         final List<ParkingSpotDto> allAvailable = parkingSpotService.getAllAvailable();
 
         // then
         assertEquals(all.size(), allAvailable.size());
-        verify(parkingSpotRepository, times(1)).getAllAvailable();
+        verify(availabilityIndex, times(1)).getAllAvailable();
     }
 
     @Test
-    void shouldNotReturnAvailableParkingSpotsDtoWhenParkingSpotRepositoryReturnsEmptyParkingSpotList() {
+    void shouldNotReturnAvailableParkingSpotsDtoWhenAvailabilityIndexReturnsEmptyParkingSpotList() {
         // given
-        final List<ParkingSpot> all = new ArrayList<>();
+        final List<ParkingSpotDto> all = new ArrayList<>();
 
         // when
-        when(parkingSpotRepository.getAllAvailable()).thenReturn(all);
+        when(availabilityIndex.getAllAvailable()).thenReturn(all);
 
         final List<ParkingSpotDto> allAvailable = parkingSpotService.getAllAvailable();
 
         // then
         assertEquals(0, allAvailable.size());
-        verify(parkingSpotRepository, times(1)).getAllAvailable();
+        verify(availabilityIndex, times(1)).getAllAvailable();
     }
 }
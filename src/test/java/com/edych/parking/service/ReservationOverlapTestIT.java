@@ -0,0 +1,106 @@
+package com.edych.parking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reservations inserted behind the back of this instance's claims, as another instance would, still keep an
+ * overlapping reservation out: the insert transaction locks the spot and asks the database.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reservation-overlap;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class ReservationOverlapTestIT {
+
+    /**
+     * Far above the ids Hibernate takes from the sequence.
+     */
+    private static final long OTHER_INSTANCE_IDS = 1_000_000L;
+
+    private static final Instant START = Instant.now().truncatedTo(ChronoUnit.HOURS).plus(1, ChronoUnit.DAYS);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldRejectOverlappingReservationTheClaimsDoNotKnow() throws Exception {
+        // given
+        insertBehindClaims(11L, START, START.plus(2, ChronoUnit.HOURS));
+
+        // when
+        mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(11L, START.plus(1, ChronoUnit.HOURS), START.plus(3, ChronoUnit.HOURS))))
+                .andExpect(status().isConflict());
+
+        // then
+        assertEquals(1, countReservations(11L));
+        mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(11L, START.plus(2, ChronoUnit.HOURS), START.plus(3, ChronoUnit.HOURS))))
+                .andExpect(status().isCreated());
+        assertEquals(2, countReservations(11L));
+    }
+
+    @Test
+    void shouldRejectReservationOfSpotTakenWithoutEndTheClaimsDoNotKnow() throws Exception {
+        // given
+        insertBehindClaims(12L, START.minus(1, ChronoUnit.DAYS), null);
+
+        // when
+        mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(12L, START, START.plus(1, ChronoUnit.HOURS))))
+                .andExpect(status().isConflict());
+
+        // then
+        assertEquals(1, countReservations(12L));
+    }
+
+    @Test
+    void shouldReportConflictOfOverlappingItemTheClaimsDoNotKnowAndCreateTheRestOfTheBatch() throws Exception {
+        // given
+        insertBehindClaims(13L, START, START.plus(2, ChronoUnit.HOURS));
+        final String batch = "[" + reservation(13L, START, START.plus(1, ChronoUnit.HOURS)) + ","
+                + reservation(14L, START, START.plus(1, ChronoUnit.HOURS)) + "]";
+
+        // when
+        mockMvc.perform(post("/reservations/batch").contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(jsonPath("$[0].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+
+        // then
+        assertEquals(1, countReservations(13L));
+        assertEquals(1, countReservations(14L));
+        mockMvc.perform(post("/reservation").contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(13L, START.plus(2, ChronoUnit.HOURS), START.plus(3, ChronoUnit.HOURS))))
+                .andExpect(status().isCreated());
+    }
+
+    private void insertBehindClaims(final long parkingSpotId, final Instant start, final Instant end) {
+        jdbcTemplate.update("INSERT INTO reservation (id, customer_id, parking_spot_id, start_time, end_time) "
+                        + "VALUES (?, 1, ?, ?, ?)",
+                OTHER_INSTANCE_IDS + parkingSpotId, parkingSpotId, Timestamp.from(start), end == null ? null : Timestamp.from(end));
+    }
+
+    private int countReservations(final long parkingSpotId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation WHERE parking_spot_id = ?", Integer.class, parkingSpotId);
+    }
+
+    private static String reservation(final long parkingSpotId, final Instant start, final Instant end) {
+        return String.format("{\"customerId\": 1,\"parkingSpotId\": %s,\"startTime\": \"%s\",\"endTime\": \"%s\"}", parkingSpotId, start, end);
+    }
+}
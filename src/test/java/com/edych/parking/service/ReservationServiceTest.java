@@ -1,28 +1,46 @@
 package com.edych.parking.service;
 
+import com.edych.parking.availability.ParkingSpotClaims;
+import com.edych.parking.availability.ParkingSpotFreeLists;
+import com.edych.parking.availability.ReservationWindow;
+import com.edych.parking.availability.Segment;
+import com.edych.parking.dto.AutoReservationDto;
+import com.edych.parking.dto.ReservationBatchResultDto;
 import com.edych.parking.dto.ReservationDto;
+import com.edych.parking.dto.SpotPreferenceDto;
+import com.edych.parking.event.ReservationsDeletedEvent;
+import com.edych.parking.exception.BadRequestException;
 import com.edych.parking.exception.ConflictException;
 import com.edych.parking.exception.NotFoundException;
 import com.edych.parking.mapper.ReservationDtoMapperImpl;
 import com.edych.parking.model.Customer;
 import com.edych.parking.model.ParkingSpot;
 import com.edych.parking.model.Reservation;
+import com.edych.parking.replica.ReplicaRouting;
 import com.edych.parking.repository.CustomerRepository;
 import com.edych.parking.repository.ParkingSpotRepository;
 import com.edych.parking.repository.ReservationRepository;
+import com.edych.parking.stripes.WriteStripes;
 import com.edych.parking.util.TestObjectFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -30,11 +48,18 @@ import static org.mockito.Mockito.*;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = {ReservationService.class, ReservationDtoMapperImpl.class})
+@RecordApplicationEvents
 class ReservationServiceTest {
 
+    private static final Instant START = Instant.now().truncatedTo(ChronoUnit.HOURS).plus(1, ChronoUnit.DAYS);
+    private static final Instant END = START.plus(2, ChronoUnit.HOURS);
+
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     @MockBean
     private ReservationRepository reservationRepository;
 
@@ -44,6 +69,18 @@ class ReservationServiceTest {
     @MockBean
     private ParkingSpotRepository parkingSpotRepository;
 
+    @MockBean
+    private ParkingSpotClaims parkingSpotClaims;
+
+    @MockBean
+    private ParkingSpotFreeLists parkingSpotFreeLists;
+
+    @MockBean
+    private WriteStripes writeStripes;
+
+    @MockBean
+    private ReplicaRouting replicaRouting;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -56,13 +93,18 @@ class ReservationServiceTest {
         final Customer customer = TestObjectFactory.customer(1L, "edych");
 
         final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
+        reservationDto.setStartTime(START);
+        reservationDto.setEndTime(END);
         final Reservation reservation = TestObjectFactory.reservation(null, parkingSpot, customer);
+        reservation.setStartTime(START);
+        reservation.setEndTime(END);
         final Reservation savedReservation = TestObjectFactory.reservation(1L, parkingSpot, customer);
 
         // when
-        when(customerRepository.findById(reservationDto.getCustomerId())).thenReturn(Optional.of(customer));
-        when(parkingSpotRepository.findById(reservationDto.getParkingSpotId())).thenReturn(Optional.of(parkingSpot));
-        when(reservationRepository.existsByParkingSpotId(reservationDto.getParkingSpotId())).thenReturn(false);
+        when(parkingSpotClaims.claim(reservationDto.getParkingSpotId(), new ReservationWindow(START, END))).thenReturn(ParkingSpotClaims.Result.CLAIMED);
+        when(customerRepository.existsById(reservationDto.getCustomerId())).thenReturn(true);
+        when(customerRepository.getById(reservationDto.getCustomerId())).thenReturn(customer);
+        when(parkingSpotRepository.getById(reservationDto.getParkingSpotId())).thenReturn(parkingSpot);
         when(reservationRepository.save(reservation)).thenReturn(savedReservation);
 
         final ReservationDto returnedReservationDto = reservationService.create(reservationDto);
@@ -71,6 +113,37 @@ class ReservationServiceTest {
         assertEquals(parkingSpot.getId(), returnedReservationDto.getParkingSpotId());
         assertEquals(savedReservation.getId(), returnedReservationDto.getId());
         assertEquals(customer.getId(), returnedReservationDto.getCustomerId());
+        final InOrder inOrder = inOrder(parkingSpotClaims, writeStripes, parkingSpotRepository, reservationRepository);
+        inOrder.verify(parkingSpotClaims).claim(eq(1L), any());
+        inOrder.verify(writeStripes).lockParkingSpot(1L);
+        inOrder.verify(parkingSpotRepository).lockAllById(List.of(1L));
+        inOrder.verify(reservationRepository).existsOverlapping(1L, new ReservationWindow(START, END));
+        inOrder.verify(reservationRepository).save(reservation);
+    }
+
+    @Test
+    void shouldReturnExceptionWhenDatabaseHasOverlappingReservationTheClaimsMissed() {
+        // given
+        final ParkingSpot parkingSpot = TestObjectFactory.parkingSpot(1L);
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+
+        final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
+        reservationDto.setStartTime(START);
+        reservationDto.setEndTime(END);
+
+        // when
+        when(parkingSpotClaims.claim(1L, new ReservationWindow(START, END))).thenReturn(ParkingSpotClaims.Result.CLAIMED);
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(reservationRepository.existsOverlapping(1L, new ReservationWindow(START, END))).thenReturn(true);
+
+        final ConflictException exception = assertThrows(ConflictException.class, () -> {
+            reservationService.create(reservationDto);
+        });
+
+        // then
+        assertEquals("Parking spot id [1] is already taken", exception.getMessage());
+        verify(parkingSpotRepository).lockAllById(List.of(1L));
+        verify(reservationRepository, never()).save(any());
     }
 
     @Test
@@ -82,7 +155,8 @@ class ReservationServiceTest {
         final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
 
         // when
-        when(customerRepository.findById(reservationDto.getCustomerId())).thenReturn(Optional.empty());
+        when(parkingSpotClaims.claim(eq(reservationDto.getParkingSpotId()), any())).thenReturn(ParkingSpotClaims.Result.CLAIMED);
+        when(customerRepository.existsById(reservationDto.getCustomerId())).thenReturn(false);
 
         final NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             reservationService.create(reservationDto);
@@ -101,8 +175,7 @@ class ReservationServiceTest {
         final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
 
         // when
-        when(customerRepository.findById(reservationDto.getCustomerId())).thenReturn(Optional.of(customer));
-        when(parkingSpotRepository.findById(reservationDto.getParkingSpotId())).thenReturn(Optional.empty());
+        when(parkingSpotClaims.claim(eq(reservationDto.getParkingSpotId()), any())).thenReturn(ParkingSpotClaims.Result.NOT_FOUND);
 
         final NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             reservationService.create(reservationDto);
@@ -121,9 +194,7 @@ class ReservationServiceTest {
         final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, parkingSpot, customer);
 
         // when
-        when(customerRepository.findById(reservationDto.getCustomerId())).thenReturn(Optional.of(customer));
-        when(parkingSpotRepository.findById(reservationDto.getParkingSpotId())).thenReturn(Optional.of(parkingSpot));
-        when(reservationRepository.existsByParkingSpotId(reservationDto.getParkingSpotId())).thenReturn(true);
+        when(parkingSpotClaims.claim(eq(reservationDto.getParkingSpotId()), any())).thenReturn(ParkingSpotClaims.Result.TAKEN);
 
         final ConflictException exception = assertThrows(ConflictException.class, () -> {
             reservationService.create(reservationDto);
@@ -131,22 +202,213 @@ class ReservationServiceTest {
 
         // then
         assertEquals("Parking spot id [1] is already taken", exception.getMessage());
+        verifyNoInteractions(customerRepository, reservationRepository, writeStripes);
+    }
+
+    @Test
+    void shouldReturnExceptionWhenReservationWindowIsNotOnFullHours() {
+        // given
+        final ReservationDto reservationDto = TestObjectFactory.reservationDto(null, TestObjectFactory.parkingSpot(1L), TestObjectFactory.customer(1L, "edych"));
+        reservationDto.setStartTime(START.plus(30, ChronoUnit.MINUTES));
+        reservationDto.setEndTime(END);
+
+        // when
+        final BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            reservationService.create(reservationDto);
+        });
+
+        // then
+        assertEquals("a reservation window has to start and end on a full hour", exception.getMessage());
+        verifyNoInteractions(parkingSpotClaims, reservationRepository);
+    }
+
+    @Test
+    void shouldReserveFirstFreeParkingSpotOfPreferredSegmentsWhenCreatingAutomatically() {
+        // given
+        final ParkingSpot parkingSpot = TestObjectFactory.parkingSpot(16L);
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final List<Segment> floor2 = List.of(new Segment(2, true));
+        final List<Segment> floor1 = List.of(new Segment(1, true));
+
+        final AutoReservationDto dto = AutoReservationDto.builder()
+                .customerId(customer.getId())
+                .preferences(List.of(new SpotPreferenceDto(2, true), new SpotPreferenceDto(1, true)))
+                .startTime(START)
+                .endTime(END)
+                .build();
+
+        final Reservation reservation = TestObjectFactory.reservation(null, parkingSpot, customer);
+        reservation.setStartTime(START);
+        reservation.setEndTime(END);
+        final Reservation savedReservation = TestObjectFactory.reservation(1L, parkingSpot, customer);
+
+        // when
+        when(customerRepository.existsById(customer.getId())).thenReturn(true);
+        when(customerRepository.getById(customer.getId())).thenReturn(customer);
+        when(parkingSpotFreeLists.segmentsMatching(2, true)).thenReturn(floor2);
+        when(parkingSpotFreeLists.segmentsMatching(1, true)).thenReturn(floor1);
+        when(parkingSpotFreeLists.claimFirstFree(List.of(floor2.get(0), floor1.get(0)), new ReservationWindow(START, END))).thenReturn(parkingSpot.getId());
+        when(parkingSpotRepository.getById(parkingSpot.getId())).thenReturn(parkingSpot);
+        when(reservationRepository.save(reservation)).thenReturn(savedReservation);
+
+        final ReservationDto returnedReservationDto = reservationService.createAuto(dto);
+
+        // then
+        assertEquals(parkingSpot.getId(), returnedReservationDto.getParkingSpotId());
+        assertEquals(savedReservation.getId(), returnedReservationDto.getId());
+        verify(writeStripes).lockParkingSpot(16L);
+    }
+
+    @Test
+    void shouldReturnExceptionWhenNoPreferredParkingSpotIsFreeWhileCreatingAutomatically() {
+        // given
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final AutoReservationDto dto = AutoReservationDto.builder().customerId(customer.getId()).build();
+
+        // when
+        when(customerRepository.existsById(customer.getId())).thenReturn(true);
+        when(parkingSpotFreeLists.segmentsMatching(null, null)).thenReturn(List.of(new Segment(1, false)));
+        when(parkingSpotFreeLists.claimFirstFree(eq(List.of(new Segment(1, false))), any())).thenReturn(null);
+
+        final ConflictException exception = assertThrows(ConflictException.class, () -> {
+            reservationService.createAuto(dto);
+        });
+
+        // then
+        assertEquals("There is no available parking spot matching the preferences", exception.getMessage());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportResultPerItemWhenCreatingReservationsInBatch() {
+        // given
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ParkingSpot freeSpot = TestObjectFactory.parkingSpot(1L);
+        final ParkingSpot takenSpot = TestObjectFactory.parkingSpot(2L);
+
+        final ReservationDto toCreate = TestObjectFactory.reservationDto(null, freeSpot, customer);
+        final ReservationDto conflicting = TestObjectFactory.reservationDto(null, takenSpot, customer);
+        final ReservationDto unknownCustomer = TestObjectFactory.reservationDto(null, freeSpot, TestObjectFactory.customer(2L, "jane"));
+        final ReservationDto halfWindow = TestObjectFactory.reservationDto(null, freeSpot, customer);
+        toCreate.setStartTime(START);
+        toCreate.setEndTime(END);
+        halfWindow.setStartTime(START);
+
+        final Reservation reservation = TestObjectFactory.reservation(null, freeSpot, customer);
+        reservation.setStartTime(START);
+        reservation.setEndTime(END);
+        final Reservation savedReservation = TestObjectFactory.reservation(1L, freeSpot, customer);
+
+        // when
+        when(customerRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L));
+        when(customerRepository.getById(1L)).thenReturn(customer);
+        when(parkingSpotRepository.getById(1L)).thenReturn(freeSpot);
+        when(parkingSpotClaims.claim(eq(1L), any())).thenReturn(ParkingSpotClaims.Result.CLAIMED);
+        when(parkingSpotClaims.claim(eq(2L), any())).thenReturn(ParkingSpotClaims.Result.TAKEN);
+        when(reservationRepository.saveAll(List.of(reservation))).thenReturn(List.of(savedReservation));
+
+        final List<ReservationBatchResultDto> results = reservationService.createAll(List.of(toCreate, conflicting, unknownCustomer, halfWindow));
+
+        // then
+        assertEquals(ReservationBatchResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals(savedReservation.getId(), results.get(0).getReservation().getId());
+        assertEquals(ReservationBatchResultDto.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals(ReservationBatchResultDto.Status.NOT_FOUND, results.get(2).getStatus());
+        assertEquals("Resource [customer] with id [2] does not exist.", results.get(2).getMessage());
+        assertEquals(ReservationBatchResultDto.Status.BAD_REQUEST, results.get(3).getStatus());
+        assertEquals("a reservation window needs both a startTime and an endTime", results.get(3).getMessage());
+        verify(reservationRepository, times(1)).saveAll(anyList());
+        verify(writeStripes).lockParkingSpots(List.of(1L));
+        verify(parkingSpotRepository).lockAllById(Set.of(1L));
+    }
+
+    @Test
+    void shouldReportConflictAndReleaseClaimWhenDatabaseHasOverlappingReservationInBatch() {
+        // given
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final ParkingSpot freeSpot = TestObjectFactory.parkingSpot(1L);
+        final ParkingSpot takenSpot = TestObjectFactory.parkingSpot(2L);
+
+        final ReservationDto toCreate = TestObjectFactory.reservationDto(null, freeSpot, customer);
+        final ReservationDto overlapping = TestObjectFactory.reservationDto(null, takenSpot, customer);
+        toCreate.setStartTime(START);
+        toCreate.setEndTime(END);
+        overlapping.setStartTime(START);
+        overlapping.setEndTime(END);
+
+        final Reservation reservation = TestObjectFactory.reservation(null, freeSpot, customer);
+        reservation.setStartTime(START);
+        reservation.setEndTime(END);
+        final Reservation savedReservation = TestObjectFactory.reservation(1L, freeSpot, customer);
+
+        // when
+        when(customerRepository.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+        when(customerRepository.getById(1L)).thenReturn(customer);
+        when(parkingSpotRepository.getById(1L)).thenReturn(freeSpot);
+        when(parkingSpotRepository.getById(2L)).thenReturn(takenSpot);
+        when(parkingSpotClaims.claim(any(), any())).thenReturn(ParkingSpotClaims.Result.CLAIMED);
+        when(reservationRepository.findAllDtoByParkingSpotIdInNotEndedAt(Set.of(1L, 2L), START))
+                .thenReturn(List.of(ReservationDto.builder().parkingSpotId(2L).startTime(START.minus(1, ChronoUnit.HOURS)).endTime(START.plus(1, ChronoUnit.HOURS)).build()));
+        when(reservationRepository.saveAll(List.of(reservation))).thenReturn(List.of(savedReservation));
+
+        final List<ReservationBatchResultDto> results = reservationService.createAll(List.of(toCreate, overlapping));
+
+        // then
+        assertEquals(ReservationBatchResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals(savedReservation.getId(), results.get(0).getReservation().getId());
+        assertEquals(ReservationBatchResultDto.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals("Parking spot id [2] is already taken", results.get(1).getMessage());
+        verify(parkingSpotRepository).lockAllById(Set.of(1L, 2L));
+        verify(parkingSpotClaims).release(2L, new ReservationWindow(START, END));
+        verify(parkingSpotClaims, never()).release(eq(1L), any());
+    }
+
+    @Test
+    void shouldDeleteExpiredHoldsWithOneStatementAndSkipTheRest() {
+        // given
+        final Instant now = Instant.now();
+        final List<Long> ids = List.of(1L, 2L);
+        final ReservationDto expired = TestObjectFactory.reservationDto(1L, TestObjectFactory.parkingSpot(1L), TestObjectFactory.customer(1L, "edych"));
+
+        // when
+        when(reservationRepository.deleteAllDtoHeldByIdInExpiredAt(ids, now)).thenReturn(List.of(expired));
+
+        final int deleted = reservationService.deleteExpiredHolds(ids, now);
+
+        // then
+        assertEquals(1, deleted);
+        verify(writeStripes).lockParkingSpots(List.of(1L));
+        verify(reservationRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void shouldReturnExceptionWhenConfirmingHoldThatExpired() {
+        // when
+        when(reservationRepository.confirmHold(eq(1L), any())).thenReturn(0);
+
+        final NotFoundException exception = assertThrows(NotFoundException.class, () -> reservationService.confirmHold(1L));
+
+        // then
+        assertEquals("Resource [hold] with id [1] does not exist.", exception.getMessage());
     }
 
     @Test
     void shouldDeleteByIdWhenReservationExists() {
         // given
         final Long id = 1L;
-        final ArgumentCaptor<Long> argumentCaptor = ArgumentCaptor.forClass(Long.class);
+        final ReservationDto reservation = TestObjectFactory.reservationDto(id, TestObjectFactory.parkingSpot(1L), TestObjectFactory.customer(1L, "edych"));
 
         // when
-        when(reservationRepository.existsById(id)).thenReturn(true);
+        when(reservationRepository.deleteDtoById(id)).thenReturn(List.of(reservation));
         reservationService.deleteById(id);
 
         // then
-        verify(reservationRepository, times(1)).deleteById(argumentCaptor.capture());
-        final Long capturedValue = argumentCaptor.getValue();
-        assertEquals(id, capturedValue);
+        verify(reservationRepository, never()).findById(any());
+        final InOrder inOrder = inOrder(reservationRepository, writeStripes);
+        inOrder.verify(reservationRepository).deleteDtoById(id);
+        inOrder.verify(writeStripes).lockParkingSpots(List.of(1L));
+        assertEquals(List.of(new ReservationsDeletedEvent(List.of(reservation))), applicationEvents.stream(ReservationsDeletedEvent.class)
+                .collect(Collectors.toList()));
     }
 
     @Test
@@ -155,7 +417,7 @@ class ReservationServiceTest {
         final Long id = 1L;
 
         // when
-        when(reservationRepository.existsById(id)).thenReturn(false);
+        when(reservationRepository.deleteDtoById(id)).thenReturn(List.of());
 
         final NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             reservationService.deleteById(id);
@@ -163,6 +425,50 @@ class ReservationServiceTest {
 
         // then
         assertEquals("Resource [reservation] with id [1] does not exist.", exception.getMessage());
+        assertEquals(0, applicationEvents.stream(ReservationsDeletedEvent.class).count());
+        verifyNoInteractions(writeStripes);
+    }
+
+    @Test
+    void shouldDeleteAllReservationsOfCustomerAndFreeTheirSpotsInOneEvent() {
+        // given
+        final Customer customer = TestObjectFactory.customer(1L, "edych");
+        final List<ReservationDto> reservations = List.of(
+                TestObjectFactory.reservationDto(1L, TestObjectFactory.parkingSpot(1L), customer),
+                TestObjectFactory.reservationDto(2L, TestObjectFactory.parkingSpot(2L), customer));
+
+        // when
+        when(reservationRepository.deleteAllDtoByCustomerId(1L)).thenReturn(reservations);
+        final int deleted = reservationService.deleteAllByCustomerId(1L);
+
+        // then
+        assertEquals(2, deleted);
+        verify(writeStripes).lockParkingSpots(List.of(1L, 2L));
+        assertEquals(List.of(new ReservationsDeletedEvent(reservations)), applicationEvents.stream(ReservationsDeletedEvent.class)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldReturnExceptionWhenDeletingReservationsOfCustomerThatDoesNotExist() {
+        // when
+        when(reservationRepository.deleteAllDtoByCustomerId(1L)).thenReturn(List.of());
+        when(customerRepository.existsById(1L)).thenReturn(false);
+
+        final NotFoundException exception = assertThrows(NotFoundException.class, () -> reservationService.deleteAllByCustomerId(1L));
+
+        // then
+        assertEquals("Resource [customer] with id [1] does not exist.", exception.getMessage());
+    }
+
+    @Test
+    void shouldDeleteNothingWhenFloorHasNoReservations() {
+        // when
+        when(reservationRepository.deleteAllDtoByFloor(3)).thenReturn(List.of());
+        final int deleted = reservationService.deleteAllByFloor(3);
+
+        // then
+        assertEquals(0, deleted);
+        assertEquals(0, applicationEvents.stream(ReservationsDeletedEvent.class).count());
     }
 
     @Test
@@ -173,19 +479,51 @@ class ReservationServiceTest {
         final ParkingSpot parkingSpot2 = TestObjectFactory.parkingSpot(2L);
         final Customer customer = TestObjectFactory.customer(1L, "edych");
 
-        final Reservation reservation1 = TestObjectFactory.reservation(1L, parkingSpot1, customer);
-        final Reservation reservation2 = TestObjectFactory.reservation(2L, parkingSpot2, customer);
+        final ReservationDto reservation1 = TestObjectFactory.reservationDto(1L, parkingSpot1, customer);
+        final ReservationDto reservation2 = TestObjectFactory.reservationDto(2L, parkingSpot2, customer);
 
-        final List<Reservation> reservations = List.of(reservation1, reservation2);
+        final List<ReservationDto> reservations = List.of(reservation1, reservation2);
 
         // when
-        when(customerRepository.existsById(customerId)).thenReturn(true);
-        when(reservationRepository.findAllByCustomerId(customerId)).thenReturn(reservations);
+        when(reservationRepository.findAllDtoByCustomerId(customerId)).thenReturn(reservations);
 
         final List<ReservationDto> reservationDtoList = reservationService.getAllByCustomerId(customerId);
 
         // then
         assertEquals(reservations.size(), reservationDtoList.size());
+        verify(customerRepository, never()).existsById(customerId);
+    }
+
+    @Test
+    void shouldReturnEmptyReservationsListByCustomerIdWhenCustomerExistsWithoutReservations() {
+        // given
+        final Long customerId = 1L;
+
+        // when
+        when(reservationRepository.findAllDtoByCustomerId(customerId)).thenReturn(List.of());
+        when(customerRepository.existsById(customerId)).thenReturn(true);
+
+        final List<ReservationDto> reservationDtoList = reservationService.getAllByCustomerId(customerId);
+
+        // then
+        assertEquals(0, reservationDtoList.size());
+    }
+
+    @Test
+    void shouldReturnPageOfReservationsByCustomerIdWhenCustomerExists() {
+        // given
+        final Long customerId = 1L;
+        final Customer customer = TestObjectFactory.customer(customerId, "edych");
+        final ReservationDto reservation = TestObjectFactory.reservationDto(2L, TestObjectFactory.parkingSpot(2L), customer);
+
+        // when
+        when(reservationRepository.findPageDtoByCustomerId(customerId, 1L, PageRequest.of(0, 10))).thenReturn(List.of(reservation));
+
+        final List<ReservationDto> page = reservationService.getPageByCustomerId(customerId, 1L, 10);
+
+        // then
+        assertEquals(List.of(reservation), page);
+        verify(customerRepository, never()).existsById(customerId);
     }
 
     @Test
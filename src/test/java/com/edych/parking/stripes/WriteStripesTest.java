@@ -0,0 +1,162 @@
+package com.edych.parking.stripes;
+
+import com.edych.parking.availability.ParkingSpotClaims;
+import com.edych.parking.availability.ParkingSpotFreeLists;
+import com.edych.parking.model.ParkingSpot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteStripesTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldPutSpotsOfOneFloorIntoOneStripeAndFloorsIntoDifferentOnes() {
+        // given
+        final WriteStripes writeStripes = writeStripes(WriteStripesProperties.Partition.FLOOR, 4);
+
+        // when
+        final int firstOfFloor1 = writeStripes.stripeOfParkingSpot(1L);
+        final int secondOfFloor1 = writeStripes.stripeOfParkingSpot(2L);
+        final int floor2 = writeStripes.stripeOfParkingSpot(3L);
+
+        // then
+        assertEquals(firstOfFloor1, secondOfFloor1);
+        assertNotEquals(firstOfFloor1, floor2);
+    }
+
+    @Test
+    void shouldPutConsecutiveSpotsIntoDifferentStripes() {
+        // given
+        final WriteStripes writeStripes = writeStripes(WriteStripesProperties.Partition.PARKING_SPOT, 4);
+
+        // when
+        final int first = writeStripes.stripeOfParkingSpot(1L);
+        final int second = writeStripes.stripeOfParkingSpot(2L);
+
+        // then
+        assertNotEquals(first, second);
+        assertEquals(first, writeStripes.stripeOfParkingSpot(5L));
+    }
+
+    @Test
+    void shouldHoldStripeUntilTransactionCompletes() throws Exception {
+        // given
+        final WriteStripes writeStripes = writeStripes(WriteStripesProperties.Partition.FLOOR, 4);
+        final AtomicBoolean locked = new AtomicBoolean();
+        TransactionSynchronizationManager.initSynchronization();
+        writeStripes.lockParkingSpot(1L);
+
+        // when
+        final CompletableFuture<Void> sameFloor = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            writeStripes.lockParkingSpot(2L);
+            locked.set(true);
+        }));
+        final CompletableFuture<Void> otherFloor = CompletableFuture.runAsync(() -> inTransaction(() -> writeStripes.lockParkingSpot(3L)));
+        otherFloor.get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        final boolean lockedBeforeCompletion = locked.get();
+        complete();
+        sameFloor.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertFalse(lockedBeforeCompletion);
+        assertTrue(locked.get());
+    }
+
+    @Test
+    void shouldHoldStripesOfAllSpotsOfOneWriteUntilTransactionCompletes() throws Exception {
+        // given
+        final WriteStripes writeStripes = writeStripes(WriteStripesProperties.Partition.PARKING_SPOT, 4);
+        final AtomicBoolean locked = new AtomicBoolean();
+        TransactionSynchronizationManager.initSynchronization();
+        writeStripes.lockParkingSpots(List.of(3L, 1L, 5L));
+
+        // when
+        final CompletableFuture<Void> sameSpot = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            writeStripes.lockParkingSpots(List.of(4L, 3L));
+            locked.set(true);
+        }));
+        final CompletableFuture<Void> otherSpot = CompletableFuture.runAsync(() -> inTransaction(() -> writeStripes.lockParkingSpot(2L)));
+        otherSpot.get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        final boolean lockedBeforeCompletion = locked.get();
+        complete();
+        sameSpot.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertFalse(lockedBeforeCompletion);
+        assertTrue(locked.get());
+    }
+
+    @Test
+    void shouldTakeNoStripesByDefault() throws Exception {
+        // given
+        final WriteStripes writeStripes = new WriteStripes(new ParkingSpotFreeLists(new ParkingSpotClaims(event -> { })),
+                new WriteStripesProperties());
+        TransactionSynchronizationManager.initSynchronization();
+        writeStripes.lockParkingSpot(1L);
+
+        // when
+        final CompletableFuture<Void> sameSpot = CompletableFuture.runAsync(() -> inTransaction(() -> writeStripes.lockParkingSpot(1L)));
+
+        // then
+        sameSpot.get(5, TimeUnit.SECONDS);
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    private static void inTransaction(final Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            complete();
+        }
+    }
+
+    private static void complete() {
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    /**
+     * Spots 1 and 2 on floor 1, spot 3 on floor 2.
+     */
+    private static WriteStripes writeStripes(final WriteStripesProperties.Partition partition, final int stripes) {
+        final ParkingSpotFreeLists parkingSpotFreeLists = new ParkingSpotFreeLists(new ParkingSpotClaims(event -> { }));
+        parkingSpotFreeLists.load(List.of(parkingSpot(1L, 1), parkingSpot(2L, 1), parkingSpot(3L, 2)), List.of());
+
+        final WriteStripesProperties properties = new WriteStripesProperties();
+        properties.setPartition(partition);
+        properties.setStripes(stripes);
+
+        return new WriteStripes(parkingSpotFreeLists, properties);
+    }
+
+    private static ParkingSpot parkingSpot(final long id, final int floor) {
+        return ParkingSpot.builder()
+                .id(id)
+                .number((int) id)
+                .floor(floor)
+                .handicapped(false)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.edych.parking.util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the statements executed and the rows read through a wrapped data source, whichever code runs them.
+ * A JDBC batch counts as one statement.
+ */
+public class StatementCounter {
+
+    private static final List<Class<?>> WRAPPED = List.of(Connection.class, CallableStatement.class, PreparedStatement.class,
+            Statement.class, ResultSet.class);
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    public DataSource wrap(final DataSource dataSource) {
+        return wrap(DataSource.class, dataSource);
+    }
+
+    public void reset() {
+        statements.set(0);
+        rows.set(0);
+    }
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    private <T> T wrap(final Class<T> type, final Object target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            // the proxy stands for the target, so that Spring Boot sees Liquibase and JPA share the data source
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+
+            final Object result;
+
+            try {
+                result = method.invoke(target, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            count(type, method, result);
+
+            return result == null ? null : wrapResult(method, result);
+        }));
+    }
+
+    private void count(final Class<?> type, final Method method, final Object result) {
+        if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+            statements.incrementAndGet();
+        } else if (type == ResultSet.class && method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+            rows.incrementAndGet();
+        }
+    }
+
+    private Object wrapResult(final Method method, final Object result) {
+        return WRAPPED.stream()
+                .filter(type -> type == method.getReturnType())
+                .findFirst()
+                .<Object>map(type -> wrap(type, result))
+                .orElse(result);
+    }
+}
@@ -1,11 +1,13 @@
 package com.edych.parking.util;
 
+import com.edych.parking.dto.ParkingSpotDto;
 import com.edych.parking.dto.ReservationDto;
 import com.edych.parking.model.Customer;
 import com.edych.parking.model.ParkingSpot;
 import com.edych.parking.model.Reservation;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 public class TestObjectFactory {
 
@@ -18,6 +20,15 @@ public class TestObjectFactory {
                 .build();
     }
 
+    public static ParkingSpotDto parkingSpotDto(final Long id) {
+        return ParkingSpotDto.builder()
+                .id(id)
+                .number(id.intValue())
+                .floor(1)
+                .handicapped(true)
+                .build();
+    }
+
     public static ReservationDto reservationDto(final Long id, final ParkingSpot parkingSpot, final Customer customer) {
         return ReservationDto.builder()
                 .id(id)
@@ -34,7 +45,10 @@ public class TestObjectFactory {
     }
 
     public static String asJsonString(final Object obj) throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(obj);
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsString(obj);
     }
 
     public static Reservation reservation(final Long id, final ParkingSpot parkingSpot, final Customer customer) {
@@ -0,0 +1,41 @@
+package com.edych.parking.virtualthreads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void shouldRunTasksOnNamedVirtualThreadsWhenJvmSupportsThem() throws Exception {
+        // given
+        assumeTrue(VirtualThreads.isSupported());
+        final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("test-vt-");
+
+        // when
+        final Thread thread = executor.submit(Thread::currentThread).get();
+        executor.shutdown();
+
+        // then
+        assertTrue(thread.getName().startsWith("test-vt-"));
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+    }
+
+    @Test
+    void shouldRefuseToCreateExecutorWhenJvmHasNoVirtualThreads() {
+        // given
+        assumeFalse(VirtualThreads.isSupported());
+
+        // when
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> VirtualThreads.newVirtualThreadPerTaskExecutor("test-vt-"));
+
+        // then
+        assertTrue(exception.getMessage().startsWith("Virtual threads need Java 21 or newer"));
+    }
+}